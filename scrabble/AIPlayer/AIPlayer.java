@@ -1,23 +1,22 @@
 package scrabble.AIPlayer;
 
-import scrabble.Board.Board;
-import scrabble.Board.Cell;
 import scrabble.Game.Player;
 import scrabble.Game.Game;
+import scrabble.Game.GameConfig;
 import scrabble.Placement.PlaceTile;
 import scrabble.Placement.BoardOperator;
-import scrabble.Placement.TileRackOperator;
 import scrabble.Tile.Tile;
 import scrabble.Tile.TileManager;
+import scrabble.Lexicon.Gaddag;
+import scrabble.Lexicon.LexiconSnapshot;
 import scrabble.Validator.Dictionary;
-import scrabble.Validator.PositionValidator;
-import scrabble.Validator.WordValidator;
-import scrabble.Validator.WordFormer;
-import scrabble.Score.ScoreCalculator;
 import scrabble.Logging.GameLogger;
-import scrabble.Score.DefaultScoreCalculator;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * AI玩家类，用于模拟人类玩家进行游戏
@@ -26,8 +25,6 @@ import java.util.*;
 public class AIPlayer {
     private final Player player;
     private final Game game;
-    private final Random random;
-    private static final double EXCHANGE_PROBABILITY = 0.8; // 80%概率交换手牌
     private final GameLogger logger;
     
     /**
@@ -38,63 +35,22 @@ public class AIPlayer {
         NOVICE,
         /** 普通级别：选择分数中等的单词 */
         NORMAL,
-        /** 困难级别：选择分数最高的单词 */
-        MASTER
+        /** 困难级别：选择权益（分数加剩余字母价值）最高的单词 */
+        MASTER,
+        /** 专家级别：对权益最高的若干个单词模拟之后的对局，选择平均收益最高的单词 */
+        EXPERT
     }
     
     /** 当前AI难度 */
     private Difficulty difficulty;
-
-    /**
-     * 表示一个可能的单词放置方案
-     */
-    private static class WordPlacement {
-        private final String word;
-        private final int row;
-        private final int col;
-        private final boolean isHorizontal;
-        private final int score;
-        private final List<PlaceTile.TilePlacement> placements;
-
-        public WordPlacement(String word, int row, int col, boolean isHorizontal, int score, List<PlaceTile.TilePlacement> placements) {
-            this.word = word;
-            this.row = row;
-            this.col = col;
-            this.isHorizontal = isHorizontal;
-            this.score = score;
-            this.placements = placements;
-        }
-
-        public String getWord() {
-            return word;
-        }
-
-        public int getRow() {
-            return row;
-        }
-
-        public int getCol() {
-            return col;
-        }
-
-        public boolean isHorizontal() {
-            return isHorizontal;
-        }
-
-        public int getScore() {
-            return score;
-        }
-
-        public List<PlaceTile.TilePlacement> getPlacements() {
-            return placements;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("单词：'%s'，位置：(%d,%d)，方向：%s，分数：%d",
-                    word, row, col, isHorizontal ? "水平" : "垂直", score);
-        }
-    }
+    /** 走法生成器，为null时使用默认的锚点走法生成器 */
+    private MoveGenerator moveGenerator;
+    /** 走法缓存，为null时不使用缓存 */
+    private MoveCache moveCache = MoveCache.getInstance();
+    /** 最近一次搜索的报告 */
+    private volatile SearchReport lastSearchReport;
+    /** 在其他玩家的回合里提前生成走法 */
+    private final Ponderer ponderer;
 
     /**
      * 创建一个AI玩家实例
@@ -105,9 +61,9 @@ public class AIPlayer {
     public AIPlayer(Player player, Game game) {
         this.player = player;
         this.game = game;
-        this.random = new Random();
         this.logger = game.getLogger();
         this.difficulty = Difficulty.NORMAL;
+        this.ponderer = new Ponderer("player" + player.getPlayerIndex());
     }
     
     /**
@@ -120,9 +76,9 @@ public class AIPlayer {
     public AIPlayer(Player player, Game game, Difficulty difficulty) {
         this.player = player;
         this.game = game;
-        this.random = new Random();
         this.logger = game.getLogger();
         this.difficulty = difficulty;
+        this.ponderer = new Ponderer("player" + player.getPlayerIndex());
     }
     
     /**
@@ -145,535 +101,336 @@ public class AIPlayer {
     }
 
     /**
-     * 处理AI玩家字母架中的空白牌
-     * 如果发现空白牌，随机设置为A-Z中的一个字母
-     */
-    public void processBlankTiles() {
-        TileManager tileManager = game.getTileManager();
-        List<Tile> playerRack = tileManager.getPlayerRackList(player);
-
-        for (Tile tile : playerRack) {
-            if (tile.isBlank() && tile.getLetter() == '\0') {
-                // 随机选择一个字母(A-Z)
-                char randomLetter = (char) ('A' + random.nextInt(26));
-                
-                // 为空白牌指定随机字母
-                if (game.assignLetterToBlankTile(tile, randomLetter)) {
-                    logger.info("AI玩家 {} 将空白牌设置为字母 '{}'", player, randomLetter);
-                }
-            }
-        }
-    }
-
-    /**
-     * 执行AI回合
-     * 策略：智能分析棋盘和词典，找出最优单词放置。如果不能拼单词，则考虑交换或跳过
+     * 设置AI玩家使用的走法生成器
+     *
+     * @param moveGenerator 走法生成器，为null时使用基于当前词典GADDAG和交叉检查表的AnchorMoveGenerator
      */
-    public void playTurn() {
-        logger.info("AI玩家 {} 开始执行回合", player);
-
-        // 处理字母架中的空白牌
-        processBlankTiles();
-
-        TileManager tileManager = game.getTileManager();
-        List<Tile> playerRack = tileManager.getPlayerRackList(player);
-
-        // 尝试智能拼单词并放置
-        if (tryPlaceOptimalWord()) {
-            logger.info("AI成功放置单词");
-            return;
-        }
-
-        logger.info("AI无法找到有效单词放置");
-
-        // 如果不能拼单词，根据概率决定交换手牌或跳过回合
-        double rand = random.nextDouble();
-        if (rand < EXCHANGE_PROBABILITY) {
-            logger.info("AI决定交换所有手牌（概率：{}%）", EXCHANGE_PROBABILITY * 100);
-            exchangeAllTiles();
-        } else {
-            logger.info("AI决定跳过回合（概率：{}%）", (1 - EXCHANGE_PROBABILITY) * 100);
-            game.passTurn();
-        }
+    public void setMoveGenerator(MoveGenerator moveGenerator) {
+        this.moveGenerator = moveGenerator;
     }
 
     /**
-     * Try to place the optimal word
+     * 获取AI玩家使用的走法生成器
+     * 没有设置时每次调用都为游戏当前的词典、验证器和交叉检查表创建AnchorMoveGenerator，
+     * 并使用当前难度的走法生成线程池；MASTER和EXPERT还使用默认的剩余字母价值表按权益选择。
+     * GADDAG由游戏开始时的Game.prepareGaddag()在后台构建，还没有构建完时等待
      *
-     * @return whether a word was successfully placed
+     * @return 走法生成器，无法获取字典实例时返回null
      */
-    private boolean tryPlaceOptimalWord() {
-        // Get game components
-        BoardOperator boardOperator = game.getBoardOperator();
-        Board board = game.getBoard();
-        WordValidator wordValidator = game.getWordValidator();
-        TileManager tileManager = game.getTileManager();
-        PlaceTile placeTile = game.getPlaceTile();
-
-
-        // Get current player's tile rack
-        List<Tile> playerRack = tileManager.getPlayerRackList(player);
-        if (playerRack == null || playerRack.isEmpty()) {
-            logger.warn("AI player's rack is empty");
-            return false;
+    public MoveGenerator getMoveGenerator() {
+        if (moveGenerator != null) {
+            return moveGenerator;
         }
-
-        logger.info("AI player's rack: {}", playerRack);
-
-        // Check if this is the first placement (empty board)
-        boolean isFirstPlacement = isBoardEmpty(board);
-
-        // Find all possible word placement options
-        List<WordPlacement> possiblePlacements = findAllPossiblePlacements(playerRack, board, boardOperator, wordValidator);
-
-        // If no possible placements found, return failure
-        if (possiblePlacements.isEmpty()) {
-            return false;
-        }
-
-        // 根据AI难度选择不同的单词放置策略
-        WordPlacement selectedPlacement;
-        
-        // 对所有可能的单词放置方案按分数排序
-        possiblePlacements.sort(Comparator.comparingInt(WordPlacement::getScore));
-        
-        switch (difficulty) {
-            case NOVICE:
-                // 简单AI选择分数最低的单词
-                selectedPlacement = possiblePlacements.get(0);
-                break;
-                
-            case NORMAL:
-                // 普通AI选择分数中等的单词
-                int middleIndex = possiblePlacements.size() / 2;
-                selectedPlacement = possiblePlacements.get(middleIndex);
-                break;
-                
-            case MASTER:
-            default:
-                // 困难AI选择分数最高的单词
-                selectedPlacement = possiblePlacements.get(possiblePlacements.size() - 1);
-                break;
-        }
-
-        // Execute placement
-        boolean success = placeTilesForWord(selectedPlacement, placeTile, tileManager);
-        if (success) {
-            logger.info("Successfully placed word: {}", selectedPlacement);
-            return true;
-        } else {
-            logger.warn("Failed to place word: {}", selectedPlacement);
-            return false;
+        Dictionary dictionary = game.getDictionary();
+        if (dictionary == null) {
+            logger.error("无法获取字典实例", null);
+            return null;
         }
+        return new AnchorMoveGenerator(dictionary.getGaddag(), game.getWordValidator(), game.getCrossCheckTable(),
+                MoveGenerationPools.forDifficulty(difficulty), getLeaveTable());
     }
 
     /**
-     * 判断棋盘是否为空
+     * 等待游戏在后台构建GADDAG，截止时间到达或回合被取消时不再等待
      *
-     * @param board 游戏棋盘
-     * @return 如果棋盘为空返回true
+     * @param deadline 搜索截止时间
+     * @return GADDAG已经构建完成（或构建失败，交给getMoveGenerator()处理）时返回true
      */
-    private boolean isBoardEmpty(Board board) {
-        Cell[][] grid = board.getGrid();
-        for (int row = 0; row < Board.BOARD_SIZE; row++) {
-            for (int col = 0; col < Board.BOARD_SIZE; col++) {
-                if (grid[row][col].hasTile()) {
-                    return false;
-                }
+    private boolean awaitGaddag(SearchDeadline deadline) {
+        CompletableFuture<Gaddag> gaddag = game.prepareGaddag();
+        while (!gaddag.isDone()) {
+            if (deadline.isExpired()) {
+                return false;
+            }
+            try {
+                // 分段等待，回合被取消时及时返回
+                gaddag.get(Math.min(deadline.getRemainingMillis(), 50), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // 继续等待
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                return true;
             }
         }
         return true;
     }
 
     /**
-     * 查找棋盘上所有可能的锚点位置
-     * 锚点是新单词可以连接到现有单词的位置
+     * 当前难度使用的剩余字母价值表
      *
-     * @param board 游戏棋盘
-     * @param boardOperator 棋盘操作器
-     * @return 锚点位置列表
+     * @return MASTER和EXPERT返回默认表，其他难度返回null
      */
-    private List<int[]> findAnchorPoints(Board board, BoardOperator boardOperator) {
-        List<int[]> anchorPoints = new ArrayList<>();
-        Cell[][] grid = board.getGrid();
-
-        // 判断是否是首次放置
-        boolean isEmpty = isBoardEmpty(board);
-
-        // 如果是首次放置，中心点是唯一的锚点
-        if (isEmpty) {
-            anchorPoints.add(new int[]{7, 7});
-            return anchorPoints;
-        }
-
-        // 否则，查找所有字母牌周围的空格子作为锚点
-        boolean[][] visited = new boolean[Board.BOARD_SIZE][Board.BOARD_SIZE];
-
-        for (int row = 0; row < Board.BOARD_SIZE; row++) {
-            for (int col = 0; col < Board.BOARD_SIZE; col++) {
-                if (grid[row][col].hasTile()) {
-                    // 检查四个方向的相邻空格子
-                    checkAndAddAnchor(row-1, col, boardOperator, visited, anchorPoints);
-                    checkAndAddAnchor(row+1, col, boardOperator, visited, anchorPoints);
-                    checkAndAddAnchor(row, col-1, boardOperator, visited, anchorPoints);
-                    checkAndAddAnchor(row, col+1, boardOperator, visited, anchorPoints);
-                }
-            }
-        }
-
-        return anchorPoints;
+    private LeaveTable getLeaveTable() {
+        return difficulty == Difficulty.MASTER || difficulty == Difficulty.EXPERT ? LeaveTable.getDefault() : null;
     }
 
     /**
-     * 检查并添加可能的锚点
+     * 回合结束后开始预先思考
+     * 在其他玩家的回合里，用后台线程为当前的字母架提前生成走法，轮到本玩家时直接使用。
+     * 只在使用默认走法生成器时进行，应在回合结束、补牌之后调用
      */
-    private void checkAndAddAnchor(int row, int col, BoardOperator boardOperator, boolean[][] visited, List<int[]> anchorPoints) {
-        if (row >= 0 && row < Board.BOARD_SIZE && col >= 0 && col < Board.BOARD_SIZE
-                && !boardOperator.isCellOccupied(row, col) && !visited[row][col]) {
-            anchorPoints.add(new int[]{row, col});
-            visited[row][col] = true;
+    public void startPondering() {
+        Dictionary dictionary = game.getDictionary();
+        if (moveGenerator != null || dictionary == null) {
+            return;
         }
+        // 后台线程读取的是棋盘的副本，不能使用随真实棋盘更新的交叉检查表
+        LeaveTable leaveTable = getLeaveTable();
+        LexiconSnapshot pinned = game.getLexiconSnapshot();
+        AnchorMoveGenerator generator = new AnchorMoveGenerator(dictionary.getGaddag(pinned), game.getWordValidator(),
+                null, null, leaveTable);
+        ponderer.start(generator, game.getTileManager().getPlayerRackList(player), game.getBoardOperator(),
+                pinned, leaveTable);
     }
 
     /**
-     * 查找所有可能的单词放置方案
+     * 有玩家确认放置后，作废预先思考中受影响的行（列）
      *
-     * @param playerRack 玩家的字母牌架
-     * @param board 游戏棋盘
-     * @param boardOperator 棋盘操作器
-     * @param wordValidator 单词验证器
-     * @return 所有可能的单词放置方案列表
+     * @param placements 已确认的字母牌放置
      */
-    private List<WordPlacement> findAllPossiblePlacements(List<Tile> playerRack, Board board,
-                                                          BoardOperator boardOperator, WordValidator wordValidator) {
-        List<WordPlacement> possiblePlacements = new ArrayList<>();
-
-        // 查找所有可能的锚点位置
-        List<int[]> anchorPoints = findAnchorPoints(board, boardOperator);
-
-        // 将玩家手牌转换为字符映射，便于后续处理
-        Map<Character, Integer> availableLetters = new HashMap<>();
-        for (Tile tile : playerRack) {
-            char letter = Character.toUpperCase(tile.getLetter());
-            if (tile.isBlank()) {
-                // 处理空白牌
-                availableLetters.put('*', availableLetters.getOrDefault('*', 0) + 1);
-            } else {
-                availableLetters.put(letter, availableLetters.getOrDefault(letter, 0) + 1);
-            }
-        }
-
-        // 获取字典中的所有单词
-        Dictionary dictionary = null;
-        try {
-            // 尝试获取字典的实例
-            if (wordValidator instanceof scrabble.Validator.DefaultWordValidator) {
-                java.lang.reflect.Field dictionaryField = scrabble.Validator.DefaultWordValidator.class.getDeclaredField("dictionary");
-                dictionaryField.setAccessible(true);
-                dictionary = (Dictionary) dictionaryField.get(wordValidator);
-            }
-        } catch (Exception e) {
-            logger.error("获取字典实例失败: {}", e, e.getMessage());
-            return possiblePlacements;
-        }
-
-        if (dictionary == null) {
-            logger.error("无法获取字典实例", null);
-            return possiblePlacements;
-        }
-
-        Set<String> allDictionaryWords = dictionary.getWords();
-        if (allDictionaryWords == null || allDictionaryWords.isEmpty()) {
-            logger.error("字典中没有单词", null);
-            return possiblePlacements;
-        }
-
-        // 对每个锚点，尝试水平和垂直方向的单词放置
-        for (int[] anchorPoint : anchorPoints) {
-            int anchorRow = anchorPoint[0];
-            int anchorCol = anchorPoint[1];
-
-            // 尝试水平方向
-            tryDirectionalPlacements(anchorRow, anchorCol, true, board, boardOperator,
-                    playerRack, availableLetters, allDictionaryWords,
-                    wordValidator, possiblePlacements);
-
-            // 尝试垂直方向
-            tryDirectionalPlacements(anchorRow, anchorCol, false, board, boardOperator,
-                    playerRack, availableLetters, allDictionaryWords,
-                    wordValidator, possiblePlacements);
-        }
-
-        return possiblePlacements;
+    public void onPlacementConfirmed(List<PlaceTile.TilePlacement> placements) {
+        ponderer.invalidate(placements, game.getBoardOperator());
     }
 
     /**
-     * 尝试在指定方向上的单词放置
+     * 停止预先思考并释放后台线程，用于取消托管或游戏结束
      */
-    private void tryDirectionalPlacements(int anchorRow, int anchorCol, boolean isHorizontal,
-                                          Board board, BoardOperator boardOperator,
-                                          List<Tile> playerRack, Map<Character, Integer> availableLetters,
-                                          Set<String> dictionary, WordValidator wordValidator,
-                                          List<WordPlacement> possiblePlacements) {
-
-        // 尝试使用玩家手牌形成新单词
-        for (String word : dictionary) {
-            // 跳过太短的单词
-            if (word.length() < 2) continue;
-
-            // 检查单词是否可以使用当前手牌和棋盘上的字母形成
-            if (canFormWord(word, playerRack, availableLetters, board, boardOperator, anchorRow, anchorCol, isHorizontal)) {
-                // 尝试单词的不同放置位置
-                for (int i = 0; i < word.length(); i++) {
-                    // 计算放置的起始位置
-                    int startR = isHorizontal ? anchorRow : anchorRow - i;
-                    int startC = isHorizontal ? anchorCol - i : anchorCol;
-
-                    // 检查起始位置是否有效且不会超出棋盘
-                    if (startR >= 0 && startR + (isHorizontal ? 0 : word.length() - 1) < Board.BOARD_SIZE &&
-                            startC >= 0 && startC + (isHorizontal ? word.length() - 1 : 0) < Board.BOARD_SIZE) {
-
-                        // 创建放置列表
-                        List<PlaceTile.TilePlacement> placements = createPlacements(word, startR, startC, isHorizontal,
-                                playerRack, boardOperator);
-
-                        // 如果可以创建有效的放置列表
-                        if (!placements.isEmpty()) {
-                            // 验证并评估放置
-                            evaluatePlacement(word, startR, startC, isHorizontal,
-                                    placements, board, boardOperator, wordValidator, possiblePlacements);
-                        }
-                    }
-                }
-            }
-        }
+    public void stopPondering() {
+        ponderer.shutdown();
     }
 
     /**
-     * 检查是否可以使用玩家手牌和棋盘上的字母形成指定单词
+     * 为EXPERT难度创建蒙特卡洛模拟器
+     * 模拟使用当前词典的GADDAG、游戏的单词验证器和字母分布，在EXPERT的线程池中并行进行
+     *
+     * @return 模拟器
      */
-    private boolean canFormWord(String word, List<Tile> playerRack, Map<Character, Integer> availableLetters,
-                                Board board, BoardOperator boardOperator, int anchorRow, int anchorCol, boolean isHorizontal) {
-        // 创建可用字母的副本，避免修改原始映射
-        Map<Character, Integer> lettersCopy = new HashMap<>(availableLetters);
-
-        // 检查锚点是否会被使用
-        boolean usesAnchor = false;
-
-        // 遍历单词的每个字母
-        for (int i = 0; i < word.length(); i++) {
-            int row = isHorizontal ? anchorRow : anchorRow + i;
-            int col = isHorizontal ? anchorCol + i : anchorCol;
-
-            // 检查位置是否在棋盘范围内
-            if (row < 0 || row >= Board.BOARD_SIZE || col < 0 || col >= Board.BOARD_SIZE) {
-                return false;
-            }
-
-            char needed = Character.toUpperCase(word.charAt(i));
-
-            if (boardOperator.isCellOccupied(row, col)) {
-                // 如果格子已被占用，检查字母是否匹配
-                char existing = Character.toUpperCase(boardOperator.getCell(row, col).getTile().getLetter());
-                if (existing != needed) {
-                    return false;
-                }
-
-                // 标记使用了锚点
-                if (row == anchorRow && col == anchorCol) {
-                    usesAnchor = true;
-                }
-            } else {
-                // 如果格子为空，检查玩家是否有所需字母牌
-                if (lettersCopy.containsKey(needed) && lettersCopy.get(needed) > 0) {
-                    lettersCopy.put(needed, lettersCopy.get(needed) - 1);
-
-                    // 标记使用了锚点
-                    if (row == anchorRow && col == anchorCol) {
-                        usesAnchor = true;
-                    }
-                } else {
-                    return false;
-                }
-            }
-        }
-
-        // 如果是首次放置，必须使用中心格
-        if (isBoardEmpty(board)) {
-            int centerRow = Board.BOARD_SIZE / 2;
-            int centerCol = Board.BOARD_SIZE / 2;
-
-            boolean usesCenterCell = false;
-            for (int i = 0; i < word.length(); i++) {
-                int row = isHorizontal ? anchorRow : anchorRow + i;
-                int col = isHorizontal ? anchorCol + i : anchorCol;
-
-                if (row == centerRow && col == centerCol) {
-                    usesCenterCell = true;
-                    break;
-                }
-            }
-
-            return usesCenterCell;
-        }
-
-        // 非首次放置，必须使用锚点或与现有字母相邻
-        return usesAnchor;
+    private MonteCarloSimulator createSimulator() {
+        return new MonteCarloSimulator(game.getDictionary().getGaddag(), game.getWordValidator(),
+                game.getTileManager().getTileDistribution(), MoveGenerationPools.forDifficulty(Difficulty.EXPERT));
     }
 
     /**
-     * 创建单词放置的字母牌放置列表
+     * 设置AI玩家使用的走法缓存
+     * 缓存只在使用默认走法生成器时生效
+     *
+     * @param moveCache 走法缓存，为null时不使用缓存
      */
-    private List<PlaceTile.TilePlacement> createPlacements(String word, int startRow, int startCol, boolean isHorizontal,
-                                                           List<Tile> playerRack, BoardOperator boardOperator) {
-        List<PlaceTile.TilePlacement> placements = new ArrayList<>();
-        Map<Character, List<Tile>> tilesByLetter = groupTilesByLetter(playerRack);
-
-        // 遍历单词的每个字母
-        for (int i = 0; i < word.length(); i++) {
-            int row = isHorizontal ? startRow : startRow + i;
-            int col = isHorizontal ? startCol + i : startCol;
-
-            // 如果位置超出棋盘范围，返回空列表
-            if (row < 0 || row >= Board.BOARD_SIZE || col < 0 || col >= Board.BOARD_SIZE) {
-                return Collections.emptyList();
-            }
-
-            // 如果格子已被占用，跳过
-            if (boardOperator.isCellOccupied(row, col)) {
-                continue;
-            }
-
-            // 获取所需字母
-            char needed = Character.toUpperCase(word.charAt(i));
-            Tile tile = findTileForLetter(needed, tilesByLetter);
-
-            if (tile == null) {
-                // 没有找到匹配的字母牌，尝试使用空白牌
-                tile = findTileForLetter('*', tilesByLetter);
-
-                if (tile == null) {
-                    // 如果没有空白牌，无法完成单词
-                    return Collections.emptyList();
-                }
-            }
-
-            // 添加到放置列表
-            placements.add(new PlaceTile.TilePlacement(tile, row, col, 0));
-        }
-
-        return placements;
+    public void setMoveCache(MoveCache moveCache) {
+        this.moveCache = moveCache;
     }
 
     /**
-     * 按字母对字母牌进行分组
+     * 获取AI玩家使用的走法缓存
+     *
+     * @return 走法缓存，不使用缓存时返回null
      */
-    private Map<Character, List<Tile>> groupTilesByLetter(List<Tile> tiles) {
-        Map<Character, List<Tile>> tilesByLetter = new HashMap<>();
+    public MoveCache getMoveCache() {
+        return moveCache;
+    }
 
-        for (Tile tile : tiles) {
-            char letter = tile.isBlank() ? '*' : Character.toUpperCase(tile.getLetter());
-            if (!tilesByLetter.containsKey(letter)) {
-                tilesByLetter.put(letter, new ArrayList<>());
-            }
-            tilesByLetter.get(letter).add(tile);
+    /**
+     * 为当前回合创建搜索截止时间
+     * 由当前难度的搜索预算和游戏的回合时间限制、回合剩余时间共同决定
+     *
+     * @return 截止时间
+     */
+    public SearchDeadline createTurnDeadline() {
+        GameConfig config = game.getConfig();
+        if (config == null) {
+            return SearchDeadline.after(SearchDeadline.getBudgetMillis(difficulty));
         }
+        return SearchDeadline.forTurn(difficulty, config.getTurnTimeLimit(), game.getRemainingTurnTime());
+    }
 
-        return tilesByLetter;
+    /**
+     * 获取最近一次搜索的报告
+     *
+     * @return 搜索报告，还没有搜索过时返回null
+     */
+    public SearchReport getLastSearchReport() {
+        return lastSearchReport;
     }
 
     /**
-     * 查找表示特定字母的字母牌
+     * 执行AI回合
+     * 策略：智能分析棋盘和词典，找出最优单词放置。如果不能拼单词，则考虑交换或跳过
      */
-    private Tile findTileForLetter(char letter, Map<Character, List<Tile>> tilesByLetter) {
-        if (tilesByLetter.containsKey(letter) && !tilesByLetter.get(letter).isEmpty()) {
-            Tile tile = tilesByLetter.get(letter).remove(0);
-            return tile;
-        }
-        return null;
+    public void playTurn() {
+        playTurn(SearchDeadline.unlimited());
     }
 
     /**
-     * 验证并评估单词放置
+     * 执行可以取消的AI回合
+     * 回合的截止时间由turn派生，turn被取消时正在进行的搜索在下一步开始前停止；
+     * 放置、交换或跳过之前会再检查一次，取消后AI不再改变游戏，回合交给游戏的计时器或下一次调度
+     *
+     * @param turn 安排回合时创建的截止时间，取消它即取消回合
      */
-    private void evaluatePlacement(String word, int startRow, int startCol, boolean isHorizontal,
-                                   List<PlaceTile.TilePlacement> placements, Board board,
-                                   BoardOperator boardOperator, WordValidator wordValidator,
-                                   List<WordPlacement> possiblePlacements) {
-        if (placements.isEmpty()) {
+    public void playTurn(SearchDeadline turn) {
+        logger.info("AI玩家 {} 开始执行回合", player);
+        SearchDeadline deadline = turn.limit(createTurnDeadline().getBudgetMillis());
+
+        TileManager tileManager = game.getTileManager();
+        List<Tile> playerRack = tileManager.getPlayerRackList(player);
+
+        // 尝试智能拼单词并放置
+        if (tryPlaceOptimalWord(deadline)) {
+            logger.info("AI成功放置单词");
+            return;
+        }
+
+        if (!canCommit(deadline)) {
+            logger.info("AI玩家 {} 的回合已取消", player);
             return;
         }
+        logger.info("AI无法找到有效单词放置");
 
-        // 使用WordFormer验证是否能形成有效单词
-        WordFormer wordFormer = new WordFormer(boardOperator);
+        // 如果不能拼单词，交换期望剩余价值最低的字母牌；没有值得交换的字母牌时跳过回合
+        ExchangePlanner.ExchangePlan plan = game.getExchangePlanner().plan(playerRack);
+        if (!canCommit(deadline)) {
+            logger.info("AI玩家 {} 的回合已取消", player);
+        } else if (plan.isEmpty()) {
+            logger.info("AI决定跳过回合（保留全部字母牌）");
+            game.passTurn();
+        } else {
+            logger.info("AI决定{}", plan);
+            exchangeTiles(plan.getExchange());
+        }
+    }
 
+    /**
+     * Try to place the optimal word
+     * 搜索在截止时间到达后停止，使用目前为止找到的走法
+     *
+     * @param deadline 搜索截止时间
+     * @return whether a word was successfully placed
+     */
+    private boolean tryPlaceOptimalWord(SearchDeadline deadline) {
+        // Get game components
+        BoardOperator boardOperator = game.getBoardOperator();
+        TileManager tileManager = game.getTileManager();
+        PlaceTile placeTile = game.getPlaceTile();
 
-        Map<Integer, Map<Integer, Tile>> originalTiles = new HashMap<>();
-        boolean placementSuccessful = true;
 
-        // 记录原始状态，以便后续恢复
-        for (PlaceTile.TilePlacement placement : placements) {
-            int row = placement.getRow();
-            int col = placement.getCol();
+        // Get current player's tile rack
+        List<Tile> playerRack = tileManager.getPlayerRackList(player);
+        if (playerRack == null || playerRack.isEmpty()) {
+            logger.warn("AI player's rack is empty");
+            return false;
+        }
 
-            // 如果位置已有字母牌，跳过
-            if (boardOperator.isCellOccupied(row, col)) {
-                continue;
-            }
+        logger.info("AI player's rack: {}", playerRack);
 
-            // 记录当前位置的状态
-            if (!originalTiles.containsKey(row)) {
-                originalTiles.put(row, new HashMap<>());
-            }
-            originalTiles.get(row).put(col, null);
+        WordPlacement selectedPlacement = findMove(playerRack, boardOperator, deadline);
 
-            // 临时放置字母牌
-            if (!boardOperator.placeTileOnBoard(placement.getTile(), row, col)) {
-                placementSuccessful = false;
-                break;
-            }
+        // If no possible placements found or the turn was cancelled, return failure
+        if (selectedPlacement == null || !canCommit(deadline)) {
+            return false;
         }
+        // Execute placement
+        boolean success = placeTilesForWord(selectedPlacement, placeTile, tileManager, deadline);
+        if (success) {
+            logger.info("Successfully placed word: {}", selectedPlacement);
+            return true;
+        } else {
+            logger.warn("Failed to place word: {}", selectedPlacement);
+            return false;
+        }
+    }
 
-        if (placementSuccessful) {
-            // 使用WordFormer验证单词
-            List<String> formedWords = wordFormer.formWords(placements);
-
-            // 验证所有形成的单词是否有效
-            boolean allWordsValid = true;
-            for (String formedWord : formedWords) {
-                if (!wordValidator.isValidWord(formedWord)) {
-                    allWordsValid = false;
-                    break;
+    /**
+     * 查找要放置的单词
+     * 使用默认走法生成器时先查找走法缓存，未命中时使用预先思考的结果（补算没有生成完的行列），
+     * 没有可用的预先思考时搜索，完整搜索的结果写回缓存；超时的搜索结果和EXPERT被截断的模拟结果不完整，不写入缓存
+     *
+     * @param playerRack 玩家的字母牌架
+     * @param boardOperator 棋盘操作器
+     * @param deadline 搜索截止时间
+     * @return 选中的放置方案，没有可用的放置时返回null
+     */
+    private WordPlacement findMove(List<Tile> playerRack, BoardOperator boardOperator, SearchDeadline deadline) {
+        // GADDAG在游戏开始时于后台构建，最多等到截止时间；等待的时间计入截止时间，记录在搜索报告中
+        long setupStart = System.nanoTime();
+        boolean ready = moveGenerator != null || awaitGaddag(deadline);
+        long setupMillis = (System.nanoTime() - setupStart) / 1_000_000;
+        if (!ready) {
+            lastSearchReport = new SearchReport(0, 1, 0, deadline.getElapsedMillis(), deadline.getBudgetMillis(),
+                    setupMillis);
+            logger.warn("AI玩家 {} GADDAG没有在截止时间前构建完成，{}", player, lastSearchReport);
+            return null;
+        }
+        MoveGenerator generator = getMoveGenerator();
+        if (generator == null) {
+            return null;
+        }
+
+        MoveCache cache = moveGenerator == null ? moveCache : null;
+        MoveCache.Key key = null;
+        Object context = null;
+        if (cache != null) {
+            key = MoveCache.key(boardOperator, playerRack, difficulty);
+            context = game.getLexiconSnapshot();
+            MoveCache.CachedMove cached = cache.get(key, context);
+            if (cached != null) {
+                WordPlacement placement = cached.bind(playerRack);
+                if (placement != null || cached.isEmpty()) {
+                    logger.info("AI玩家 {} 命中走法缓存 {}", player, key);
+                    return placement;
                 }
             }
-
-            // 如果所有单词都有效，计算分数并添加到可能的放置列表
-            if (allWordsValid && !formedWords.isEmpty()) {
-                // 使用PlaceTile中的scoreCalculator计算所有形成的单词的分数
-                DefaultScoreCalculator scoreCalculator = new DefaultScoreCalculator(boardOperator);
-                int score = scoreCalculator.calculateScore(formedWords, placements);
-                
-                // 添加到可能的放置列表
-                possiblePlacements.add(new WordPlacement(word, startRow, startCol, isHorizontal, score, placements));
-            }
         }
 
-        // 恢复棋盘状态
-        for (Map.Entry<Integer, Map<Integer, Tile>> rowEntry : originalTiles.entrySet()) {
-            int row = rowEntry.getKey();
-            for (Map.Entry<Integer, Tile> colEntry : rowEntry.getValue().entrySet()) {
-                int col = colEntry.getKey();
-                // 移除临时放置的字母牌
-                boardOperator.removeTileFromBoard(row, col);
+        // 根据AI难度选择不同的单词放置策略：NOVICE取权益最低的单词，NORMAL取分数中等的单词，MASTER取权益最高的单词
+        // 选择器在生成过程中逐个接收放置方案，只保留选择需要的信息，不再收集全部方案后排序
+        // EXPERT先用一半的时间生成候选走法，剩下的时间用于模拟
+        MoveSelector selector = MoveSelector.forDifficulty(difficulty);
+        SearchDeadline generationDeadline = difficulty == Difficulty.EXPERT
+                ? deadline.limit(deadline.getRemainingMillis() / 2)
+                : deadline;
+        SearchReport report = null;
+        if (moveGenerator == null) {
+            report = ponderer.take(playerRack, boardOperator, game.getLexiconSnapshot(), getLeaveTable(),
+                    selector, generationDeadline);
+            if (report != null) {
+                logger.info("AI玩家 {} 使用预先思考的走法", player);
             }
         }
+        if (report == null) {
+            report = generator.generate(playerRack, boardOperator, selector, generationDeadline);
+        }
+        if (setupMillis > 0) {
+            report = report.withSetupMillis(setupMillis);
+        }
+        lastSearchReport = report;
+        if (report.isComplete()) {
+            logger.info("AI玩家 {} {}", player, report);
+        } else {
+            logger.warn("AI玩家 {} {}", player, report);
+        }
+        WordPlacement selectedPlacement = selector.select();
+        boolean complete = report.isComplete();
+        if (difficulty == Difficulty.EXPERT && selectedPlacement != null) {
+            MonteCarloSimulator.SimulationResult result = createSimulator()
+                    .simulate(((TopMoveSelector) selector).getMoves(), playerRack, boardOperator, deadline);
+            logger.info("AI玩家 {} {}", player, result);
+            selectedPlacement = result.getBest();
+            // 被截止时间截断的模拟只比较了部分样本，结果不缓存
+            complete = complete && result.isComplete();
+        }
+        if (cache != null && complete) {
+            cache.put(key, context, selectedPlacement);
+        }
+        return selectedPlacement;
     }
 
-
     /**
      * 在棋盘上放置单词
      */
-    private boolean placeTilesForWord(WordPlacement placement, PlaceTile placeTile, TileManager tileManager) {
+    private boolean placeTilesForWord(WordPlacement placement, PlaceTile placeTile, TileManager tileManager,
+                                      SearchDeadline deadline) {
         if (placement == null || placement.getPlacements() == null || placement.getPlacements().isEmpty()) {
             return false;
         }
@@ -694,12 +451,11 @@ public class AIPlayer {
             int col = tilePlacement.getCol();
 
  
-            // 如果还有未设置字母的空白牌，设置字母
-            if (tile.isBlank() && tile.getLetter() == '\0') {
-                // 根据单词和位置确定字母
-                char letter = getLetter(placement.getWord(), placement.getRow(), placement.getCol(),
-                        row, col, placement.isHorizontal());
-                if (letter != '\0') {
+            // 空白牌在生成走法时作为万能牌，到提交时才按单词和位置指定字母
+            if (tile.isBlank()) {
+                char letter = Character.toUpperCase(getLetter(placement.getWord(), placement.getRow(),
+                        placement.getCol(), row, col, placement.isHorizontal()));
+                if (letter != '\0' && letter != Character.toUpperCase(tile.getLetter())) {
                     game.assignLetterToBlankTile(tile, letter);
                 }
             }
@@ -718,11 +474,25 @@ public class AIPlayer {
             tileManager.clearSelectedTiles(player);
         }
 
+        // 放置期间回合可能被取消，确认前再检查一次
+        if (!canCommit(deadline)) {
+            placeTile.cancelPlacements(player);
+            return false;
+        }
+
         // 确认放置并计算分数
         int score = game.confirmPlacement();
         return score > 0;
     }
 
+    /**
+     * 检查是否还能提交放置、交换或跳过：回合没有被取消，游戏仍在进行且仍轮到本玩家
+     */
+    private boolean canCommit(SearchDeadline deadline) {
+        return !deadline.isCancelled() && game.getGameState() == Game.GameState.RUNNING
+                && game.getCurrentPlayer() == player;
+    }
+
     /**
      * 根据单词和位置获取特定位置的字母
      */
@@ -742,25 +512,28 @@ public class AIPlayer {
     }
 
     /**
-     * 交换所有字母牌
+     * 交换指定的字母牌并结束回合
+     *
+     * @param tiles 要交换的字母牌
      */
-    private void exchangeAllTiles() {
+    private void exchangeTiles(List<Tile> tiles) {
         TileManager tileManager = game.getTileManager();
-        List<Tile> playerRack = tileManager.getPlayerRackList(player);
 
-        // 标记所有字母牌为已选中
+        // 标记要交换的字母牌为已选中
         tileManager.clearSelectedTiles(player);
-        for (Tile tile : playerRack) {
+        for (Tile tile : tiles) {
             tileManager.markTileAsSelected(player, tile);
         }
 
-        // 执行交换
+        // 执行交换，Game不会结束交换的回合，由AI自己结束
         boolean success = game.exchangeTiles();
         if (success) {
-            logger.info("成功交换了 {} 个字母牌", playerRack.size());
-
+            logger.info("成功交换了 {} 个字母牌", tiles.size());
+            game.endPlayerTurn();
         } else {
             logger.warn("字母牌交换失败");
+            tileManager.clearSelectedTiles(player);
+            game.passTurn();
         }
     }
 
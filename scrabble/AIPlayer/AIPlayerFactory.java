@@ -2,21 +2,25 @@ package scrabble.AIPlayer;
 
 import scrabble.Game.Game;
 import scrabble.Game.Player;
+import scrabble.Placement.PlaceTile;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * AI玩家工厂类，负责管理游戏中的AI玩家实例
  * 提供玩家与AI托管之间的切换功能
  */
 public class AIPlayerFactory {
-    /** 存储AI玩家实例的映射表 */
+    /** 存储AI玩家实例的映射表，AI回合和预先思考的后台线程也会遍历，因此使用并发映射 */
     private final Map<Player, AIPlayer> aiPlayers;
     /** 游戏实例 */
     private final Game game;
     /** 默认AI难度 */
     private AIPlayer.Difficulty defaultDifficulty = AIPlayer.Difficulty.NORMAL;
+    /** 每个玩家已提交、可能还没有结束的AI回合 */
+    private final Map<Player, AITurnExecutor.Handle> turns = new ConcurrentHashMap<>();
     
     /**
      * 创建一个AI玩家工厂
@@ -25,7 +29,7 @@ public class AIPlayerFactory {
      */
     public AIPlayerFactory(Game game) {
         this.game = game;
-        this.aiPlayers = new HashMap<>();
+        this.aiPlayers = new ConcurrentHashMap<>();
     }
     
     /**
@@ -65,7 +69,10 @@ public class AIPlayerFactory {
      */
     public AIPlayer createAIPlayer(Player player, AIPlayer.Difficulty difficulty) {
         AIPlayer aiPlayer = new AIPlayer(player, game, difficulty);
-        aiPlayers.put(player, aiPlayer);
+        AIPlayer previous = aiPlayers.put(player, aiPlayer);
+        if (previous != null) {
+            previous.stopPondering();
+        }
         return aiPlayer;
     }
     
@@ -76,10 +83,11 @@ public class AIPlayerFactory {
      * @return 对应的AI玩家实例
      */
     public AIPlayer getAIPlayer(Player player) {
-        if (!aiPlayers.containsKey(player)) {
+        AIPlayer aiPlayer = aiPlayers.get(player);
+        if (aiPlayer == null) {
             return createAIPlayer(player);
         }
-        return aiPlayers.get(player);
+        return aiPlayer;
     }
     
     /**
@@ -123,7 +131,16 @@ public class AIPlayerFactory {
      * @return 是否成功取消
      */
     public boolean disableAIControl(Player player) {
-        return aiPlayers.remove(player) != null;
+        if (player == null) {
+            return false;
+        }
+        AIPlayer aiPlayer = aiPlayers.remove(player);
+        if (aiPlayer == null) {
+            return false;
+        }
+        cancelAITurn(player);
+        aiPlayer.stopPondering();
+        return true;
     }
     
     /**
@@ -133,7 +150,7 @@ public class AIPlayerFactory {
      * @return 是否为AI托管
      */
     public boolean isAIControlled(Player player) {
-        return aiPlayers.containsKey(player);
+        return player != null && aiPlayers.containsKey(player);
     }
     
     /**
@@ -143,18 +160,126 @@ public class AIPlayerFactory {
      * @return 是否由AI执行了回合
      */
     public boolean playAITurnIfControlled(Player currentPlayer) {
+        return playAITurnIfControlled(currentPlayer, SearchDeadline.unlimited());
+    }
+
+    private boolean playAITurnIfControlled(Player currentPlayer, SearchDeadline turn) {
         if (isAIControlled(currentPlayer)) {
             AIPlayer aiPlayer = getAIPlayer(currentPlayer);
-            aiPlayer.playTurn();
+            aiPlayer.playTurn(turn);
             return true;
         }
         return false;
     }
     
+    /**
+     * 在共享的AI回合执行器中安排玩家的AI回合
+     * 经过延迟后，如果游戏仍在运行、轮到该玩家且该玩家仍由AI托管，则执行AI回合；
+     * 该玩家之前安排的回合会先被取消。
+     * 回合的截止时间在安排时创建，取消句柄即取消它，回合开始前被取消也不会漏掉。
+     * 执行器队列一直已满、回合被拒绝时，如果仍轮到该玩家则跳过本回合，使游戏不会停在这个玩家上
+     *
+     * @param player 要执行AI回合的玩家
+     * @param delayMillis 执行前的延迟（毫秒）
+     * @return 回合的句柄，玩家不由AI托管时返回null
+     */
+    public AITurnExecutor.Handle scheduleAITurn(Player player, long delayMillis) {
+        AIPlayer aiPlayer = player != null ? aiPlayers.get(player) : null;
+        if (aiPlayer == null) {
+            return null;
+        }
+        cancelAITurn(player);
+        SearchDeadline turn = SearchDeadline.unlimited();
+        AITurnExecutor.Handle handle = AITurnExecutor.getInstance().submit("player" + player.getPlayerIndex(),
+                delayMillis, () -> {
+                    if (!turn.isCancelled() && game.getGameState() == Game.GameState.RUNNING
+                            && game.getCurrentPlayer() == player) {
+                        playAITurnIfControlled(player, turn);
+                    }
+                }, turn::cancel, () -> passRejectedTurn(player, turn));
+        turns.put(player, handle);
+        return handle;
+    }
+
+    /**
+     * 回合被执行器拒绝后跳过玩家的回合
+     */
+    private void passRejectedTurn(Player player, SearchDeadline turn) {
+        game.getLogger().warn("AI回合执行器已满，玩家 {} 的AI回合未能执行", player);
+        if (!turn.isCancelled() && isAIControlled(player) && game.getGameState() == Game.GameState.RUNNING
+                && game.getCurrentPlayer() == player) {
+            game.passTurn();
+        }
+    }
+
+    /**
+     * 取消玩家已安排或正在执行的AI回合
+     *
+     * @param player 玩家
+     * @return 有回合被取消时返回true
+     */
+    public boolean cancelAITurn(Player player) {
+        AITurnExecutor.Handle handle = turns.remove(player);
+        return handle != null && handle.cancel();
+    }
+
+    /**
+     * 取消所有已安排或正在执行的AI回合，用于游戏暂停或结束
+     */
+    public void cancelAllAITurns() {
+        for (Player player : turns.keySet()) {
+            cancelAITurn(player);
+        }
+    }
+
+    /**
+     * 获取玩家最近一次安排的AI回合
+     *
+     * @param player 玩家
+     * @return 回合的句柄，没有安排过或已被取消时返回null
+     */
+    public AITurnExecutor.Handle getAITurn(Player player) {
+        return turns.get(player);
+    }
+
+    /**
+     * 玩家回合结束后，如果该玩家由AI托管，让它开始预先思考下一回合
+     *
+     * @param player 刚结束回合的玩家
+     */
+    public void startPonderingIfControlled(Player player) {
+        AIPlayer aiPlayer = player != null ? aiPlayers.get(player) : null;
+        if (aiPlayer != null) {
+            aiPlayer.startPondering();
+        }
+    }
+
+    /**
+     * 有玩家确认放置后，通知所有AI玩家作废预先思考中受影响的部分
+     *
+     * @param placements 已确认的字母牌放置
+     */
+    public void notifyPlacementConfirmed(List<PlaceTile.TilePlacement> placements) {
+        for (AIPlayer aiPlayer : aiPlayers.values()) {
+            aiPlayer.onPlacementConfirmed(placements);
+        }
+    }
+
+    /**
+     * 停止所有AI玩家的预先思考
+     */
+    public void stopAllPondering() {
+        for (AIPlayer aiPlayer : aiPlayers.values()) {
+            aiPlayer.stopPondering();
+        }
+    }
+
     /**
      * 清除所有AI托管
      */
     public void clearAllAIControl() {
+        cancelAllAITurns();
+        stopAllPondering();
         aiPlayers.clear();
     }
 } 
\ No newline at end of file
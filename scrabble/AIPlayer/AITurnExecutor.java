@@ -0,0 +1,472 @@
+package scrabble.AIPlayer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 所有游戏共享的AI回合执行器
+ * AI回合不再各自新建线程并固定休眠，而是提交到这里：先由一个计时线程等待指定的延迟，
+ * 再放入有界队列，由固定数量的工作线程执行。每次提交返回一个句柄，
+ * 游戏暂停、取消托管或游戏结束时通过句柄取消：还在等待的回合不再执行，正在执行的回合通过取消回调
+ * （通常是取消AI的搜索截止时间）在下一步开始前停止。
+ *
+ * 工作线程数和队列容量可以通过系统属性 scrabble.ai.workers（默认2）和 scrabble.ai.queue（默认16）修改。
+ * 延迟结束时队列已满的回合回到计时线程，稍后重试，重试MAX_RETRIES次仍然放不进队列时被拒绝，
+ * 句柄处于已拒绝状态并调用拒绝回调，由提交者决定如何结束这个回合。线程都是守护线程。
+ * 执行器记录排队和执行的回合数以及每个回合的执行时间，可以通过getStatistics()查看。
+ */
+public final class AITurnExecutor {
+    /** 工作线程数的系统属性 */
+    public static final String WORKERS_PROPERTY = "scrabble.ai.workers";
+    /** 队列容量的系统属性 */
+    public static final String QUEUE_PROPERTY = "scrabble.ai.queue";
+    /** 默认工作线程数 */
+    public static final int DEFAULT_WORKERS = 2;
+    /** 默认队列容量 */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    /** 队列已满时的最多重试次数 */
+    public static final int MAX_RETRIES = 3;
+    /** 队列已满时第一次重试前的等待时间（毫秒），之后每次重试加倍 */
+    public static final long RETRY_DELAY_MILLIS = 250;
+
+    private static AITurnExecutor instance;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService timer;
+    private final int queueCapacity;
+
+    /** 正在等待延迟的回合数 */
+    private final AtomicInteger delayed = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    /** 执行过（包括执行中被取消和执行失败）的回合数 */
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+    private volatile long lastRunNanos;
+
+    /**
+     * 回合的状态
+     */
+    public enum State {
+        /** 等待延迟 */
+        DELAYED,
+        /** 在队列中等待工作线程 */
+        QUEUED,
+        /** 正在执行 */
+        RUNNING,
+        /** 已执行完 */
+        COMPLETED,
+        /** 已取消 */
+        CANCELLED,
+        /** 队列已满，没有执行 */
+        REJECTED
+    }
+
+    private AITurnExecutor(int workerCount, int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonFactory("ai-turn-"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonFactory("ai-turn-timer-"));
+    }
+
+    /**
+     * 获取共享的执行器，第一次调用时按系统属性创建
+     *
+     * @return 执行器
+     */
+    public static synchronized AITurnExecutor getInstance() {
+        if (instance == null) {
+            instance = new AITurnExecutor(Math.max(1, Integer.getInteger(WORKERS_PROPERTY, DEFAULT_WORKERS)),
+                    Math.max(1, Integer.getInteger(QUEUE_PROPERTY, DEFAULT_QUEUE_CAPACITY)));
+        }
+        return instance;
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 提交一个AI回合
+     *
+     * @param name 回合名称，用于显示
+     * @param delayMillis 执行前的延迟（毫秒），使AI的行动看起来更自然
+     * @param turn 回合内容
+     * @param onCancel 取消回合时调用，应使正在执行的回合尽快结束，可以为null
+     * @return 回合的句柄
+     */
+    public Handle submit(String name, long delayMillis, Runnable turn, Runnable onCancel) {
+        return submit(name, delayMillis, turn, onCancel, null);
+    }
+
+    /**
+     * 提交一个AI回合，并指定回合被拒绝时的处理
+     *
+     * @param name 回合名称，用于显示
+     * @param delayMillis 执行前的延迟（毫秒），使AI的行动看起来更自然
+     * @param turn 回合内容
+     * @param onCancel 取消回合时在句柄的锁内调用，应很快返回并使正在执行的回合尽快结束，可以为null
+     * @param onReject 回合被拒绝（重试后队列仍然已满）时调用，通常在计时线程上，可以为null
+     * @return 回合的句柄
+     */
+    public Handle submit(String name, long delayMillis, Runnable turn, Runnable onCancel, Runnable onReject) {
+        Handle handle = new Handle(name, turn, onCancel, onReject);
+        submitted.incrementAndGet();
+        delayed.incrementAndGet();
+        // 持有句柄的锁，保证计时任务在future赋值之后才把回合放入队列
+        boolean scheduled;
+        synchronized (handle) {
+            scheduled = handle.schedule(delayMillis);
+        }
+        if (!scheduled) {
+            handle.rejected();
+        }
+        return handle;
+    }
+
+    /**
+     * 获取当前的运行统计
+     *
+     * @return 统计快照
+     */
+    public Statistics getStatistics() {
+        return new Statistics(delayed.get(), workers.getQueue().size(), workers.getActiveCount(), queueCapacity,
+                workers.getMaximumPoolSize(), submitted.get(), completed.get(), cancelled.get(), rejected.get(),
+                failed.get(), executed.get(), totalRunNanos.get(), maxRunNanos.get(), lastRunNanos);
+    }
+
+    /**
+     * 一个已提交的AI回合
+     */
+    public final class Handle {
+        private final String name;
+        private final Runnable turn;
+        private final Runnable onCancel;
+        private final Runnable onReject;
+        private final long submitNanos = System.nanoTime();
+        /** 因队列已满而重试的次数 */
+        private int retries;
+        private volatile State state = State.DELAYED;
+        /** 当前阶段的任务：等待延迟时是计时任务，之后是工作线程中的任务 */
+        private volatile Future<?> future;
+        private volatile long startNanos;
+        private volatile long runNanos;
+
+        private Handle(String name, Runnable turn, Runnable onCancel, Runnable onReject) {
+            this.name = name;
+            this.turn = turn;
+            this.onCancel = onCancel;
+            this.onReject = onReject;
+        }
+
+        /**
+         * 在计时线程上等待延迟后放入队列，计时线程已关闭时把回合标记为已拒绝
+         *
+         * @return 是否安排成功
+         */
+        private synchronized boolean schedule(long delayMillis) {
+            try {
+                future = timer.schedule(this::enqueue, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+                return true;
+            } catch (RejectedExecutionException e) {
+                delayed.decrementAndGet();
+                reject();
+                return false;
+            }
+        }
+
+        private void enqueue() {
+            boolean rejectedNow;
+            synchronized (this) {
+                if (state != State.DELAYED) {
+                    return;
+                }
+                try {
+                    future = workers.submit(this::run);
+                    delayed.decrementAndGet();
+                    state = State.QUEUED;
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // 队列已满，回到计时线程稍后重试，仍处于等待延迟的状态
+                    rejectedNow = retries >= MAX_RETRIES || !schedule(RETRY_DELAY_MILLIS << retries++);
+                    if (rejectedNow && state == State.DELAYED) {
+                        delayed.decrementAndGet();
+                        reject();
+                    }
+                }
+            }
+            if (rejectedNow) {
+                rejected();
+            }
+        }
+
+        private synchronized void reject() {
+            state = State.REJECTED;
+            rejected.incrementAndGet();
+        }
+
+        /**
+         * 在锁外调用拒绝回调
+         */
+        private void rejected() {
+            System.err.println("AI回合 " + name + " 被拒绝");
+            if (onReject != null) {
+                try {
+                    onReject.run();
+                } catch (RuntimeException e) {
+                    System.err.println("AI回合 " + name + " 的拒绝回调执行失败: " + e.getMessage());
+                }
+            }
+        }
+
+        private void run() {
+            synchronized (this) {
+                if (state != State.QUEUED) {
+                    return;
+                }
+                state = State.RUNNING;
+                startNanos = System.nanoTime();
+            }
+            try {
+                turn.run();
+            } catch (RuntimeException e) {
+                // 执行失败的回合同样算作执行完，计入failed
+                failed.incrementAndGet();
+                System.err.println("AI回合 " + name + " 执行失败: " + e.getMessage());
+            } finally {
+                long elapsed = System.nanoTime() - startNanos;
+                runNanos = elapsed;
+                lastRunNanos = elapsed;
+                executed.incrementAndGet();
+                totalRunNanos.addAndGet(elapsed);
+                maxRunNanos.accumulateAndGet(elapsed, Math::max);
+                synchronized (this) {
+                    if (state == State.RUNNING) {
+                        state = State.COMPLETED;
+                        completed.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        /**
+         * 取消回合
+         * 还在等待的回合不再执行；正在执行的回合调用取消回调，由回合自己尽快结束
+         *
+         * @return 回合在取消前还没有结束时返回true
+         */
+        public boolean cancel() {
+            State previous;
+            synchronized (this) {
+                previous = state;
+                if (previous == State.COMPLETED || previous == State.CANCELLED || previous == State.REJECTED) {
+                    return false;
+                }
+                state = State.CANCELLED;
+                cancelled.incrementAndGet();
+                if (previous == State.DELAYED) {
+                    delayed.decrementAndGet();
+                }
+                // 在锁内通知回合，使回合看到的取消与句柄的状态一致，还没有开始的回合也不会漏掉
+                if (onCancel != null) {
+                    onCancel.run();
+                }
+            }
+            Future<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+            if (previous == State.QUEUED) {
+                // 从队列中移除，使队列长度及时反映等待的回合
+                workers.purge();
+            }
+            return true;
+        }
+
+        /**
+         * @return 回合名称
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return 当前状态
+         */
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * @return 是否已经结束（执行完、取消或被拒绝）
+         */
+        public boolean isDone() {
+            State current = state;
+            return current == State.COMPLETED || current == State.CANCELLED || current == State.REJECTED;
+        }
+
+        /**
+         * @return 从提交到开始执行等待的时间（毫秒），还没有开始时为到现在的时间
+         */
+        public long getWaitMillis() {
+            long start = startNanos;
+            return TimeUnit.NANOSECONDS.toMillis((start != 0 ? start : System.nanoTime()) - submitNanos);
+        }
+
+        /**
+         * @return 执行时间（毫秒），还没有执行完时为0
+         */
+        public long getRunMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(runNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "AI回合 " + name + " [" + state + "]";
+        }
+    }
+
+    /**
+     * 执行器的运行统计
+     */
+    public static class Statistics {
+        private final int delayed;
+        private final int queued;
+        private final int running;
+        private final int queueCapacity;
+        private final int workers;
+        private final long submitted;
+        private final long completed;
+        private final long cancelled;
+        private final long rejected;
+        private final long failed;
+        private final long executed;
+        private final long totalRunNanos;
+        private final long maxRunNanos;
+        private final long lastRunNanos;
+
+        public Statistics(int delayed, int queued, int running, int queueCapacity, int workers, long submitted,
+                          long completed, long cancelled, long rejected, long failed, long executed,
+                          long totalRunNanos, long maxRunNanos, long lastRunNanos) {
+            this.delayed = delayed;
+            this.queued = queued;
+            this.running = running;
+            this.queueCapacity = queueCapacity;
+            this.workers = workers;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.cancelled = cancelled;
+            this.rejected = rejected;
+            this.failed = failed;
+            this.executed = executed;
+            this.totalRunNanos = totalRunNanos;
+            this.maxRunNanos = maxRunNanos;
+            this.lastRunNanos = lastRunNanos;
+        }
+
+        /**
+         * @return 正在等待延迟的回合数
+         */
+        public int getDelayed() {
+            return delayed;
+        }
+
+        /**
+         * @return 队列中等待工作线程的回合数
+         */
+        public int getQueueDepth() {
+            return queued;
+        }
+
+        /**
+         * @return 正在执行的回合数
+         */
+        public int getRunning() {
+            return running;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public long getSubmitted() {
+            return submitted;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * @return 执行时抛出异常的回合数
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return 执行过（包括执行中被取消和执行失败）的回合数
+         */
+        public long getExecuted() {
+            return executed;
+        }
+
+        /**
+         * @return 执行过的回合的平均执行时间（毫秒）
+         */
+        public double getAverageRunMillis() {
+            return executed == 0 ? 0.0 : totalRunNanos / 1e6 / executed;
+        }
+
+        /**
+         * @return 最长的回合执行时间（毫秒）
+         */
+        public double getMaxRunMillis() {
+            return maxRunNanos / 1e6;
+        }
+
+        /**
+         * @return 最近一个回合的执行时间（毫秒）
+         */
+        public double getLastRunMillis() {
+            return lastRunNanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("AI回合执行器: 等待延迟 %d, 排队 %d/%d, 执行中 %d/%d, 已完成 %d, 已取消 %d, 已拒绝 %d, "
+                            + "失败 %d, 平均执行 %.1f ms, 最长 %.1f ms",
+                    delayed, queued, queueCapacity, running, workers, completed, cancelled, rejected, failed,
+                    getAverageRunMillis(), getMaxRunMillis());
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package scrabble.AIPlayer;
+
+import scrabble.Board.Board;
+import scrabble.Board.Cell;
+import scrabble.Lexicon.Gaddag;
+import scrabble.Lexicon.LexiconSnapshot;
+import scrabble.Placement.BoardOperator;
+import scrabble.Placement.PlaceTile;
+import scrabble.Tile.Tile;
+import scrabble.Validator.CrossCheckTable;
+import scrabble.Validator.WordValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 基于锚点和交叉检查的走法生成器（Appel-Jacobson算法，使用GADDAG双向扩展）
+ * 锚点是与已有字母相邻的空格子，每个合法走法至少覆盖一个锚点。
+ * 对每一行（列）先取得每个空格子的交叉检查集合，即放入后能与上下（左右）字母组成有效单词的字母
+ * （有交叉检查表时直接读取，否则当场计算），
+ * 再从每个锚点出发沿GADDAG只放置字母架上有的、且通过交叉检查的字母，
+ * 因此生成的每个走法都是合法的，不需要临时放到棋盘上验证，得分也在生成时直接算出。
+ *
+ * 注意：
+ * - 主单词来自GADDAG；尚未合并进基础词库的自定义单词来自单词验证器快照的覆盖层GADDAG，
+ *   每个锚点在两个GADDAG上各扩展一次，交叉单词则由交叉检查表或单词验证器检查
+ * - 空白牌作为万能牌参与生成，每一步只尝试GADDAG边与交叉检查都允许的字母，分值为0；
+ *   生成的走法中空白牌仍未指定字母，由提交走法的一方按单词中的字母指定
+ * - 生成开始时把棋盘读入只读数组，之后不再访问也不修改棋盘
+ *
+ * 指定ForkJoinPool时，每一行（列）作为一个独立任务并行生成，各任务的结果列表按行列顺序合并后
+ * 在调用线程上依次交给接收者，因此接收者不需要线程安全，结果顺序也与单线程生成相同。
+ * 接收者是MoveSelector时，每个任务改用自己的空选择器，按行列顺序合并选择器而不是结果列表，
+ * 这样并行生成时也不需要保存全部走法。
+ *
+ * 指定截止时间时，每一行（列）开始前检查是否到期，到期后跳过剩余的行（列），已生成的走法照常交给接收者。
+ * 指定剩余字母价值表时，每个走法在计算得分的同时查表得到剩余字母价值，选择器可以按权益排序。
+ */
+public class AnchorMoveGenerator implements MoveGenerator {
+    /** 26个字母都允许 */
+    private static final int ALL_LETTERS = (1 << 26) - 1;
+    /** 一次放置全部字母架上的牌时获得奖励所需的牌数 */
+    private static final int BINGO_TILES = 7;
+    /** 七字母奖励分值，与DefaultScoreCalculator的默认值相同 */
+    private static final int BINGO_BONUS = 50;
+
+    private final Gaddag gaddag;
+    private final WordValidator wordValidator;
+    private final CrossCheckTable crossCheckTable;
+    /** 并行生成使用的线程池，为null时在调用线程上生成 */
+    private final ForkJoinPool pool;
+    /** 剩余字母价值表，为null时走法的剩余字母价值为0 */
+    private final LeaveTable leaveTable;
+
+    /**
+     * 创建锚点走法生成器，每次生成时自行计算交叉检查
+     *
+     * @param gaddag 词库的GADDAG索引
+     * @param wordValidator 用于交叉检查的单词验证器
+     */
+    public AnchorMoveGenerator(Gaddag gaddag, WordValidator wordValidator) {
+        this(gaddag, wordValidator, null);
+    }
+
+    /**
+     * 创建使用交叉检查表的锚点走法生成器
+     * 交叉检查表必须与生成时的棋盘一致（即棋盘上只有已确认的字母牌）
+     *
+     * @param gaddag 词库的GADDAG索引
+     * @param wordValidator 没有交叉检查表时用于交叉检查的单词验证器
+     * @param crossCheckTable 交叉检查表，为null时自行计算
+     */
+    public AnchorMoveGenerator(Gaddag gaddag, WordValidator wordValidator, CrossCheckTable crossCheckTable) {
+        this(gaddag, wordValidator, crossCheckTable, null);
+    }
+
+    /**
+     * 创建在线程池中并行生成的锚点走法生成器
+     *
+     * @param gaddag 词库的GADDAG索引
+     * @param wordValidator 没有交叉检查表时用于交叉检查的单词验证器，必须线程安全
+     * @param crossCheckTable 交叉检查表，为null时自行计算
+     * @param pool 线程池，为null或并行度为1时在调用线程上生成
+     */
+    public AnchorMoveGenerator(Gaddag gaddag, WordValidator wordValidator, CrossCheckTable crossCheckTable,
+                               ForkJoinPool pool) {
+        this(gaddag, wordValidator, crossCheckTable, pool, null);
+    }
+
+    /**
+     * 创建计算剩余字母价值的锚点走法生成器
+     * 每个走法的剩余字母价值在生成时查表得到，不增加搜索量
+     *
+     * @param gaddag 词库的GADDAG索引
+     * @param wordValidator 没有交叉检查表时用于交叉检查的单词验证器，必须线程安全
+     * @param crossCheckTable 交叉检查表，为null时自行计算
+     * @param pool 线程池，为null或并行度为1时在调用线程上生成
+     * @param leaveTable 剩余字母价值表，为null时不计算
+     */
+    public AnchorMoveGenerator(Gaddag gaddag, WordValidator wordValidator, CrossCheckTable crossCheckTable,
+                               ForkJoinPool pool, LeaveTable leaveTable) {
+        this.gaddag = gaddag;
+        this.wordValidator = wordValidator;
+        this.crossCheckTable = crossCheckTable;
+        this.pool = pool;
+        this.leaveTable = leaveTable;
+    }
+
+    @Override
+    public void generate(List<Tile> playerRack, BoardOperator boardOperator, Consumer<WordPlacement> sink) {
+        generate(playerRack, boardOperator, sink, SearchDeadline.none());
+    }
+
+    /**
+     * 在截止时间内生成走法，每一行（列）是一步，到期后不再开始新的行（列）
+     */
+    @Override
+    public SearchReport generate(List<Tile> playerRack, BoardOperator boardOperator, Consumer<WordPlacement> sink,
+                                 SearchDeadline deadline) {
+        Search search = new Search(playerRack, boardOperator, deadline);
+        // 行号0-14为水平方向的各行，15-29为垂直方向的各列
+        List<Integer> lines = new ArrayList<>();
+        for (int line = 0; line < 2 * Board.BOARD_SIZE; line++) {
+            if (search.hasAnchor(line % Board.BOARD_SIZE, line < Board.BOARD_SIZE)) {
+                lines.add(line);
+            }
+        }
+        long moves;
+        if (pool == null || pool.getParallelism() <= 1 || lines.size() <= 1) {
+            long[] counter = new long[1];
+            Consumer<WordPlacement> counted = placement -> {
+                counter[0]++;
+                sink.accept(placement);
+            };
+            for (int line : lines) {
+                search.searchLine(line, counted);
+            }
+            moves = counter[0];
+        } else if (sink instanceof MoveSelector) {
+            MoveSelector selector = (MoveSelector) sink;
+            MoveSelector merged = pool.invoke(new SelectorTask(search, lines, 0, lines.size(), selector));
+            moves = merged.getCount();
+            selector.merge(merged);
+        } else {
+            List<WordPlacement> merged = pool.invoke(new LineTask(search, lines, 0, lines.size()));
+            moves = merged.size();
+            merged.forEach(sink);
+        }
+        return new SearchReport(search.completedLines.get(), lines.size(), moves,
+                deadline.getElapsedMillis(), deadline.getBudgetMillis());
+    }
+
+    /**
+     * 只生成一行（列）的走法，供只需要重新生成部分行（列）的调用者使用
+     * 按行号0到29依次生成全部行（列）并合并，与generate的结果和顺序相同
+     *
+     * @param playerRack 玩家的字母牌架
+     * @param boardOperator 棋盘操作器
+     * @param line 行号，0-14为水平方向的各行，15-29为垂直方向的各列
+     * @return 该行（列）的走法，没有锚点时为空列表
+     */
+    public List<WordPlacement> generateLine(List<Tile> playerRack, BoardOperator boardOperator, int line) {
+        Search search = new Search(playerRack, boardOperator, SearchDeadline.none());
+        List<WordPlacement> result = new ArrayList<>();
+        if (search.hasAnchor(line % Board.BOARD_SIZE, line < Board.BOARD_SIZE)) {
+            search.searchLine(line, result::add);
+        }
+        return result;
+    }
+
+    /**
+     * 生成若干行（列）走法的任务，行数多于一时拆成两半分别执行后按顺序合并结果
+     */
+    private static final class LineTask extends RecursiveTask<List<WordPlacement>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final List<Integer> lines;
+        private final int from;
+        private final int to;
+
+        LineTask(Search search, List<Integer> lines, int from, int to) {
+            this.search = search;
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<WordPlacement> compute() {
+            if (to - from == 1) {
+                List<WordPlacement> result = new ArrayList<>();
+                search.searchLine(lines.get(from), result::add);
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            LineTask left = new LineTask(search, lines, from, middle);
+            left.fork();
+            List<WordPlacement> result = new LineTask(search, lines, middle, to).compute();
+            List<WordPlacement> merged = left.join();
+            merged.addAll(result);
+            return merged;
+        }
+    }
+
+    /**
+     * 与LineTask相同地拆分行（列），但每个任务把走法交给自己的空选择器，按顺序合并选择器
+     */
+    private static final class SelectorTask extends RecursiveTask<MoveSelector> {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final List<Integer> lines;
+        private final int from;
+        private final int to;
+        private final MoveSelector prototype;
+
+        SelectorTask(Search search, List<Integer> lines, int from, int to, MoveSelector prototype) {
+            this.search = search;
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+            this.prototype = prototype;
+        }
+
+        @Override
+        protected MoveSelector compute() {
+            if (to - from == 1) {
+                MoveSelector result = prototype.newEmpty();
+                search.searchLine(lines.get(from), result);
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            SelectorTask left = new SelectorTask(search, lines, from, middle, prototype);
+            left.fork();
+            MoveSelector result = new SelectorTask(search, lines, middle, to, prototype).compute();
+            MoveSelector merged = left.join();
+            merged.merge(result);
+            return merged;
+        }
+    }
+
+    /**
+     * 一次走法生成的状态
+     * 构造时读入的棋盘和字母架数据之后只读，可以被多个行任务同时使用；只有完成的行数是共享的计数器
+     */
+    private final class Search {
+        /** 棋盘字母（小写），空格子为'\0' */
+        private final char[][] letters = new char[Board.BOARD_SIZE][Board.BOARD_SIZE];
+        /** 棋盘上字母牌的分值 */
+        private final int[][] values = new int[Board.BOARD_SIZE][Board.BOARD_SIZE];
+        /** 每个格子的字母倍数 */
+        private final int[][] letterMultipliers = new int[Board.BOARD_SIZE][Board.BOARD_SIZE];
+        /** 每个格子的单词倍数 */
+        private final int[][] wordMultipliers = new int[Board.BOARD_SIZE][Board.BOARD_SIZE];
+        private final boolean boardEmpty;
+        /** 字母架上每个字母（0-25）的普通字母牌 */
+        private final List<List<Tile>> tilesByLetter = new ArrayList<>();
+        /** 空白牌，无论之前是否指定过字母都作为万能牌 */
+        private final List<Tile> wildcards = new ArrayList<>();
+        private final int[] rackCounts = new int[26];
+        /** 字母架上每种字母牌（LeaveTable编号）的数量 */
+        private final int[] rackSymbols = new int[LeaveTable.SYMBOLS];
+        private final SearchDeadline deadline;
+        /** 单词验证器快照中自定义单词的GADDAG，没有时为null */
+        private final Gaddag overlayGaddag;
+        /** 在截止时间前完成的行（列）数 */
+        private final AtomicInteger completedLines = new AtomicInteger();
+
+        Search(List<Tile> playerRack, BoardOperator boardOperator, SearchDeadline deadline) {
+            this.deadline = deadline;
+            LexiconSnapshot lexicon = wordValidator != null ? wordValidator.getLexiconSnapshot() : null;
+            this.overlayGaddag = lexicon != null ? lexicon.getOverlayGaddag() : null;
+            boolean empty = true;
+            for (int row = 0; row < Board.BOARD_SIZE; row++) {
+                for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                    Cell cell = boardOperator.getCell(row, col);
+                    letterMultipliers[row][col] = cell.getLetterMultiplier();
+                    wordMultipliers[row][col] = cell.getWordMultiplier();
+                    if (boardOperator.isCellOccupied(row, col)) {
+                        Tile tile = boardOperator.getCell(row, col).getTile();
+                        letters[row][col] = Character.toLowerCase(tile.getLetter());
+                        values[row][col] = tile.getValue();
+                        empty = false;
+                    }
+                }
+            }
+            this.boardEmpty = empty;
+
+            for (int i = 0; i < 26; i++) {
+                tilesByLetter.add(new ArrayList<>());
+            }
+            for (Tile tile : playerRack) {
+                int symbol = LeaveTable.symbol(tile);
+                if (symbol >= 0) {
+                    rackSymbols[symbol]++;
+                }
+                if (tile.isBlank()) {
+                    wildcards.add(tile);
+                } else {
+                    addTile(tile);
+                }
+            }
+        }
+
+        private void addTile(Tile tile) {
+            int index = Character.toLowerCase(tile.getLetter()) - 'a';
+            if (index >= 0 && index < 26) {
+                tilesByLetter.get(index).add(tile);
+                rackCounts[index]++;
+            }
+        }
+
+        private char letterAt(int line, int pos, boolean isHorizontal) {
+            return isHorizontal ? letters[line][pos] : letters[pos][line];
+        }
+
+        /**
+         * 检查一行（列）中是否有锚点
+         */
+        boolean hasAnchor(int index, boolean isHorizontal) {
+            for (int pos = 0; pos < Board.BOARD_SIZE; pos++) {
+                if (isAnchor(index, pos, isHorizontal)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 截止时间未到时生成一行（列）的走法并计入完成的行数
+         *
+         * @param line 行号，0-14为水平方向的各行，15-29为垂直方向的各列
+         */
+        void searchLine(int line, Consumer<WordPlacement> sink) {
+            if (deadline.isExpired()) {
+                return;
+            }
+            generateLine(line % Board.BOARD_SIZE, line < Board.BOARD_SIZE, sink);
+            completedLines.incrementAndGet();
+        }
+
+        /**
+         * 生成一行（列）中的所有走法，只使用局部的可变状态，可以与其他行并行执行
+         */
+        void generateLine(int index, boolean isHorizontal, Consumer<WordPlacement> sink) {
+            char[] line = new char[Board.BOARD_SIZE];
+            int[] allowedMasks = new int[Board.BOARD_SIZE];
+            int[] crossSums = new int[Board.BOARD_SIZE];
+            for (int pos = 0; pos < Board.BOARD_SIZE; pos++) {
+                line[pos] = letterAt(index, pos, isHorizontal);
+            }
+            computeCrossChecks(index, isHorizontal, allowedMasks, crossSums);
+
+            int previousAnchor = -1;
+            for (int pos = 0; pos < Board.BOARD_SIZE; pos++) {
+                if (!isAnchor(index, pos, isHorizontal)) {
+                    continue;
+                }
+                // 锚点左侧只能放到上一个锚点之后，否则同一走法会从两个锚点各生成一次
+                if (allowedMasks[pos] != 0) {
+                    gaddag.expand(line, pos, previousAnchor + 1, allowedMasks, rackCounts, wildcards.size(),
+                            (word, start, blankMask) -> emit(word, start, blankMask, index,
+                                    isHorizontal, line, crossSums, sink));
+                    if (overlayGaddag != null) {
+                        overlayGaddag.expand(line, pos, previousAnchor + 1, allowedMasks, rackCounts,
+                                wildcards.size(), (word, start, blankMask) -> emit(word, start, blankMask, index,
+                                        isHorizontal, line, crossSums, sink));
+                    }
+                }
+                previousAnchor = pos;
+            }
+        }
+
+        /**
+         * 检查格子是否为锚点：空格子且与已有字母相邻，棋盘为空时只有中心格是锚点
+         */
+        private boolean isAnchor(int line, int pos, boolean isHorizontal) {
+            int row = isHorizontal ? line : pos;
+            int col = isHorizontal ? pos : line;
+            if (letters[row][col] != '\0') {
+                return false;
+            }
+            if (boardEmpty) {
+                return row == Board.BOARD_SIZE / 2 && col == Board.BOARD_SIZE / 2;
+            }
+            return (row > 0 && letters[row - 1][col] != '\0')
+                    || (row < Board.BOARD_SIZE - 1 && letters[row + 1][col] != '\0')
+                    || (col > 0 && letters[row][col - 1] != '\0')
+                    || (col < Board.BOARD_SIZE - 1 && letters[row][col + 1] != '\0');
+        }
+
+        /**
+         * 计算一行（列）中每个空格子的交叉检查集合和交叉单词中已有字母的分值之和
+         * 没有交叉单词的格子允许所有字母，分值之和记为-1
+         */
+        private void computeCrossChecks(int line, boolean isHorizontal, int[] allowedMasks, int[] crossSums) {
+            if (crossCheckTable != null) {
+                for (int pos = 0; pos < Board.BOARD_SIZE; pos++) {
+                    int row = isHorizontal ? line : pos;
+                    int col = isHorizontal ? pos : line;
+                    allowedMasks[pos] = crossCheckTable.getAllowedLetters(row, col, isHorizontal);
+                    crossSums[pos] = crossCheckTable.getCrossScore(row, col, isHorizontal);
+                }
+                return;
+            }
+            char[] crossBuffer = new char[Board.BOARD_SIZE];
+            for (int pos = 0; pos < Board.BOARD_SIZE; pos++) {
+                allowedMasks[pos] = 0;
+                crossSums[pos] = -1;
+                if (letterAt(line, pos, isHorizontal) != '\0') {
+                    continue;
+                }
+                // 交叉方向上，pos是交叉线的下标，line是格子在交叉线上的位置
+                int before = line;
+                while (before > 0 && letterAt(pos, before - 1, !isHorizontal) != '\0') {
+                    before--;
+                }
+                int after = line;
+                while (after < Board.BOARD_SIZE - 1 && letterAt(pos, after + 1, !isHorizontal) != '\0') {
+                    after++;
+                }
+                if (before == line && after == line) {
+                    allowedMasks[pos] = ALL_LETTERS;
+                    continue;
+                }
+
+                int sum = 0;
+                int length = 0;
+                for (int i = before; i <= after; i++) {
+                    if (i != line) {
+                        crossBuffer[length] = letterAt(pos, i, !isHorizontal);
+                        sum += isHorizontal ? values[i][pos] : values[pos][i];
+                    }
+                    length++;
+                }
+                int mask = 0;
+                for (int letter = 0; letter < 26; letter++) {
+                    crossBuffer[line - before] = (char) ('a' + letter);
+                    if (wordValidator.isValidWord(crossBuffer, 0, length)) {
+                        mask |= 1 << letter;
+                    }
+                }
+                allowedMasks[pos] = mask;
+                crossSums[pos] = sum;
+            }
+        }
+
+        /**
+         * 为GADDAG生成的单词分配字母牌、计算得分并交给接收者
+         */
+        private void emit(String word, int start, int blankMask, int line, boolean isHorizontal,
+                          char[] lineLetters, int[] crossSums, Consumer<WordPlacement> sink) {
+            if (word.length() < 2) {
+                return;
+            }
+            int placed = 0;
+            int lastPlaced = -1;
+            for (int i = 0; i < word.length(); i++) {
+                if (lineLetters[start + i] == '\0') {
+                    placed++;
+                    lastPlaced = start + i;
+                }
+            }
+            // 只放一张牌且该牌在水平方向也组成单词时，水平方向已经生成过这个走法
+            if (!isHorizontal && placed == 1 && hasHorizontalNeighbor(lastPlaced, line)) {
+                return;
+            }
+
+            int[] used = new int[26];
+            int[] leave = leaveTable != null ? rackSymbols.clone() : null;
+            int wildcardsUsed = 0;
+            List<PlaceTile.TilePlacement> placements = new ArrayList<>(placed);
+            int mainScore = 0;
+            int wordMultiplier = 1;
+            int crossScore = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int pos = start + i;
+                int row = isHorizontal ? line : pos;
+                int col = isHorizontal ? pos : line;
+                if (lineLetters[pos] != '\0') {
+                    mainScore += values[row][col];
+                    continue;
+                }
+
+                Tile tile;
+                if ((blankMask & (1 << i)) != 0) {
+                    tile = wildcards.get(wildcardsUsed++);
+                } else {
+                    int index = word.charAt(i) - 'a';
+                    tile = tilesByLetter.get(index).get(used[index]++);
+                }
+                placements.add(new PlaceTile.TilePlacement(tile, row, col, 0));
+                if (leave != null && LeaveTable.symbol(tile) >= 0) {
+                    leave[LeaveTable.symbol(tile)]--;
+                }
+
+                int letterScore = tile.getValue() * letterMultipliers[row][col];
+                mainScore += letterScore;
+                wordMultiplier *= wordMultipliers[row][col];
+                if (crossSums[pos] >= 0) {
+                    crossScore += (crossSums[pos] + letterScore) * wordMultipliers[row][col];
+                }
+            }
+
+            int score = mainScore * wordMultiplier + crossScore;
+            if (placed == BINGO_TILES) {
+                score += BINGO_BONUS;
+            }
+            int startRow = isHorizontal ? line : start;
+            int startCol = isHorizontal ? start : line;
+            float leaveValue = leave != null ? leaveTable.value(leave) : 0f;
+            sink.accept(new WordPlacement(word, startRow, startCol, isHorizontal, score, placements, leaveValue));
+        }
+
+        private boolean hasHorizontalNeighbor(int row, int col) {
+            return (col > 0 && letters[row][col - 1] != '\0')
+                    || (col < Board.BOARD_SIZE - 1 && letters[row][col + 1] != '\0');
+        }
+    }
+}
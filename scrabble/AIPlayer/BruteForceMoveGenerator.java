@@ -0,0 +1,520 @@
+package scrabble.AIPlayer;
+
+import scrabble.Board.Board;
+import scrabble.Lexicon.LetterMaskIndex;
+import scrabble.Lexicon.LexiconSnapshot;
+import scrabble.Placement.BoardOperator;
+import scrabble.Placement.BoardOverlay;
+import scrabble.Placement.PlaceTile;
+import scrabble.Score.DefaultScoreCalculator;
+import scrabble.Tile.Tile;
+import scrabble.Validator.Dictionary;
+import scrabble.Validator.WordFormer;
+import scrabble.Validator.WordValidator;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * 暴力走法生成器
+ * 对每个锚点，从词典中筛选出字母可以由手牌和棋盘字母提供的单词，尝试所有起始位置，
+ * 把字母牌放到棋盘覆盖层上验证所有形成的单词，并用DefaultScoreCalculator计算得分，真实棋盘不会被修改。
+ * 速度较慢，保留作为检查其他走法生成器结果的参考实现。
+ */
+public class BruteForceMoveGenerator implements MoveGenerator {
+    private final Dictionary dictionary;
+    private final WordValidator wordValidator;
+
+    /**
+     * 创建暴力走法生成器
+     *
+     * @param dictionary 提供候选单词的词典
+     * @param wordValidator 验证形成的单词的验证器
+     */
+    public BruteForceMoveGenerator(Dictionary dictionary, WordValidator wordValidator) {
+        this.dictionary = dictionary;
+        this.wordValidator = wordValidator;
+    }
+
+    /**
+     * 查找所有可能的单词放置方案
+     * 放置方案只放到覆盖层上验证和计分，生成期间不会修改棋盘，但棋盘本身不能被其他线程同时修改
+     *
+     * @param playerRack 玩家的字母牌架
+     * @param boardOperator 棋盘操作器
+     * @param sink 接收每个放置方案
+     */
+    @Override
+    public void generate(List<Tile> playerRack, BoardOperator boardOperator, Consumer<WordPlacement> sink) {
+        generate(playerRack, boardOperator, sink, SearchDeadline.none());
+    }
+
+    /**
+     * 在截止时间内查找单词放置方案，每个锚点的每个方向是一步，首次放置整体算一步
+     */
+    @Override
+    public SearchReport generate(List<Tile> playerRack, BoardOperator boardOperator, Consumer<WordPlacement> sink,
+                                 SearchDeadline deadline) {
+        Evaluator evaluator = new Evaluator(boardOperator, sink);
+
+        // 查找所有可能的锚点位置
+        List<int[]> anchorPoints = findAnchorPoints(boardOperator);
+
+        // 将玩家手牌转换为每个字母的数量，便于后续处理
+        int[] rackCounts = new int[26];
+        int blanks = countRack(playerRack, rackCounts);
+
+        // 首次放置只能使用字母架上的牌，直接从变位词索引中取出能拼出的单词，无需扫描整个词典
+        if (isBoardEmpty(boardOperator)) {
+            int completed = 0;
+            if (!deadline.isExpired()) {
+                findOpeningPlacements(playerRack, boardOperator, evaluator);
+                completed = 1;
+            }
+            return report(completed, 1, evaluator, deadline);
+        }
+
+        // 整个搜索固定使用同一个词库快照，期间添加的自定义单词不会影响遍历
+        // 验证器有自己的快照时使用它，使验证器的自定义单词也作为候选单词
+        LexiconSnapshot validatorWords = wordValidator.getLexiconSnapshot();
+        LexiconSnapshot allDictionaryWords = validatorWords != null ? validatorWords : dictionary.snapshot();
+        if (allDictionaryWords.size() == 0) {
+            return report(0, 0, evaluator, deadline);
+        }
+        LetterMaskIndex candidateIndex = dictionary.getLetterMaskIndex();
+
+        // 对每个锚点，尝试水平和垂直方向的单词放置
+        int completed = 0;
+        for (int[] anchorPoint : anchorPoints) {
+            int anchorRow = anchorPoint[0];
+            int anchorCol = anchorPoint[1];
+
+            for (boolean isHorizontal : new boolean[]{true, false}) {
+                if (deadline.isExpired()) {
+                    return report(completed, 2 * anchorPoints.size(), evaluator, deadline);
+                }
+                tryDirectionalPlacements(anchorRow, anchorCol, isHorizontal, boardOperator,
+                        playerRack, rackCounts, blanks, candidateIndex, allDictionaryWords, evaluator);
+                completed++;
+            }
+        }
+        return report(completed, 2 * anchorPoints.size(), evaluator, deadline);
+    }
+
+    private static SearchReport report(int completed, int total, Evaluator evaluator, SearchDeadline deadline) {
+        return new SearchReport(completed, total, evaluator.moves, deadline.getElapsedMillis(),
+                deadline.getBudgetMillis());
+    }
+
+    /**
+     * 判断棋盘是否为空
+     *
+     * @param boardOperator 棋盘操作器
+     * @return 如果棋盘为空返回true
+     */
+    private boolean isBoardEmpty(BoardOperator boardOperator) {
+        for (int row = 0; row < Board.BOARD_SIZE; row++) {
+            for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                if (boardOperator.isCellOccupied(row, col)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 查找棋盘上所有可能的锚点位置
+     * 锚点是新单词可以连接到现有单词的位置
+     *
+     * @param boardOperator 棋盘操作器
+     * @return 锚点位置列表
+     */
+    private List<int[]> findAnchorPoints(BoardOperator boardOperator) {
+        List<int[]> anchorPoints = new ArrayList<>();
+
+        // 判断是否是首次放置
+        boolean isEmpty = isBoardEmpty(boardOperator);
+
+        // 如果是首次放置，中心点是唯一的锚点
+        if (isEmpty) {
+            anchorPoints.add(new int[]{7, 7});
+            return anchorPoints;
+        }
+
+        // 否则，查找所有字母牌周围的空格子作为锚点
+        boolean[][] visited = new boolean[Board.BOARD_SIZE][Board.BOARD_SIZE];
+
+        for (int row = 0; row < Board.BOARD_SIZE; row++) {
+            for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                if (boardOperator.isCellOccupied(row, col)) {
+                    // 检查四个方向的相邻空格子
+                    checkAndAddAnchor(row-1, col, boardOperator, visited, anchorPoints);
+                    checkAndAddAnchor(row+1, col, boardOperator, visited, anchorPoints);
+                    checkAndAddAnchor(row, col-1, boardOperator, visited, anchorPoints);
+                    checkAndAddAnchor(row, col+1, boardOperator, visited, anchorPoints);
+                }
+            }
+        }
+
+        return anchorPoints;
+    }
+
+    /**
+     * 检查并添加可能的锚点
+     */
+    private void checkAndAddAnchor(int row, int col, BoardOperator boardOperator, boolean[][] visited, List<int[]> anchorPoints) {
+        if (row >= 0 && row < Board.BOARD_SIZE && col >= 0 && col < Board.BOARD_SIZE
+                && !boardOperator.isCellOccupied(row, col) && !visited[row][col]) {
+            anchorPoints.add(new int[]{row, col});
+            visited[row][col] = true;
+        }
+    }
+
+    /**
+     * 查找首次放置时所有可能的单词放置方案
+     * 单词由变位词索引按字母架的字母组合查出，每个单词尝试所有覆盖中心格的位置
+     */
+    private void findOpeningPlacements(List<Tile> playerRack, BoardOperator boardOperator,
+                                       Evaluator evaluator) {
+        int[] rackCounts = new int[26];
+        int blanks = countRack(playerRack, rackCounts);
+
+        int center = Board.BOARD_SIZE / 2;
+        dictionary.getAnagramIndex().find(rackCounts, blanks, null, 0, 2, playerRack.size(), word -> {
+            for (int i = 0; i < word.length(); i++) {
+                int start = center - i;
+                if (start < 0 || start + word.length() > Board.BOARD_SIZE) {
+                    continue;
+                }
+                for (boolean isHorizontal : new boolean[]{true, false}) {
+                    int startR = isHorizontal ? center : start;
+                    int startC = isHorizontal ? start : center;
+                    List<PlaceTile.TilePlacement> placements = createPlacements(word, startR, startC, isHorizontal,
+                            playerRack, boardOperator);
+                    if (!placements.isEmpty()) {
+                        evaluatePlacement(word, startR, startC, isHorizontal,
+                                placements, evaluator);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 统计字母架上每个字母的数量
+     *
+     * @param playerRack 玩家的字母牌架
+     * @param rackCounts 用于保存每个字母（0-25）数量的数组
+     * @return 空白牌数量
+     */
+    private int countRack(List<Tile> playerRack, int[] rackCounts) {
+        int blanks = 0;
+        for (Tile tile : playerRack) {
+            int index = Character.toLowerCase(tile.getLetter()) - 'a';
+            if (tile.isBlank()) {
+                blanks++;
+            } else if (index >= 0 && index < 26) {
+                rackCounts[index]++;
+            }
+        }
+        return blanks;
+    }
+
+    /**
+     * 尝试在指定方向上的单词放置
+     * 候选单词由字母掩码索引筛选：单词的字母必须能由手牌、空白牌和锚点所在行（列）上之后的棋盘字母提供，
+     * 长度不超过锚点到棋盘边缘的格数。快照中尚未合并进索引的自定义单词按同样的条件单独检查。
+     */
+    private void tryDirectionalPlacements(int anchorRow, int anchorCol, boolean isHorizontal,
+                                          BoardOperator boardOperator, List<Tile> playerRack,
+                                          int[] rackCounts, int blanks, LetterMaskIndex candidateIndex,
+                                          LexiconSnapshot snapshot, Evaluator evaluator) {
+        // 统计单词从锚点开始放置时可能经过的棋盘字母
+        int[] lineCounts = new int[26];
+        int maxLength = Board.BOARD_SIZE - (isHorizontal ? anchorCol : anchorRow);
+        for (int i = 0; i < maxLength; i++) {
+            int row = isHorizontal ? anchorRow : anchorRow + i;
+            int col = isHorizontal ? anchorCol + i : anchorCol;
+            if (boardOperator.isCellOccupied(row, col)) {
+                int index = Character.toLowerCase(boardOperator.getCell(row, col).getTile().getLetter()) - 'a';
+                if (index >= 0 && index < 26) {
+                    lineCounts[index]++;
+                }
+            }
+        }
+
+        Consumer<String> tryWord = word -> tryWordAtAnchor(word, anchorRow, anchorCol, isHorizontal,
+                boardOperator, playerRack, rackCounts, blanks, evaluator);
+        candidateIndex.forEachCandidate(rackCounts, blanks, lineCounts, 2, maxLength, tryWord);
+        for (String word : snapshot.getOverlay()) {
+            if (word.length() >= 2 && word.length() <= maxLength
+                    && LetterMaskIndex.fits(word, rackCounts, blanks, lineCounts)) {
+                tryWord.accept(word);
+            }
+        }
+    }
+
+    /**
+     * 尝试在锚点附近放置一个候选单词
+     */
+    private void tryWordAtAnchor(String word, int anchorRow, int anchorCol, boolean isHorizontal,
+                                 BoardOperator boardOperator, List<Tile> playerRack,
+                                 int[] rackCounts, int blanks, Evaluator evaluator) {
+        // 检查单词是否可以使用当前手牌和棋盘上的字母形成
+        if (canFormWord(word, rackCounts, blanks, boardOperator, anchorRow, anchorCol, isHorizontal)) {
+            // 尝试单词的不同放置位置
+            for (int i = 0; i < word.length(); i++) {
+                // 计算放置的起始位置
+                int startR = isHorizontal ? anchorRow : anchorRow - i;
+                int startC = isHorizontal ? anchorCol - i : anchorCol;
+
+                // 检查起始位置是否有效且不会超出棋盘
+                if (startR >= 0 && startR + (isHorizontal ? 0 : word.length() - 1) < Board.BOARD_SIZE &&
+                        startC >= 0 && startC + (isHorizontal ? word.length() - 1 : 0) < Board.BOARD_SIZE) {
+
+                    // 创建放置列表
+                    List<PlaceTile.TilePlacement> placements = createPlacements(word, startR, startC, isHorizontal,
+                            playerRack, boardOperator);
+
+                    // 如果可以创建有效的放置列表
+                    if (!placements.isEmpty()) {
+                        // 验证并评估放置
+                        evaluatePlacement(word, startR, startC, isHorizontal,
+                                placements, evaluator);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 检查是否可以使用玩家手牌和棋盘上的字母形成指定单词
+     * 手牌中没有的字母用空白牌代替，与createPlacements选择字母牌的方式一致
+     */
+    private boolean canFormWord(String word, int[] rackCounts, int blanks,
+                                BoardOperator boardOperator, int anchorRow, int anchorCol, boolean isHorizontal) {
+        // 创建可用字母数量的副本，避免修改原始数组
+        int[] lettersCopy = rackCounts.clone();
+        int blanksLeft = blanks;
+
+        // 检查锚点是否会被使用
+        boolean usesAnchor = false;
+
+        // 遍历单词的每个字母
+        for (int i = 0; i < word.length(); i++) {
+            int row = isHorizontal ? anchorRow : anchorRow + i;
+            int col = isHorizontal ? anchorCol + i : anchorCol;
+
+            // 检查位置是否在棋盘范围内
+            if (row < 0 || row >= Board.BOARD_SIZE || col < 0 || col >= Board.BOARD_SIZE) {
+                return false;
+            }
+
+            char needed = Character.toUpperCase(word.charAt(i));
+
+            if (boardOperator.isCellOccupied(row, col)) {
+                // 如果格子已被占用，检查字母是否匹配
+                char existing = Character.toUpperCase(boardOperator.getCell(row, col).getTile().getLetter());
+                if (existing != needed) {
+                    return false;
+                }
+
+                // 标记使用了锚点
+                if (row == anchorRow && col == anchorCol) {
+                    usesAnchor = true;
+                }
+            } else {
+                // 如果格子为空，检查玩家是否有所需字母牌
+                int index = needed - 'A';
+                if (index >= 0 && index < 26 && lettersCopy[index] > 0) {
+                    lettersCopy[index]--;
+                } else if (blanksLeft > 0) {
+                    blanksLeft--;
+                } else {
+                    return false;
+                }
+
+                // 标记使用了锚点
+                if (row == anchorRow && col == anchorCol) {
+                    usesAnchor = true;
+                }
+            }
+        }
+
+        // 如果是首次放置，必须使用中心格
+        if (isBoardEmpty(boardOperator)) {
+            int centerRow = Board.BOARD_SIZE / 2;
+            int centerCol = Board.BOARD_SIZE / 2;
+
+            boolean usesCenterCell = false;
+            for (int i = 0; i < word.length(); i++) {
+                int row = isHorizontal ? anchorRow : anchorRow + i;
+                int col = isHorizontal ? anchorCol + i : anchorCol;
+
+                if (row == centerRow && col == centerCol) {
+                    usesCenterCell = true;
+                    break;
+                }
+            }
+
+            return usesCenterCell;
+        }
+
+        // 非首次放置，必须使用锚点或与现有字母相邻
+        return usesAnchor;
+    }
+
+    /**
+     * 创建单词放置的字母牌放置列表
+     */
+    private List<PlaceTile.TilePlacement> createPlacements(String word, int startRow, int startCol, boolean isHorizontal,
+                                                           List<Tile> playerRack, BoardOperator boardOperator) {
+        List<PlaceTile.TilePlacement> placements = new ArrayList<>();
+        Map<Character, List<Tile>> tilesByLetter = groupTilesByLetter(playerRack);
+
+        // 遍历单词的每个字母
+        for (int i = 0; i < word.length(); i++) {
+            int row = isHorizontal ? startRow : startRow + i;
+            int col = isHorizontal ? startCol + i : startCol;
+
+            // 如果位置超出棋盘范围，返回空列表
+            if (row < 0 || row >= Board.BOARD_SIZE || col < 0 || col >= Board.BOARD_SIZE) {
+                return Collections.emptyList();
+            }
+
+            // 如果格子已被占用，跳过
+            if (boardOperator.isCellOccupied(row, col)) {
+                continue;
+            }
+
+            // 获取所需字母
+            char needed = Character.toUpperCase(word.charAt(i));
+            Tile tile = findTileForLetter(needed, tilesByLetter);
+
+            if (tile == null) {
+                // 没有找到匹配的字母牌，尝试使用空白牌
+                tile = findTileForLetter('*', tilesByLetter);
+
+                if (tile == null) {
+                    // 如果没有空白牌，无法完成单词
+                    return Collections.emptyList();
+                }
+            }
+
+            // 添加到放置列表
+            placements.add(new PlaceTile.TilePlacement(tile, row, col, 0));
+        }
+
+        return placements;
+    }
+
+    /**
+     * 按字母对字母牌进行分组
+     */
+    private Map<Character, List<Tile>> groupTilesByLetter(List<Tile> tiles) {
+        Map<Character, List<Tile>> tilesByLetter = new HashMap<>();
+
+        for (Tile tile : tiles) {
+            char letter = tile.isBlank() ? '*' : Character.toUpperCase(tile.getLetter());
+            if (!tilesByLetter.containsKey(letter)) {
+                tilesByLetter.put(letter, new ArrayList<>());
+            }
+            tilesByLetter.get(letter).add(tile);
+        }
+
+        return tilesByLetter;
+    }
+
+    /**
+     * 查找表示特定字母的字母牌
+     */
+    private Tile findTileForLetter(char letter, Map<Character, List<Tile>> tilesByLetter) {
+        if (tilesByLetter.containsKey(letter) && !tilesByLetter.get(letter).isEmpty()) {
+            Tile tile = tilesByLetter.get(letter).remove(0);
+            return tile;
+        }
+        return null;
+    }
+
+    /**
+     * 一次生成中复用的评估组件
+     * 候选放置只放到覆盖层上，WordFormer和分数计算器通过覆盖层读取棋盘，真实棋盘不会被修改
+     */
+    private static final class Evaluator {
+        private final BoardOverlay overlay;
+        private final WordFormer wordFormer;
+        private final DefaultScoreCalculator scoreCalculator;
+        private final Consumer<WordPlacement> sink;
+        /** 已交给接收者的放置方案数量 */
+        private long moves;
+
+        Evaluator(BoardOperator boardOperator, Consumer<WordPlacement> sink) {
+            this.overlay = new BoardOverlay(boardOperator);
+            this.wordFormer = new WordFormer(overlay);
+            this.scoreCalculator = new DefaultScoreCalculator(overlay);
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * 验证并评估单词放置
+     */
+    private void evaluatePlacement(String word, int startRow, int startCol, boolean isHorizontal,
+                                   List<PlaceTile.TilePlacement> placements, Evaluator evaluator) {
+        if (placements.isEmpty()) {
+            return;
+        }
+
+        // 空白牌在评估时用指定了对应字母的副本代替，字母架上的空白牌本身直到提交走法时才指定字母
+        List<PlaceTile.TilePlacement> evaluated = bindBlanks(word, startRow, startCol, isHorizontal, placements);
+
+        // 把字母牌放到覆盖层上，位置无效时直接放弃
+        BoardOverlay overlay = evaluator.overlay;
+        if (!overlay.setPlacements(evaluated)) {
+            overlay.clear();
+            return;
+        }
+
+        // 先在复用的缓冲区中验证，大多数候选放置在这里被淘汰而不创建任何单词字符串
+        if (evaluator.wordFormer.validateWords(evaluated, wordValidator)) {
+            List<String> formedWords = evaluator.wordFormer.formWords(evaluated);
+
+            // 所有单词都有效，计算分数并添加到可能的放置列表
+            if (!formedWords.isEmpty()) {
+                int score = evaluator.scoreCalculator.calculateScore(formedWords, evaluated);
+
+                // 添加到可能的放置列表
+                evaluator.moves++;
+                evaluator.sink.accept(new WordPlacement(word, startRow, startCol, isHorizontal, score, placements));
+            }
+        }
+
+        overlay.clear();
+    }
+
+    /**
+     * 把放置中的空白牌换成按单词字母指定了字母的副本
+     *
+     * @return 没有空白牌时返回原列表
+     */
+    private List<PlaceTile.TilePlacement> bindBlanks(String word, int startRow, int startCol, boolean isHorizontal,
+                                                     List<PlaceTile.TilePlacement> placements) {
+        List<PlaceTile.TilePlacement> bound = null;
+        for (int i = 0; i < placements.size(); i++) {
+            PlaceTile.TilePlacement placement = placements.get(i);
+            Tile tile = placement.getTile();
+            if (!tile.isBlank()) {
+                continue;
+            }
+            if (bound == null) {
+                bound = new ArrayList<>(placements);
+            }
+            int offset = isHorizontal ? placement.getCol() - startCol : placement.getRow() - startRow;
+            Tile copy = tile.copy();
+            copy.setBlankLetter(Character.toUpperCase(word.charAt(offset)), tile.getValue());
+            bound.set(i, new PlaceTile.TilePlacement(copy, placement.getRow(), placement.getCol(), 0));
+        }
+        return bound != null ? bound : placements;
+    }
+}
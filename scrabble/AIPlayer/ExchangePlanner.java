@@ -0,0 +1,252 @@
+package scrabble.AIPlayer;
+
+import scrabble.Tile.Tile;
+import scrabble.Tile.TileManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 交换字母牌的规划器
+ * 对字母架的每一个子集（7张牌时最多128个）估算保留它、交换其余字母牌之后的期望价值，选出最好的保留方案。
+ *
+ * 一个保留集合K的期望价值为：
+ * - K本身的剩余字母价值
+ * - 加上换回的每张牌的期望价值（按抽牌概率加权的单张价值）
+ * - K不超过5张时，再加上K与一张新抽到的牌之间的期望配合（组合价值减去各自单独的价值），
+ *   用来体现重复字母、元音辅音比例和Q与U的搭配
+ * 游戏按字母分布的权重有放回地抽牌，因此字母分布本身就是换回每张牌的概率。
+ * 一次规划只需要几千次查表，远小于1毫秒。
+ */
+public class ExchangePlanner {
+    /** 字母架容量，保留全部7张牌不是交换 */
+    private static final int RACK_SIZE = 7;
+
+    private final LeaveTable leaveTable;
+    /** 抽到每种字母牌（LeaveTable编号）的概率 */
+    private final double[] drawProbabilities = new double[LeaveTable.SYMBOLS];
+    /** 换回一张牌的期望单张价值 */
+    private final double expectedDrawValue;
+    /** 字母分布中是否有可以抽取的字母牌 */
+    private final boolean drawable;
+
+    /**
+     * 创建交换规划器
+     *
+     * @param leaveTable 剩余字母价值表
+     * @param distribution 字母分布（字母->{数量,分值}），'*' 表示空白牌
+     */
+    public ExchangePlanner(LeaveTable leaveTable, Map<Character, TileManager.TileInfo> distribution) {
+        this.leaveTable = leaveTable;
+        double total = 0;
+        for (Map.Entry<Character, TileManager.TileInfo> entry : distribution.entrySet()) {
+            int symbol = symbol(entry.getKey());
+            if (symbol >= 0) {
+                drawProbabilities[symbol] += entry.getValue().getWeight();
+                total += entry.getValue().getWeight();
+            }
+        }
+        int[] counts = new int[LeaveTable.SYMBOLS];
+        double expected = 0;
+        for (int symbol = 0; symbol < LeaveTable.SYMBOLS; symbol++) {
+            if (total > 0) {
+                drawProbabilities[symbol] /= total;
+            }
+            counts[symbol] = 1;
+            expected += drawProbabilities[symbol] * leaveTable.value(counts);
+            counts[symbol] = 0;
+        }
+        this.expectedDrawValue = expected;
+        this.drawable = total > 0;
+    }
+
+    private static int symbol(char letter) {
+        if (letter == '*') {
+            return LeaveTable.BLANK;
+        }
+        int symbol = Character.toUpperCase(letter) - 'A';
+        return symbol >= 0 && symbol < 26 ? symbol : -1;
+    }
+
+    /**
+     * 为字母架规划交换
+     *
+     * @param playerRack 玩家的字母牌架
+     * @return 期望价值最高的方案；字母架不满7张且全部保留最好时，方案不交换任何牌
+     */
+    public ExchangePlan plan(List<Tile> playerRack) {
+        // 按编号排序，使每个子集中保留的字母牌编号自然有序
+        int n = playerRack.size();
+        Integer[] order = new Integer[n];
+        int[] symbols = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> LeaveTable.symbol(playerRack.get(i))));
+        for (int i = 0; i < n; i++) {
+            symbols[i] = LeaveTable.symbol(playerRack.get(order[i]));
+        }
+
+        int[] kept = new int[n];
+        int[] extended = new int[n + 1];
+        Map<Integer, Double> evaluated = new HashMap<>();
+        int bestMask = -1;
+        int bestKept = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int subsets = 0;
+        for (int mask = 0; mask < (1 << n); mask++) {
+            int size = 0;
+            boolean valid = Integer.bitCount(mask) < RACK_SIZE && Integer.bitCount(mask) <= LeaveTable.MAX_LEAVE;
+            for (int i = 0; i < n && valid; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    // 无法识别的字母牌总是交换
+                    valid = symbols[i] >= 0;
+                    kept[size++] = symbols[i];
+                }
+            }
+            if (!valid) {
+                continue;
+            }
+            // 重复的字母牌使不同的子集对应同一组字母，只估算一次
+            int index = LeaveTable.indexOfSorted(kept, size);
+            Double value = evaluated.get(index);
+            if (value == null) {
+                value = evaluate(kept, size, n - size, extended);
+                evaluated.put(index, value);
+            }
+            subsets++;
+            // 价值相同时交换较少的牌
+            if (value > bestValue || (value == bestValue && size > bestKept)) {
+                bestValue = value;
+                bestMask = mask;
+                bestKept = size;
+            }
+        }
+
+        List<Tile> keep = new ArrayList<>();
+        List<Tile> exchange = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (bestMask >= 0 && (bestMask & (1 << i)) != 0) {
+                keep.add(playerRack.get(order[i]));
+            } else {
+                exchange.add(playerRack.get(order[i]));
+            }
+        }
+        return new ExchangePlan(keep, exchange, bestMask >= 0 ? bestValue : 0.0, subsets);
+    }
+
+    /**
+     * 估算保留一组字母牌并换回若干张牌之后的期望价值
+     *
+     * @param kept 保留的字母牌编号，升序
+     * @param size 保留的张数
+     * @param drawn 换回的张数
+     * @param extended 临时数组，长度至少为size + 1
+     */
+    private double evaluate(int[] kept, int size, int drawn, int[] extended) {
+        double leave = leaveTable.valueAt(LeaveTable.indexOfSorted(kept, size));
+        double value = leave + drawn * expectedDrawValue;
+        if (drawn > 0 && size < LeaveTable.MAX_LEAVE && drawable) {
+            // 期望配合 = Σ p(t) * (价值(K+t) - 价值(K) - 价值(t))，其中 Σ p(t) * 价值(t) 即单张的期望价值
+            double combined = 0;
+            for (int symbol = 0; symbol < LeaveTable.SYMBOLS; symbol++) {
+                double p = drawProbabilities[symbol];
+                if (p == 0) {
+                    continue;
+                }
+                // 把抽到的字母牌插入有序的保留字母牌中
+                int j = 0;
+                int k = 0;
+                while (j < size && kept[j] <= symbol) {
+                    extended[k++] = kept[j++];
+                }
+                extended[k++] = symbol;
+                while (j < size) {
+                    extended[k++] = kept[j++];
+                }
+                combined += p * leaveTable.valueAt(LeaveTable.indexOfSorted(extended, size + 1));
+            }
+            value += combined - leave - expectedDrawValue;
+        }
+        return value;
+    }
+
+    /**
+     * 交换方案
+     */
+    public static class ExchangePlan {
+        private final List<Tile> keep;
+        private final List<Tile> exchange;
+        private final double expectedValue;
+        private final int evaluatedSubsets;
+
+        public ExchangePlan(List<Tile> keep, List<Tile> exchange, double expectedValue, int evaluatedSubsets) {
+            this.keep = Collections.unmodifiableList(keep);
+            this.exchange = Collections.unmodifiableList(exchange);
+            this.expectedValue = expectedValue;
+            this.evaluatedSubsets = evaluatedSubsets;
+        }
+
+        /**
+         * @return 保留的字母牌
+         */
+        public List<Tile> getKeep() {
+            return keep;
+        }
+
+        /**
+         * @return 要交换的字母牌
+         */
+        public List<Tile> getExchange() {
+            return exchange;
+        }
+
+        /**
+         * @return 方案的期望价值
+         */
+        public double getExpectedValue() {
+            return expectedValue;
+        }
+
+        /**
+         * @return 估算过的子集数
+         */
+        public int getEvaluatedSubsets() {
+            return evaluatedSubsets;
+        }
+
+        /**
+         * @return 是否不需要交换任何牌
+         */
+        public boolean isEmpty() {
+            return exchange.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("交换 %s，保留 %s，期望价值 %.1f", letters(exchange), letters(keep), expectedValue);
+        }
+
+        /**
+         * 字母牌的字母，空白牌显示为 '?'
+         *
+         * @param tiles 字母牌
+         * @return 以空格分隔的字母
+         */
+        public static String letters(List<Tile> tiles) {
+            StringBuilder builder = new StringBuilder();
+            for (Tile tile : tiles) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(tile.isBlank() ? '?' : Character.toUpperCase(tile.getLetter()));
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package scrabble.AIPlayer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import scrabble.Tile.Tile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 读取JsonGameLogger写出的对局日志，供离线工具（LeaveTableBuilder、PositionAnalyzer）共用：
+ * 遍历日志文件或目录、逐个取出事件、统一玩家名称以及解析字母牌。
+ */
+final class GameLogReader {
+    /** 日志中的玩家名称，如 "player0 (分数: 12)"，分数部分会变化 */
+    private static final Pattern PLAYER_PATTERN = Pattern.compile("^(player\\d+)");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * 一局游戏的事件列表的处理器
+     */
+    interface GameHandler {
+        /**
+         * @param source 对局名称（日志文件名）
+         * @param events 按时间顺序排列的日志事件
+         */
+        void game(String source, List<?> events);
+    }
+
+    /**
+     * 单个事件的处理器
+     */
+    interface EventHandler {
+        /**
+         * @param type 事件类型，如 "TILE_PLACEMENT"
+         * @param player 统一后的玩家名称，如 "player0"
+         * @param data 事件数据
+         */
+        void event(Object type, String player, Map<?, ?> data);
+    }
+
+    private GameLogReader() {
+    }
+
+    /**
+     * 读取日志文件，或目录中所有的 .json 日志文件
+     *
+     * @param input 日志文件或目录
+     * @param handler 每局游戏的处理器
+     * @return 读取的文件数
+     * @throws IOException 如果文件无法读取或不是对局日志
+     */
+    static int readFiles(File input, GameHandler handler) throws IOException {
+        if (input.isDirectory()) {
+            File[] children = input.listFiles((dir, name) -> name.endsWith(".json"));
+            int files = 0;
+            if (children != null) {
+                for (File child : children) {
+                    files += readFiles(child, handler);
+                }
+            }
+            return files;
+        }
+        Map<?, ?> gameInfo = OBJECT_MAPPER.readValue(input, Map.class);
+        Object events = gameInfo != null ? gameInfo.get("events") : null;
+        if (!(events instanceof List)) {
+            throw new IOException("不是有效的对局日志: " + input);
+        }
+        handler.game(input.getName(), (List<?>) events);
+        return 1;
+    }
+
+    /**
+     * 按顺序处理一局游戏的事件，不是对象或没有数据的事件会被忽略
+     *
+     * @param events 按时间顺序排列的日志事件
+     * @param handler 事件处理器
+     */
+    static void forEachEvent(List<?> events, EventHandler handler) {
+        for (Object rawEvent : events) {
+            if (!(rawEvent instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> event = (Map<?, ?>) rawEvent;
+            Object rawData = event.get("data");
+            if (!(rawData instanceof Map)) {
+                continue;
+            }
+            handler.event(event.get("eventType"), playerKey(event.get("player")), (Map<?, ?>) rawData);
+        }
+    }
+
+    /**
+     * 去掉玩家名称中会变化的部分
+     *
+     * @param player 日志中的玩家名称
+     * @return 如 "player0"，不符合格式时返回原名称
+     */
+    static String playerKey(Object player) {
+        String name = String.valueOf(player);
+        Matcher matcher = PLAYER_PATTERN.matcher(name);
+        return matcher.find() ? matcher.group(1) : name;
+    }
+
+    /**
+     * 解析日志中的字母牌
+     *
+     * @param data 含有 letter、value 和 isBlank 的对象
+     * @return 字母牌，空白牌没有字母时不指定字母；不是有效的字母牌时返回null
+     */
+    static Tile readTile(Map<?, ?> data) {
+        Object letter = data.get("letter");
+        char ch = letter instanceof String && ((String) letter).length() == 1 ? ((String) letter).charAt(0) : '\0';
+        if (Boolean.TRUE.equals(data.get("isBlank"))) {
+            Tile blank = new Tile();
+            if (Character.isLetter(ch)) {
+                blank.setBlankLetter(Character.toUpperCase(ch), 0);
+            }
+            return blank;
+        }
+        if (!Character.isLetter(ch)) {
+            return null;
+        }
+        Integer value = integer(data.get("value"));
+        return new Tile(Character.toUpperCase(ch), value != null ? value : 0);
+    }
+
+    /**
+     * @return 数字的整数值，不是数字时返回null
+     */
+    static Integer integer(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+}
@@ -0,0 +1,293 @@
+package scrabble.AIPlayer;
+
+import scrabble.Game.Game;
+import scrabble.Game.Player;
+import scrabble.Lexicon.LexiconSnapshot;
+import scrabble.Placement.PlaceTile;
+import scrabble.Placement.SimulationBoard;
+import scrabble.Tile.Tile;
+import scrabble.Validator.Dictionary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 为人类玩家提供提示：当前字母架得分最高的若干个合法走法
+ * 请求提示时在调用线程（通常是界面线程）上复制棋盘和字母架，这只需要几微秒；
+ * 搜索在提示服务自己的守护线程上用锚点走法生成器和游戏的交叉检查表进行，并受截止时间限制（默认50毫秒），
+ * 到期时返回目前为止找到的走法。
+ *
+ * 玩家在本回合已经放到棋盘上、还没有确认的字母牌会放回字母架再搜索，因此提示总是针对回合开始时的局面。
+ * 每个回合的结果会被缓存，同一回合内再次请求不超过已缓存数量的提示时直接返回缓存；
+ * 回合、棋盘、字母架或词库变化后缓存自动失效。
+ *
+ * 截止时间可以通过系统属性 scrabble.hint.budget（毫秒）修改。
+ * 游戏结束时提示服务被关闭，之后的请求直接得到空的提示。
+ */
+public class HintService {
+    /** 搜索预算的系统属性 */
+    public static final String BUDGET_PROPERTY = "scrabble.hint.budget";
+    /** 默认搜索预算（毫秒） */
+    public static final long DEFAULT_BUDGET_MILLIS = 50;
+    /** 默认的提示数量 */
+    public static final int DEFAULT_HINT_COUNT = 5;
+    /** 每次搜索至少保留的走法数量，使之后请求更多提示时仍能命中缓存 */
+    private static final int CACHED_HINTS = 10;
+
+    private final Game game;
+    private final ExecutorService executor;
+    /** 是否已经关闭 */
+    private volatile boolean shutdown;
+
+    /** 最近一次搜索的局面和结果 */
+    private Position cachedPosition;
+    private List<WordPlacement> cachedMoves;
+    private SearchReport cachedReport;
+    /** 缓存的搜索保留的走法数量 */
+    private int cachedLimit;
+
+    /**
+     * 创建提示服务
+     *
+     * @param game 游戏实例
+     */
+    public HintService(Game game) {
+        this.game = game;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hint-" + game.getGameId());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // GADDAG在第一次使用时构建，提前在后台构建，使第一次提示也能在预算内完成
+        executor.execute(() -> {
+            Dictionary dictionary = game.getDictionary();
+            if (dictionary != null) {
+                dictionary.getGaddag();
+            }
+        });
+    }
+
+    /**
+     * 获取搜索预算
+     *
+     * @return 预算（毫秒）
+     */
+    public static long getBudgetMillis() {
+        return Math.max(0, Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET_MILLIS));
+    }
+
+    /**
+     * 为当前玩家请求提示，在后台线程上搜索
+     *
+     * @param count 提示数量
+     * @return 完成时得到提示；游戏没有词库或提示服务已关闭时得到空的提示
+     */
+    public CompletableFuture<Hints> requestHints(int count) {
+        Position position = shutdown ? null : capture();
+        if (position == null) {
+            return CompletableFuture.completedFuture(Hints.empty());
+        }
+        synchronized (this) {
+            // 缓存命中时不必进入后台线程
+            Hints cached = fromCache(position, count);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> search(position, count), executor);
+        } catch (RejectedExecutionException e) {
+            // 请求期间游戏结束、提示服务被关闭
+            return CompletableFuture.completedFuture(Hints.empty());
+        }
+    }
+
+    /**
+     * 为当前玩家请求默认数量的提示
+     *
+     * @return 完成时得到提示
+     */
+    public CompletableFuture<Hints> requestHints() {
+        return requestHints(DEFAULT_HINT_COUNT);
+    }
+
+    /**
+     * 在调用线程上为当前玩家搜索提示，不应在界面线程上调用
+     *
+     * @param count 提示数量
+     * @return 提示
+     */
+    public Hints getHints(int count) {
+        Position position = capture();
+        return position == null ? Hints.empty() : search(position, count);
+    }
+
+    /**
+     * 丢弃缓存的提示
+     */
+    public synchronized void invalidate() {
+        cachedPosition = null;
+        cachedMoves = null;
+        cachedReport = null;
+    }
+
+    /**
+     * 关闭后台线程，之后requestHints()得到空的提示，只能用getHints()在调用线程上搜索
+     */
+    public void shutdown() {
+        shutdown = true;
+        invalidate();
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return 是否已经关闭
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * 复制当前玩家回合开始时的棋盘和字母架
+     */
+    private Position capture() {
+        Dictionary dictionary = game.getDictionary();
+        if (dictionary == null) {
+            return null;
+        }
+        Player player = game.getCurrentPlayer();
+        SimulationBoard board = SimulationBoard.of(game.getBoardOperator());
+        List<Tile> rack = new ArrayList<>(game.getTileManager().getPlayerRackList(player));
+        // 把还没有确认的字母牌放回字母架
+        for (PlaceTile.TilePlacement placement : game.getPlaceTile().getCurrentPlacements(player)) {
+            board.removeTileFromBoard(placement.getRow(), placement.getCol());
+            rack.add(placement.getTile());
+        }
+        return new Position(game.getTurnNumber(), MoveCache.boardHash(board), board, rack, dictionary,
+                game.getLexiconSnapshot());
+    }
+
+    private Hints search(Position position, int count) {
+        synchronized (this) {
+            Hints cached = fromCache(position, count);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // 使用请求时的词典和快照，搜索期间词典被释放或合并也不受影响；
+        // 搜索的是棋盘的副本，不能使用随真实棋盘更新的交叉检查表，由生成器按副本计算
+        AnchorMoveGenerator generator = new AnchorMoveGenerator(
+                position.dictionary.getGaddag(position.lexicon), game.getWordValidator(),
+                null, MoveGenerationPools.forDifficulty(AIPlayer.Difficulty.MASTER));
+        int limit = Math.max(count, CACHED_HINTS);
+        TopMoveSelector selector = new TopMoveSelector(limit, true);
+        SearchReport report = generator.generate(position.rack, position.board, selector,
+                SearchDeadline.after(getBudgetMillis()));
+        List<WordPlacement> moves = selector.getMoves();
+        synchronized (this) {
+            // 只有完整的搜索才能代表这个局面，超时的结果不缓存，下次请求重新搜索
+            if (report.isComplete()) {
+                cachedPosition = position;
+                cachedMoves = moves;
+                cachedReport = report;
+                cachedLimit = limit;
+            }
+        }
+        return new Hints(moves.subList(0, Math.min(count, moves.size())), report, false);
+    }
+
+    private Hints fromCache(Position position, int count) {
+        if (cachedPosition == null || !cachedPosition.matches(position)) {
+            return null;
+        }
+        // 缓存的走法少于当时保留的数量时，说明已经是全部走法
+        if (count > cachedLimit && cachedMoves.size() == cachedLimit) {
+            return null;
+        }
+        return new Hints(cachedMoves.subList(0, Math.min(count, cachedMoves.size())), cachedReport, true);
+    }
+
+    /**
+     * 请求提示时的局面
+     */
+    private static final class Position {
+        final int turnNumber;
+        final long boardHash;
+        final SimulationBoard board;
+        final List<Tile> rack;
+        final Dictionary dictionary;
+        final LexiconSnapshot lexicon;
+
+        Position(int turnNumber, long boardHash, SimulationBoard board, List<Tile> rack, Dictionary dictionary,
+                 LexiconSnapshot lexicon) {
+            this.turnNumber = turnNumber;
+            this.boardHash = boardHash;
+            this.board = board;
+            this.rack = rack;
+            this.dictionary = dictionary;
+            this.lexicon = lexicon;
+        }
+
+        boolean matches(Position other) {
+            return turnNumber == other.turnNumber && boardHash == other.boardHash && lexicon == other.lexicon
+                    && Ponderer.sameTiles(rack, other.rack);
+        }
+    }
+
+    /**
+     * 一次提示的结果
+     */
+    public static class Hints {
+        private final List<WordPlacement> moves;
+        private final SearchReport report;
+        private final boolean cached;
+
+        public Hints(List<WordPlacement> moves, SearchReport report, boolean cached) {
+            this.moves = Collections.unmodifiableList(new ArrayList<>(moves));
+            this.report = report;
+            this.cached = cached;
+        }
+
+        static Hints empty() {
+            return new Hints(Collections.emptyList(), null, false);
+        }
+
+        /**
+         * @return 提示的走法，按得分从高到低排列，每个走法包含得分和字母牌的放置位置
+         */
+        public List<WordPlacement> getMoves() {
+            return moves;
+        }
+
+        /**
+         * @return 产生这些提示的搜索报告，没有搜索时为null
+         */
+        public SearchReport getReport() {
+            return report;
+        }
+
+        /**
+         * @return 是否来自本回合之前的搜索
+         */
+        public boolean isCached() {
+            return cached;
+        }
+
+        /**
+         * @return 搜索是否在截止时间前完成，未完成时可能漏掉更好的走法
+         */
+        public boolean isComplete() {
+            return report == null || report.isComplete();
+        }
+
+        @Override
+        public String toString() {
+            return "提示 " + moves + (cached ? "（缓存）" : "") + (report != null ? "，" + report : "");
+        }
+    }
+}
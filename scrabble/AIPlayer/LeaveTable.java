@@ -0,0 +1,368 @@
+package scrabble.AIPlayer;
+
+import scrabble.Tile.Tile;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 剩余字母价值表，为下完一步后留在字母架上的每一种字母组合（最多6张，包括空白牌）保存一个价值
+ * 走法生成器用它计算权益（得分 + 剩余字母价值），使AI不会为了眼前的几分留下一架难用的字母。
+ *
+ * 字母组合是27种字母牌（A-Z和空白牌）的多重集合，按组合数系统编号：
+ * 把k张牌排序为 s1 ≤ s2 ≤ ... ≤ sk，令 ci = si + i - 1（严格递增），
+ * 编号 = 小于k张的组合总数 + Σ C(ci, i)。全部 C(33, 6) = 1107568 个组合正好占满一个float数组，
+ * 查询只需要至多6次查表和加法。
+ *
+ * 表可以保存为文件并通过内存映射加载（大端序）：
+ * - 头部16字节：魔数、格式版本、最大张数、条目数
+ * - 数据区：按编号排列的float价值
+ * 默认表从系统属性 scrabble.ai.leaves 指定的文件（默认 src/main/resources/leaves.bin）映射，
+ * 文件不存在时使用按常见经验估算的启发式表。表可以由LeaveTableBuilder从对局日志生成或改进。
+ */
+public final class LeaveTable {
+    /** 字母牌种类：26个字母和空白牌 */
+    public static final int SYMBOLS = 27;
+    /** 空白牌的编号 */
+    public static final int BLANK = 26;
+    /** 表中组合的最大张数 */
+    public static final int MAX_LEAVE = 6;
+    /** 表的条目数 */
+    public static final int SIZE;
+    /** 默认表文件的系统属性 */
+    public static final String PATH_PROPERTY = "scrabble.ai.leaves";
+    /** 默认表文件路径 */
+    public static final String DEFAULT_PATH = "src/main/resources/leaves.bin";
+
+    /** 文件魔数 "SLVT" */
+    private static final int MAGIC = 0x534C5654;
+    /** 文件格式版本 */
+    private static final int VERSION = 1;
+    /** 头部长度（字节） */
+    private static final int HEADER_SIZE = 16;
+
+    /** 组合数 C(n, k)，n最大为 SYMBOLS + MAX_LEAVE */
+    private static final int[][] BINOMIAL = new int[SYMBOLS + MAX_LEAVE + 1][MAX_LEAVE + 1];
+    /** 每种张数的组合在表中的起始编号 */
+    private static final int[] OFFSETS = new int[MAX_LEAVE + 2];
+
+    /** 启发式表中每种字母牌单独留下时的价值 */
+    private static final float[] SINGLE_VALUES = {
+            1.0f, -2.0f, 0.9f, 0.5f, 4.0f, -2.2f, -2.9f, 1.1f, -0.6f, -1.5f,
+            -0.5f, -0.2f, 0.6f, 0.2f, -2.5f, -0.5f, -7.0f, 1.1f, 8.0f, -0.1f,
+            -5.1f, -5.5f, -3.8f, 3.3f, -0.6f, 5.1f, 25.6f
+    };
+
+    static {
+        for (int n = 0; n < BINOMIAL.length; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, MAX_LEAVE); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+        for (int k = 0; k <= MAX_LEAVE; k++) {
+            OFFSETS[k + 1] = OFFSETS[k] + BINOMIAL[SYMBOLS + k - 1][k];
+        }
+        SIZE = OFFSETS[MAX_LEAVE + 1];
+    }
+
+    private static LeaveTable defaultTable;
+
+    private final FloatBuffer values;
+
+    private LeaveTable(FloatBuffer values) {
+        this.values = values;
+    }
+
+    /**
+     * 用价值数组创建表
+     *
+     * @param values 按编号排列的价值，长度必须为SIZE
+     * @return 表
+     */
+    public static LeaveTable of(float[] values) {
+        if (values.length != SIZE) {
+            throw new IllegalArgumentException("价值数组长度应为 " + SIZE + ": " + values.length);
+        }
+        return new LeaveTable(FloatBuffer.wrap(values.clone()).asReadOnlyBuffer());
+    }
+
+    /**
+     * 获取默认表
+     * 第一次调用时映射默认表文件，文件不存在或无法读取时使用启发式表
+     *
+     * @return 默认表
+     */
+    public static synchronized LeaveTable getDefault() {
+        if (defaultTable == null) {
+            String path = System.getProperty(PATH_PROPERTY, DEFAULT_PATH);
+            if (new File(path).isFile()) {
+                try {
+                    defaultTable = map(path);
+                } catch (IOException e) {
+                    System.err.println("加载剩余字母价值表失败，使用启发式表: " + e.getMessage());
+                }
+            }
+            if (defaultTable == null) {
+                defaultTable = heuristic();
+            }
+        }
+        return defaultTable;
+    }
+
+    /**
+     * 设置默认表，例如在生成新表之后替换
+     *
+     * @param table 新的默认表，为null时下次使用时重新加载
+     */
+    public static synchronized void setDefault(LeaveTable table) {
+        defaultTable = table;
+    }
+
+    /**
+     * 计算字母组合的编号
+     *
+     * @param counts 每种字母牌的数量，长度为SYMBOLS，下标26为空白牌
+     * @return 编号，总张数超过MAX_LEAVE时返回-1
+     */
+    public static int index(int[] counts) {
+        int k = 0;
+        for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+            k += counts[symbol];
+        }
+        if (k > MAX_LEAVE) {
+            return -1;
+        }
+        int rank = OFFSETS[k];
+        int i = 1;
+        for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+            for (int n = counts[symbol]; n > 0; n--) {
+                rank += BINOMIAL[symbol + i - 1][i];
+                i++;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * 按升序排列的字母牌编号计算字母组合的编号，结果与index(int[])相同
+     * 只需遍历组合中的字母牌，适合对同一字母架的大量子集反复查询
+     *
+     * @param symbols 升序排列的字母牌编号
+     * @param length 使用symbols的前length个
+     * @return 编号，张数超过MAX_LEAVE时返回-1
+     */
+    public static int indexOfSorted(int[] symbols, int length) {
+        if (length > MAX_LEAVE) {
+            return -1;
+        }
+        int rank = OFFSETS[length];
+        for (int i = 1; i <= length; i++) {
+            rank += BINOMIAL[symbols[i - 1] + i - 1][i];
+        }
+        return rank;
+    }
+
+    /**
+     * 字母牌对应的编号，未指定和已指定字母的空白牌都是BLANK
+     *
+     * @param tile 字母牌
+     * @return 0-25为字母，26为空白牌，无法识别时返回-1
+     */
+    public static int symbol(Tile tile) {
+        if (tile.isBlank()) {
+            return BLANK;
+        }
+        int symbol = Character.toUpperCase(tile.getLetter()) - 'A';
+        return symbol >= 0 && symbol < 26 ? symbol : -1;
+    }
+
+    /**
+     * 查询字母组合的价值
+     *
+     * @param counts 每种字母牌的数量，长度为SYMBOLS
+     * @return 价值，总张数超过MAX_LEAVE时返回0
+     */
+    public float value(int[] counts) {
+        int index = index(counts);
+        return index < 0 ? 0f : values.get(index);
+    }
+
+    /**
+     * 按编号查询价值
+     *
+     * @param index 编号
+     * @return 价值
+     */
+    public float valueAt(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * 复制出所有价值
+     *
+     * @return 按编号排列的价值数组
+     */
+    public float[] toArray() {
+        float[] copy = new float[SIZE];
+        values.duplicate().get(copy);
+        return copy;
+    }
+
+    /**
+     * 遍历所有字母组合
+     *
+     * @param visitor 对每个组合调用，counts在调用之间会被修改，需要时应复制
+     */
+    public static void forEachLeave(LeaveVisitor visitor) {
+        enumerate(new int[SYMBOLS], 0, 0, visitor);
+    }
+
+    private static void enumerate(int[] counts, int symbol, int total, LeaveVisitor visitor) {
+        if (symbol == SYMBOLS) {
+            visitor.visit(counts, index(counts));
+            return;
+        }
+        for (int n = 0; total + n <= MAX_LEAVE; n++) {
+            counts[symbol] = n;
+            enumerate(counts, symbol + 1, total + n, visitor);
+        }
+        counts[symbol] = 0;
+    }
+
+    /**
+     * 字母组合的访问者
+     */
+    public interface LeaveVisitor {
+        /**
+         * @param counts 每种字母牌的数量
+         * @param index 组合的编号
+         */
+        void visit(int[] counts, int index);
+    }
+
+    /**
+     * 构建启发式表
+     * 价值由单张字母牌的经验价值、重复字母的惩罚、元音辅音比例的惩罚以及Q与U的搭配组成
+     *
+     * @return 启发式表
+     */
+    public static LeaveTable heuristic() {
+        float[] table = new float[SIZE];
+        forEachLeave((counts, index) -> table[index] = heuristicValue(counts));
+        return new LeaveTable(FloatBuffer.wrap(table).asReadOnlyBuffer());
+    }
+
+    /**
+     * 启发式估算一个字母组合的价值
+     *
+     * @param counts 每种字母牌的数量
+     * @return 价值
+     */
+    public static float heuristicValue(int[] counts) {
+        float value = 0f;
+        int vowels = 0;
+        int consonants = 0;
+        for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+            int n = counts[symbol];
+            if (n == 0) {
+                continue;
+            }
+            value += n * SINGLE_VALUES[symbol];
+            if (symbol == BLANK) {
+                continue;
+            }
+            boolean vowel = symbol == 0 || symbol == 4 || symbol == 8 || symbol == 14 || symbol == 20;
+            if (vowel) {
+                vowels += n;
+            } else {
+                consonants += n;
+            }
+            // 重复的字母难以同时用掉，元音重复更糟
+            if (n > 1) {
+                value -= (n - 1) * (vowel ? 4.0f : 3.0f);
+            }
+        }
+        int letters = vowels + consonants;
+        float imbalance = Math.abs(vowels - 0.4f * letters) - 0.5f;
+        if (imbalance > 0) {
+            value -= 2.0f * imbalance;
+        }
+        if (counts['Q' - 'A'] > 0 && counts['U' - 'A'] > 0) {
+            value += 4.0f;
+        }
+        return value;
+    }
+
+    /**
+     * 把表写入文件
+     *
+     * @param path 输出路径
+     * @throws IOException 如果写入失败
+     */
+    public void save(String path) throws IOException {
+        Path output = Path.of(path);
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp.toFile())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(MAX_LEAVE);
+            out.writeInt(SIZE);
+            for (int i = 0; i < SIZE; i++) {
+                out.writeFloat(values.get(i));
+            }
+        }
+        try {
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 映射表文件
+     *
+     * @param path 文件路径
+     * @return 基于映射区域的只读表
+     * @throws IOException 如果文件无法读取或格式错误
+     */
+    public static LeaveTable map(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("剩余字母价值表文件过短: " + path);
+            }
+            // 映射在通道关闭后仍然有效
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("不是有效的剩余字母价值表文件: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("不支持的剩余字母价值表文件版本: " + buffer.getInt(4));
+            }
+            if (buffer.getInt(8) != MAX_LEAVE || buffer.getInt(12) != SIZE
+                    || size != HEADER_SIZE + 4L * SIZE) {
+                throw new IOException("剩余字母价值表文件长度与头部不符: " + path);
+            }
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(HEADER_SIZE);
+            return new LeaveTable(payload.slice().asFloatBuffer());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package scrabble.AIPlayer;
+
+import scrabble.Tile.Tile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 剩余字母价值表生成工具
+ * 从JsonGameLogger写出的对局日志（例如AI自我对弈的日志）中统计每次放置后留下的字母组合，
+ * 以及同一玩家下一回合的得分，用来改进已有的价值表：
+ * 某个组合的观测价值 = 留下它之后下一回合的平均得分 - 所有回合的平均得分，
+ * 再按样本数与原有价值加权平均（样本越多越接近观测值），没有样本的组合保持原值。
+ *
+ * 用法：LeaveTableBuilder &lt;输出路径&gt; &lt;日志文件或目录&gt;... [--base 已有表路径]
+ * 未指定已有表时以启发式表为基础。
+ */
+public class LeaveTableBuilder {
+    /** 原有价值相当于多少个样本 */
+    public static final int DEFAULT_PRIOR_WEIGHT = 30;
+
+    /** 每个组合的下一回合得分之和 */
+    private final double[] sums = new double[LeaveTable.SIZE];
+    /** 每个组合的样本数 */
+    private final int[] counts = new int[LeaveTable.SIZE];
+    private long samples;
+    private double totalScore;
+    private int priorWeight = DEFAULT_PRIOR_WEIGHT;
+
+    /**
+     * 每个玩家在日志中的回合状态
+     */
+    private static final class PlayerState {
+        /** 回合开始时的字母架 */
+        int[] rack;
+        /** 本回合放到棋盘上的字母牌 */
+        int[] placed = new int[LeaveTable.SYMBOLS];
+        /** 上一次放置后留下的组合，等待下一回合的得分 */
+        int pendingLeave = -1;
+        /** 留下组合之后是否已经开始了新的回合 */
+        boolean pendingTurnStarted;
+    }
+
+    /**
+     * 命令行入口
+     *
+     * @param args 输出路径、日志文件或目录，以及可选的 --base 已有表路径
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("用法: LeaveTableBuilder <输出路径> <日志文件或目录>... [--base 已有表路径]");
+            System.exit(1);
+        }
+        String outputPath = args[0];
+        String basePath = null;
+        List<File> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if ("--base".equals(args[i]) && i + 1 < args.length) {
+                basePath = args[++i];
+            } else {
+                inputs.add(new File(args[i]));
+            }
+        }
+
+        try {
+            long start = System.nanoTime();
+            LeaveTable base = basePath != null ? LeaveTable.map(basePath) : LeaveTable.heuristic();
+            LeaveTableBuilder builder = new LeaveTableBuilder();
+            int files = 0;
+            for (File input : inputs) {
+                files += builder.addLogs(input);
+            }
+            LeaveTable table = builder.build(base);
+            table.save(outputPath);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.println("已生成剩余字母价值表: " + outputPath);
+            System.out.println("日志文件数: " + files + ", 样本数: " + builder.getSampleCount()
+                    + ", 有样本的组合数: " + builder.getObservedLeaveCount()
+                    + String.format(", 平均下一回合得分: %.2f", builder.getMeanScore()));
+            System.out.println("耗时: " + millis + " ms");
+        } catch (IOException e) {
+            System.err.println("生成剩余字母价值表失败: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 设置原有价值的权重
+     *
+     * @param priorWeight 原有价值相当于的样本数，小于0时按0处理
+     */
+    public void setPriorWeight(int priorWeight) {
+        this.priorWeight = Math.max(0, priorWeight);
+    }
+
+    /**
+     * 读取日志文件，或目录中所有的 .json 日志文件
+     *
+     * @param input 日志文件或目录
+     * @return 读取的文件数
+     * @throws IOException 如果文件无法读取
+     */
+    public int addLogs(File input) throws IOException {
+        return GameLogReader.readFiles(input, (source, events) -> addEvents(events));
+    }
+
+    /**
+     * 统计一局游戏的事件
+     *
+     * @param events 按时间顺序排列的日志事件，不是对象的元素会被忽略
+     */
+    public void addEvents(List<?> events) {
+        Map<String, PlayerState> players = new HashMap<>();
+        GameLogReader.forEachEvent(events, (type, player, data) -> {
+            PlayerState state = players.computeIfAbsent(player, k -> new PlayerState());
+
+            if ("RACK".equals(type) && "TURN_START".equals(data.get("event"))) {
+                if (state.pendingLeave >= 0 && state.pendingTurnStarted) {
+                    // 上一回合没有放置（跳过或交换），下一回合得分为0
+                    addSample(state.pendingLeave, 0);
+                    state.pendingLeave = -1;
+                }
+                state.pendingTurnStarted = state.pendingLeave >= 0;
+                state.rack = new int[LeaveTable.SYMBOLS];
+                Object tiles = data.get("tiles");
+                if (tiles instanceof List) {
+                    for (Object tile : (List<?>) tiles) {
+                        if (tile instanceof Map) {
+                            addSymbol(state.rack, (Map<?, ?>) tile, 1);
+                        }
+                    }
+                }
+                state.placed = new int[LeaveTable.SYMBOLS];
+            } else if ("TILE_PLACEMENT".equals(type)) {
+                addSymbol(state.placed, data, 1);
+            } else if ("TILE_RETURN".equals(type)) {
+                addSymbol(state.placed, data, -1);
+            } else if ("PLACEMENT_CONFIRM".equals(type)) {
+                confirm(state, data.get("score"));
+            }
+        });
+    }
+
+    private void confirm(PlayerState state, Object rawScore) {
+        int placedCount = 0;
+        for (int n : state.placed) {
+            placedCount += n;
+        }
+        // 同一次确认可能被记录两次，没有新放置的确认忽略
+        if (placedCount == 0 || state.rack == null) {
+            return;
+        }
+        int score = rawScore instanceof Number ? ((Number) rawScore).intValue() : 0;
+        if (state.pendingLeave >= 0 && state.pendingTurnStarted) {
+            addSample(state.pendingLeave, score);
+        }
+
+        int[] leave = new int[LeaveTable.SYMBOLS];
+        boolean valid = true;
+        for (int symbol = 0; symbol < LeaveTable.SYMBOLS; symbol++) {
+            leave[symbol] = state.rack[symbol] - state.placed[symbol];
+            if (leave[symbol] < 0) {
+                valid = false;
+            }
+        }
+        state.pendingLeave = valid ? LeaveTable.index(leave) : -1;
+        state.pendingTurnStarted = false;
+        state.placed = new int[LeaveTable.SYMBOLS];
+    }
+
+    private void addSample(int leaveIndex, int nextScore) {
+        sums[leaveIndex] += nextScore;
+        counts[leaveIndex]++;
+        samples++;
+        totalScore += nextScore;
+    }
+
+    private static void addSymbol(int[] counts, Map<?, ?> data, int delta) {
+        Tile tile = GameLogReader.readTile(data);
+        if (tile == null) {
+            return;
+        }
+        int symbol = tile.isBlank() ? LeaveTable.BLANK : tile.getLetter() - 'A';
+        if (symbol >= 0 && symbol < LeaveTable.SYMBOLS) {
+            counts[symbol] += delta;
+        }
+    }
+
+    /**
+     * 用统计结果改进已有的价值表
+     *
+     * @param base 已有的价值表
+     * @return 新的价值表
+     */
+    public LeaveTable build(LeaveTable base) {
+        float[] values = base.toArray();
+        double mean = getMeanScore();
+        for (int i = 0; i < values.length; i++) {
+            int n = counts[i];
+            if (n == 0) {
+                continue;
+            }
+            double observed = sums[i] / n - mean;
+            values[i] = (float) ((n * observed + priorWeight * values[i]) / (n + priorWeight));
+        }
+        return LeaveTable.of(values);
+    }
+
+    /**
+     * @return 样本数
+     */
+    public long getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * @return 有样本的组合数
+     */
+    public int getObservedLeaveCount() {
+        int observed = 0;
+        for (int n : counts) {
+            if (n > 0) {
+                observed++;
+            }
+        }
+        return observed;
+    }
+
+    /**
+     * @return 所有样本的平均下一回合得分
+     */
+    public double getMeanScore() {
+        return samples == 0 ? 0.0 : totalScore / samples;
+    }
+}
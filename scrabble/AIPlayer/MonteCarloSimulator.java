@@ -0,0 +1,406 @@
+package scrabble.AIPlayer;
+
+import scrabble.Board.Board;
+import scrabble.Lexicon.Gaddag;
+import scrabble.Placement.BoardOperator;
+import scrabble.Placement.PlaceTile;
+import scrabble.Placement.SimulationBoard;
+import scrabble.Tile.Tile;
+import scrabble.Tile.TileManager;
+import scrabble.Validator.WordValidator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 蒙特卡洛模拟器，通过模拟之后几步对局来评估候选走法
+ * 对每个候选走法反复进行短模拟：在棋盘副本上放置候选走法，从未出现的字母牌中随机抽出对手的字母架和
+ * 自己补充的字母牌，然后双方轮流下出得分最高的走法。候选走法的价值为
+ * 即时得分 - 对手得分 + 自己之后的得分，取所有模拟的平均值。
+ *
+ * 每次模拟都在SimulationBoard副本上用锚点走法生成器进行，不访问游戏对象。
+ * 各候选走法轮流分配模拟次数，工作线程持续模拟直到截止时间或达到模拟次数上限。
+ *
+ * 游戏的字母牌按分布权重有放回地抽取，没有真正的牌袋，因此未出现的字母牌按
+ * 字母分布减去棋盘上和自己字母架上的字母牌估算；剩下的太少时直接使用完整的分布。
+ */
+public class MonteCarloSimulator {
+    /** 默认参与模拟的候选走法数量 */
+    public static final int DEFAULT_CANDIDATES = 10;
+    /** 默认在候选走法之后模拟的步数（对手一步、自己一步） */
+    public static final int DEFAULT_PLIES = 2;
+    /** 默认每个候选走法的模拟次数上限 */
+    public static final int DEFAULT_MAX_ROLLOUTS = 500;
+    /** 字母架容量 */
+    private static final int RACK_SIZE = 7;
+    /** 字母分布中空白牌的字符 */
+    private static final char BLANK = '*';
+
+    private final Gaddag gaddag;
+    private final WordValidator wordValidator;
+    private final Map<Character, TileManager.TileInfo> distribution;
+    /** 运行模拟的线程池，为null时在调用线程上模拟 */
+    private final ForkJoinPool pool;
+    private int plies = DEFAULT_PLIES;
+    private int maxRollouts = DEFAULT_MAX_ROLLOUTS;
+
+    /**
+     * 创建模拟器
+     *
+     * @param gaddag 词库的GADDAG索引
+     * @param wordValidator 单词验证器，必须线程安全
+     * @param distribution 字母分布（字母->{数量,分值}），'*' 表示空白牌
+     * @param pool 线程池，为null或并行度为1时在调用线程上模拟
+     */
+    public MonteCarloSimulator(Gaddag gaddag, WordValidator wordValidator,
+                               Map<Character, TileManager.TileInfo> distribution, ForkJoinPool pool) {
+        this.gaddag = gaddag;
+        this.wordValidator = wordValidator;
+        this.distribution = new HashMap<>(distribution);
+        this.pool = pool;
+    }
+
+    /**
+     * 设置候选走法之后模拟的步数
+     *
+     * @param plies 步数，小于0时按0处理
+     */
+    public void setPlies(int plies) {
+        this.plies = Math.max(0, plies);
+    }
+
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * 设置每个候选走法的模拟次数上限
+     *
+     * @param maxRollouts 模拟次数上限，小于1时按1处理
+     */
+    public void setMaxRollouts(int maxRollouts) {
+        this.maxRollouts = Math.max(1, maxRollouts);
+    }
+
+    public int getMaxRollouts() {
+        return maxRollouts;
+    }
+
+    /**
+     * 模拟评估候选走法
+     *
+     * @param candidates 候选走法
+     * @param playerRack 玩家当前的字母架
+     * @param boardOperator 当前棋盘，只在开始时读取一次
+     * @param deadline 截止时间
+     * @return 模拟结果
+     */
+    public SimulationResult simulate(List<WordPlacement> candidates, List<Tile> playerRack,
+                                     BoardOperator boardOperator, SearchDeadline deadline) {
+        List<WordPlacement> moves = Collections.unmodifiableList(new ArrayList<>(candidates));
+        int count = moves.size();
+        AtomicLongArray sums = new AtomicLongArray(count);
+        AtomicIntegerArray rollouts = new AtomicIntegerArray(count);
+        if (count == 0) {
+            return new SimulationResult(moves, sums, rollouts, maxRollouts, deadline.getElapsedMillis());
+        }
+
+        SimulationBoard base = SimulationBoard.of(boardOperator);
+        List<Tile> rack = new ArrayList<>(playerRack);
+        char[] unseen = unseenTiles(base, rack);
+        long limit = (long) maxRollouts * count;
+        AtomicInteger next = new AtomicInteger();
+
+        Runnable worker = () -> {
+            SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+            AnchorMoveGenerator generator = new AnchorMoveGenerator(gaddag, wordValidator);
+            int ticket;
+            while (!deadline.isExpired() && (ticket = next.getAndIncrement()) < limit) {
+                int index = ticket % count;
+                int value = rollout(moves.get(index), rack, base, unseen, generator, random);
+                sums.addAndGet(index, value);
+                rollouts.incrementAndGet(index);
+            }
+        };
+
+        if (pool == null || pool.getParallelism() <= 1) {
+            worker.run();
+        } else {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < pool.getParallelism(); i++) {
+                tasks.add(pool.submit(worker));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+        return new SimulationResult(moves, sums, rollouts, maxRollouts, deadline.getElapsedMillis());
+    }
+
+    /**
+     * 对一个候选走法进行一次模拟
+     *
+     * @return 候选走法在这次模拟中的价值
+     */
+    private int rollout(WordPlacement candidate, List<Tile> rack, SimulationBoard base, char[] unseen,
+                        AnchorMoveGenerator generator, SplittableRandom random) {
+        SimulationBoard board = base.copy();
+        apply(board, candidate);
+
+        char[] bag = unseen.clone();
+        int[] bagSize = {bag.length};
+        List<Tile> ownRack = new ArrayList<>(rack);
+        removeUsedTiles(ownRack, candidate);
+        List<Tile> opponentRack = new ArrayList<>(RACK_SIZE);
+        refill(opponentRack, bag, bagSize, random);
+        refill(ownRack, bag, bagSize, random);
+
+        int value = candidate.getScore();
+        boolean opponentTurn = true;
+        for (int ply = 0; ply < plies; ply++) {
+            List<Tile> mover = opponentTurn ? opponentRack : ownRack;
+            TopMoveSelector best = new TopMoveSelector(1, true);
+            generator.generate(mover, board, best);
+            WordPlacement move = best.select();
+            if (move != null) {
+                apply(board, move);
+                value += opponentTurn ? -move.getScore() : move.getScore();
+                removeUsedTiles(mover, move);
+                refill(mover, bag, bagSize, random);
+            }
+            opponentTurn = !opponentTurn;
+        }
+        return value;
+    }
+
+    /**
+     * 把走法放到模拟棋盘上，空白牌按单词中的字母指定
+     */
+    private static void apply(SimulationBoard board, WordPlacement move) {
+        String word = move.getWord();
+        for (PlaceTile.TilePlacement placement : move.getPlacements()) {
+            Tile tile = placement.getTile().copy();
+            if (tile.isBlank()) {
+                int offset = move.isHorizontal()
+                        ? placement.getCol() - move.getCol()
+                        : placement.getRow() - move.getRow();
+                tile.setBlankLetter(Character.toUpperCase(word.charAt(offset)), 0);
+            }
+            board.placeTileOnBoard(tile, placement.getRow(), placement.getCol());
+        }
+    }
+
+    private static void removeUsedTiles(List<Tile> rack, WordPlacement move) {
+        for (PlaceTile.TilePlacement placement : move.getPlacements()) {
+            for (int i = 0; i < rack.size(); i++) {
+                if (rack.get(i) == placement.getTile()) {
+                    rack.remove(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 从牌袋中随机抽牌，把字母架补满
+     */
+    private void refill(List<Tile> rack, char[] bag, int[] bagSize, SplittableRandom random) {
+        while (rack.size() < RACK_SIZE && bagSize[0] > 0) {
+            int index = random.nextInt(bagSize[0]);
+            char letter = bag[index];
+            bag[index] = bag[--bagSize[0]];
+            if (letter == BLANK) {
+                rack.add(new Tile());
+            } else {
+                TileManager.TileInfo info = distribution.get(letter);
+                rack.add(new Tile(letter, info != null ? info.getValue() : 0));
+            }
+        }
+    }
+
+    /**
+     * 估算未出现的字母牌：字母分布减去棋盘上和字母架上的字母牌
+     */
+    private char[] unseenTiles(SimulationBoard board, List<Tile> rack) {
+        Map<Character, Integer> remaining = new HashMap<>();
+        for (Map.Entry<Character, TileManager.TileInfo> entry : distribution.entrySet()) {
+            remaining.put(entry.getKey(), entry.getValue().getWeight());
+        }
+        for (int row = 0; row < Board.BOARD_SIZE; row++) {
+            for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                if (board.isCellOccupied(row, col)) {
+                    remaining.computeIfPresent(key(board.getCell(row, col).getTile()), (k, n) -> n - 1);
+                }
+            }
+        }
+        for (Tile tile : rack) {
+            remaining.computeIfPresent(key(tile), (k, n) -> n - 1);
+        }
+
+        char[] unseen = toBag(remaining);
+        if (unseen.length < 2 * RACK_SIZE) {
+            Map<Character, Integer> full = new HashMap<>();
+            for (Map.Entry<Character, TileManager.TileInfo> entry : distribution.entrySet()) {
+                full.put(entry.getKey(), entry.getValue().getWeight());
+            }
+            unseen = toBag(full);
+        }
+        return unseen;
+    }
+
+    private static char key(Tile tile) {
+        return tile.isBlank() ? BLANK : Character.toUpperCase(tile.getLetter());
+    }
+
+    private static char[] toBag(Map<Character, Integer> counts) {
+        int size = 0;
+        for (int n : counts.values()) {
+            size += Math.max(0, n);
+        }
+        char[] bag = new char[size];
+        int i = 0;
+        for (Map.Entry<Character, Integer> entry : counts.entrySet()) {
+            for (int n = 0; n < entry.getValue(); n++) {
+                bag[i++] = entry.getKey();
+            }
+        }
+        return bag;
+    }
+
+    /**
+     * 模拟结果，记录每个候选走法的模拟次数和平均价值
+     */
+    public static class SimulationResult {
+        private final List<WordPlacement> candidates;
+        private final long[] sums;
+        private final int[] rollouts;
+        /** 模拟时每个候选走法的模拟次数上限 */
+        private final int maxRollouts;
+        private final long elapsedMillis;
+
+        SimulationResult(List<WordPlacement> candidates, AtomicLongArray sums, AtomicIntegerArray rollouts,
+                         int maxRollouts, long elapsedMillis) {
+            this.candidates = candidates;
+            this.sums = new long[candidates.size()];
+            this.rollouts = new int[candidates.size()];
+            for (int i = 0; i < this.sums.length; i++) {
+                this.sums[i] = sums.get(i);
+                this.rollouts[i] = rollouts.get(i);
+            }
+            this.maxRollouts = maxRollouts;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * 检查模拟是否在截止时间前完成，即每个候选走法都达到了模拟次数上限
+         * 未完成的结果受截止时间早晚影响，不能代表这个局面
+         *
+         * @return 如果完成返回true
+         */
+        public boolean isComplete() {
+            for (int n : rollouts) {
+                if (n < maxRollouts) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 获取平均价值最高的候选走法
+         * 没有任何模拟完成的候选走法时按即时得分选择
+         *
+         * @return 最佳走法，没有候选走法时返回null
+         */
+        public WordPlacement getBest() {
+            int best = -1;
+            for (int i = 0; i < candidates.size(); i++) {
+                if (best < 0 || compare(i, best) > 0) {
+                    best = i;
+                }
+            }
+            return best < 0 ? null : candidates.get(best);
+        }
+
+        private int compare(int a, int b) {
+            boolean simulatedA = rollouts[a] > 0;
+            boolean simulatedB = rollouts[b] > 0;
+            if (simulatedA != simulatedB) {
+                return simulatedA ? 1 : -1;
+            }
+            if (simulatedA) {
+                int byMean = Double.compare(getMeanValue(a), getMeanValue(b));
+                if (byMean != 0) {
+                    return byMean;
+                }
+            }
+            return Integer.compare(candidates.get(a).getScore(), candidates.get(b).getScore());
+        }
+
+        public List<WordPlacement> getCandidates() {
+            return candidates;
+        }
+
+        /**
+         * 获取候选走法的模拟次数
+         *
+         * @param index 候选走法的下标
+         * @return 模拟次数
+         */
+        public int getRollouts(int index) {
+            return rollouts[index];
+        }
+
+        /**
+         * 获取候选走法的平均价值
+         *
+         * @param index 候选走法的下标
+         * @return 平均价值，没有模拟时返回即时得分
+         */
+        public double getMeanValue(int index) {
+            if (rollouts[index] == 0) {
+                return candidates.get(index).getScore();
+            }
+            return (double) sums[index] / rollouts[index];
+        }
+
+        /**
+         * 获取所有候选走法的模拟总次数
+         *
+         * @return 模拟总次数
+         */
+        public long getTotalRollouts() {
+            long total = 0;
+            for (int n : rollouts) {
+                total += n;
+            }
+            return total;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            WordPlacement best = getBest();
+            if (best == null) {
+                return "模拟：没有候选走法";
+            }
+            int index = candidates.indexOf(best);
+            return String.format("模拟 %d 个候选走法共 %d 次，用时 %d ms，选择 '%s'（即时得分 %d，平均价值 %.1f，模拟 %d 次）",
+                    candidates.size(), getTotalRollouts(), elapsedMillis, best.getWord(), best.getScore(),
+                    getMeanValue(index), rollouts[index]);
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package scrabble.AIPlayer;
+
+import scrabble.Board.Board;
+import scrabble.Board.Cell;
+import scrabble.Placement.BoardOperator;
+import scrabble.Placement.PlaceTile;
+import scrabble.Tile.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * AI走法缓存，记录（棋盘、字母架、难度）组合下AI选中的走法
+ * 自我对弈、复盘分析以及反复开关AI托管时，同一个局面会被重新搜索，命中缓存时可以直接得到走法。
+ *
+ * 棋盘用Zobrist哈希表示，字母架用排序后的字母表示（空白牌记为'?'，走法生成把空白牌都当作万能牌，因此不区分是否已指定字母）。
+ * 缓存不保存字母牌对象，命中时按字母把走法重新绑定到当前字母架上的字母牌。
+ * 每个条目还记录计算时的词库上下文（通常是词典的当前快照），上下文变化后条目视为失效。
+ * 注意：只通过某个游戏的DefaultWordValidator添加的自定义单词不反映在上下文中，添加后应调用clear()。
+ *
+ * 淘汰策略为分段LRU：新条目先进入试用段，再次命中后升入保护段；保护段满时最久未用的条目降回试用段，
+ * 试用段满时淘汰最久未用的条目。只出现一次的局面不会挤掉反复出现的局面。
+ * 默认容量为4096个条目，可以通过系统属性 scrabble.ai.cache.entries 或setCapacity修改。
+ * 所有方法都是线程安全的。
+ */
+public class MoveCache {
+    /** 容量系统属性 */
+    public static final String CAPACITY_PROPERTY = "scrabble.ai.cache.entries";
+    /** 默认容量 */
+    public static final int DEFAULT_CAPACITY = 4096;
+    /** 保护段占总容量的比例 */
+    private static final double PROTECTED_RATIO = 0.8;
+    /** 空白牌在字母架表示中的字符 */
+    private static final char BLANK = '?';
+
+    private static final int SQUARES = Board.BOARD_SIZE * Board.BOARD_SIZE;
+    /** 每个格子上每种字母牌（26个字母，普通牌和空白牌）的随机数 */
+    private static final long[] ZOBRIST = new long[SQUARES * 52];
+
+    static {
+        // 固定种子，使同一局面在不同游戏和不同运行中得到相同的哈希
+        Random random = new Random(0x5C4AB8L);
+        for (int i = 0; i < ZOBRIST.length; i++) {
+            ZOBRIST[i] = random.nextLong();
+        }
+    }
+
+    private static MoveCache instance;
+
+    private final LinkedHashMap<Key, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Key, Entry> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private int capacity;
+    private long estimatedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * 获取所有AI玩家共享的缓存实例
+     */
+    public static synchronized MoveCache getInstance() {
+        if (instance == null) {
+            instance = new MoveCache(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+        }
+        return instance;
+    }
+
+    /**
+     * 创建缓存
+     *
+     * @param capacity 最多保存的条目数，小于1时按1处理
+     */
+    public MoveCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * 计算棋盘的Zobrist哈希
+     *
+     * @param boardOperator 棋盘操作器
+     * @return 哈希值，空棋盘为0
+     */
+    public static long boardHash(BoardOperator boardOperator) {
+        long hash = 0;
+        for (int row = 0; row < Board.BOARD_SIZE; row++) {
+            for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                if (!boardOperator.isCellOccupied(row, col)) {
+                    continue;
+                }
+                Cell cell = boardOperator.getCell(row, col);
+                Tile tile = cell.getTile();
+                int letter = Character.toLowerCase(tile.getLetter()) - 'a';
+                if (letter < 0 || letter >= 26) {
+                    continue;
+                }
+                int kind = tile.isBlank() ? letter + 26 : letter;
+                hash ^= ZOBRIST[(row * Board.BOARD_SIZE + col) * 52 + kind];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 创建缓存键
+     *
+     * @param boardOperator 棋盘操作器
+     * @param playerRack 玩家的字母牌架
+     * @param difficulty AI难度
+     * @return 缓存键
+     */
+    public static Key key(BoardOperator boardOperator, List<Tile> playerRack, AIPlayer.Difficulty difficulty) {
+        char[] rack = new char[playerRack.size()];
+        for (int i = 0; i < rack.length; i++) {
+            rack[i] = tileKey(playerRack.get(i));
+        }
+        Arrays.sort(rack);
+        return new Key(boardHash(boardOperator), new String(rack), difficulty);
+    }
+
+    /**
+     * 字母牌在字母架表示中的字符
+     */
+    private static char tileKey(Tile tile) {
+        if (tile.isBlank()) {
+            return BLANK;
+        }
+        return Character.toUpperCase(tile.getLetter());
+    }
+
+    /**
+     * 查找缓存的走法
+     *
+     * @param key 缓存键
+     * @param context 当前的词库上下文
+     * @return 缓存的走法，未命中或条目已失效时返回null
+     */
+    public synchronized CachedMove get(Key key, Object context) {
+        Entry entry = probation.remove(key);
+        if (entry != null) {
+            // 第二次命中，升入保护段
+            if (entry.context == context) {
+                promote(key, entry);
+            } else {
+                estimatedBytes -= entry.bytes;
+                entry = null;
+            }
+        } else {
+            entry = protectedSegment.get(key);
+            if (entry != null && entry.context != context) {
+                protectedSegment.remove(key);
+                estimatedBytes -= entry.bytes;
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.move;
+    }
+
+    /**
+     * 保存走法
+     *
+     * @param key 缓存键
+     * @param context 计算走法时的词库上下文
+     * @param placement AI选中的走法，没有可用走法时为null
+     */
+    public synchronized void put(Key key, Object context, WordPlacement placement) {
+        Entry entry = new Entry(new CachedMove(placement), context, key);
+        Entry old = protectedSegment.get(key);
+        if (old != null) {
+            protectedSegment.put(key, entry);
+        } else {
+            old = probation.put(key, entry);
+        }
+        if (old != null) {
+            estimatedBytes -= old.bytes;
+        }
+        estimatedBytes += entry.bytes;
+        trim();
+    }
+
+    /**
+     * 清空缓存，统计数据保留
+     */
+    public synchronized void clear() {
+        probation.clear();
+        protectedSegment.clear();
+        estimatedBytes = 0;
+    }
+
+    /**
+     * 设置容量，超出的条目立即淘汰
+     *
+     * @param capacity 最多保存的条目数，小于1时按1处理
+     */
+    public synchronized void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        trim();
+    }
+
+    /**
+     * 获取容量
+     *
+     * @return 最多保存的条目数
+     */
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取缓存的统计数据
+     *
+     * @return 统计数据
+     */
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(hits, misses, evictions, probation.size() + protectedSegment.size(),
+                protectedSegment.size(), capacity, estimatedBytes);
+    }
+
+    /**
+     * 重置命中、未命中和淘汰计数
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    private void promote(Key key, Entry entry) {
+        protectedSegment.put(key, entry);
+        int protectedCapacity = Math.max(1, (int) (capacity * PROTECTED_RATIO));
+        Iterator<Map.Entry<Key, Entry>> iterator = protectedSegment.entrySet().iterator();
+        while (protectedSegment.size() > protectedCapacity && iterator.hasNext()) {
+            // 保护段最久未用的条目降回试用段，成为试用段中最近使用的条目
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            iterator.remove();
+            probation.put(eldest.getKey(), eldest.getValue());
+        }
+        trim();
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Key, Entry>> iterator = probation.entrySet().iterator();
+        while (probation.size() + protectedSegment.size() > capacity && iterator.hasNext()) {
+            estimatedBytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+        iterator = protectedSegment.entrySet().iterator();
+        while (protectedSegment.size() > capacity && iterator.hasNext()) {
+            estimatedBytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * 缓存键：棋盘哈希、排序后的字母架和难度
+     */
+    public static final class Key {
+        private final long boardHash;
+        private final String rack;
+        private final AIPlayer.Difficulty difficulty;
+
+        private Key(long boardHash, String rack, AIPlayer.Difficulty difficulty) {
+            this.boardHash = boardHash;
+            this.rack = rack;
+            this.difficulty = difficulty;
+        }
+
+        public long getBoardHash() {
+            return boardHash;
+        }
+
+        public String getRack() {
+            return rack;
+        }
+
+        public AIPlayer.Difficulty getDifficulty() {
+            return difficulty;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return boardHash == other.boardHash && rack.equals(other.rack) && difficulty == other.difficulty;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(boardHash, rack, difficulty);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x/%s/%s", boardHash, rack, difficulty);
+        }
+    }
+
+    /**
+     * 缓存中的走法，只保存位置和字母，不引用任何字母牌对象
+     */
+    public static final class CachedMove {
+        private final String word;
+        private final int row;
+        private final int col;
+        private final boolean isHorizontal;
+        private final int score;
+        private final float leaveValue;
+        private final int[] rows;
+        private final int[] cols;
+        private final char[] tiles;
+
+        private CachedMove(WordPlacement placement) {
+            if (placement == null) {
+                word = null;
+                row = 0;
+                col = 0;
+                isHorizontal = false;
+                score = 0;
+                leaveValue = 0f;
+                rows = null;
+                cols = null;
+                tiles = null;
+                return;
+            }
+            word = placement.getWord();
+            row = placement.getRow();
+            col = placement.getCol();
+            isHorizontal = placement.isHorizontal();
+            score = placement.getScore();
+            leaveValue = placement.getLeaveValue();
+            List<PlaceTile.TilePlacement> placements = placement.getPlacements();
+            rows = new int[placements.size()];
+            cols = new int[placements.size()];
+            tiles = new char[placements.size()];
+            for (int i = 0; i < tiles.length; i++) {
+                PlaceTile.TilePlacement tilePlacement = placements.get(i);
+                rows[i] = tilePlacement.getRow();
+                cols[i] = tilePlacement.getCol();
+                tiles[i] = tileKey(tilePlacement.getTile());
+            }
+        }
+
+        /**
+         * 是否没有可用走法
+         *
+         * @return 缓存的结果是没有可用走法时返回true
+         */
+        public boolean isEmpty() {
+            return word == null;
+        }
+
+        /**
+         * 把走法绑定到字母架上的字母牌
+         *
+         * @param playerRack 玩家当前的字母牌架
+         * @return 使用这些字母牌的走法；没有可用走法或字母架上缺少需要的字母牌时返回null
+         */
+        public WordPlacement bind(List<Tile> playerRack) {
+            if (isEmpty()) {
+                return null;
+            }
+            List<Tile> available = new ArrayList<>(playerRack);
+            List<PlaceTile.TilePlacement> placements = new ArrayList<>(tiles.length);
+            for (int i = 0; i < tiles.length; i++) {
+                Tile tile = null;
+                for (Iterator<Tile> iterator = available.iterator(); iterator.hasNext(); ) {
+                    Tile candidate = iterator.next();
+                    if (tileKey(candidate) == tiles[i]) {
+                        tile = candidate;
+                        iterator.remove();
+                        break;
+                    }
+                }
+                if (tile == null) {
+                    return null;
+                }
+                placements.add(new PlaceTile.TilePlacement(tile, rows[i], cols[i], 0));
+            }
+            return new WordPlacement(word, row, col, isHorizontal, score, placements, leaveValue);
+        }
+
+        /**
+         * 估算占用的内存
+         */
+        private long estimatedBytes() {
+            if (isEmpty()) {
+                return 48;
+            }
+            // 对象头、字段、单词字符串和三个数组
+            return 48 + 56 + 2L * word.length() + 3 * 16 + 10L * tiles.length;
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+        final CachedMove move;
+        final Object context;
+        final long bytes;
+
+        Entry(CachedMove move, Object context, Key key) {
+            this.move = move;
+            this.context = context;
+            // 条目、键、字母架字符串以及两个哈希表中的节点
+            this.bytes = move.estimatedBytes() + 24 + 32 + 48 + 2L * key.rack.length() + 64;
+        }
+    }
+
+    /**
+     * 缓存统计数据
+     */
+    public static class CacheStatistics {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final int protectedSize;
+        private final int capacity;
+        private final long estimatedBytes;
+
+        public CacheStatistics(long hits, long misses, long evictions, int size, int protectedSize, int capacity,
+                               long estimatedBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.protectedSize = protectedSize;
+            this.capacity = capacity;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return 保护段中的条目数
+         */
+        public int getProtectedSize() {
+            return protectedSize;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * @return 估算的内存占用（字节）
+         */
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        /**
+         * @return 命中率，没有查询时为0
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("走法缓存: %d/%d 个条目（保护段 %d）, 约 %d KB, 命中率 %.2f%% "
+                            + "(命中 %d, 未命中 %d, 淘汰 %d)",
+                    size, capacity, protectedSize, estimatedBytes / 1024, getHitRate() * 100,
+                    hits, misses, evictions);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package scrabble.AIPlayer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * 按AI难度划分的走法生成线程池（EXPERT的线程池同时用于蒙特卡洛模拟）
+ * 每个难度使用独立的ForkJoinPool，低难度的AI最多只占用为它配置的线程数，不会与高难度AI争抢处理器。
+ * 并行度默认为：NOVICE 1（在AI线程上直接生成），NORMAL 处理器数的一半，MASTER和EXPERT 全部处理器，
+ * 可以通过系统属性 scrabble.ai.parallelism.&lt;难度&gt;（如 scrabble.ai.parallelism.master=4）
+ * 或setParallelism修改。线程池在第一次使用时创建，工作线程为守护线程。
+ */
+public final class MoveGenerationPools {
+    /** 并行度系统属性的前缀，后接小写的难度名称 */
+    public static final String PARALLELISM_PROPERTY_PREFIX = "scrabble.ai.parallelism.";
+
+    /** 已配置的并行度 */
+    private static final Map<AIPlayer.Difficulty, Integer> parallelism = new EnumMap<>(AIPlayer.Difficulty.class);
+    /** 已创建的线程池 */
+    private static final Map<AIPlayer.Difficulty, ForkJoinPool> pools = new EnumMap<>(AIPlayer.Difficulty.class);
+
+    private MoveGenerationPools() {
+    }
+
+    /**
+     * 获取指定难度的走法生成线程池
+     *
+     * @param difficulty AI难度
+     * @return 线程池，并行度为1时返回null，表示在调用线程上生成
+     */
+    public static synchronized ForkJoinPool forDifficulty(AIPlayer.Difficulty difficulty) {
+        int level = getParallelism(difficulty);
+        if (level <= 1) {
+            return null;
+        }
+        ForkJoinPool pool = pools.get(difficulty);
+        if (pool == null) {
+            String prefix = "ai-movegen-" + difficulty.name().toLowerCase() + "-";
+            pool = new ForkJoinPool(level, p -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName(prefix + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+            pools.put(difficulty, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * 获取指定难度的并行度
+     *
+     * @param difficulty AI难度
+     * @return 并行度（至少为1）
+     */
+    public static synchronized int getParallelism(AIPlayer.Difficulty difficulty) {
+        Integer level = parallelism.get(difficulty);
+        if (level == null) {
+            level = defaultParallelism(difficulty);
+            parallelism.put(difficulty, level);
+        }
+        return level;
+    }
+
+    /**
+     * 设置指定难度的并行度
+     * 原有的线程池不再分配给新的生成，下次使用时按新的并行度创建。
+     * 正在进行的生成和模拟可能还持有原有的线程池并继续向它提交任务，所以不关闭它，
+     * 工作线程空闲一段时间后自行退出
+     *
+     * @param difficulty AI难度
+     * @param level 并行度，小于1时按1处理
+     */
+    public static synchronized void setParallelism(AIPlayer.Difficulty difficulty, int level) {
+        parallelism.put(difficulty, Math.max(1, level));
+        pools.remove(difficulty);
+    }
+
+    private static int defaultParallelism(AIPlayer.Difficulty difficulty) {
+        Integer configured = Integer.getInteger(PARALLELISM_PROPERTY_PREFIX + difficulty.name().toLowerCase());
+        if (configured != null) {
+            return Math.max(1, configured);
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        switch (difficulty) {
+            case NOVICE:
+                return 1;
+            case NORMAL:
+                return Math.max(1, processors / 2);
+            case MASTER:
+            default:
+                return processors;
+        }
+    }
+}
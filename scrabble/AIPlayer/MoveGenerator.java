@@ -0,0 +1,57 @@
+package scrabble.AIPlayer;
+
+import scrabble.Placement.BoardOperator;
+import scrabble.Tile.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 走法生成器接口
+ * 根据当前棋盘和玩家的字母架生成所有合法的单词放置方案，并计算每个方案的得分
+ */
+public interface MoveGenerator {
+    /**
+     * 生成所有合法的单词放置方案
+     *
+     * @param playerRack 玩家的字母牌架
+     * @param boardOperator 棋盘操作器
+     * @param sink 接收每个放置方案
+     */
+    void generate(List<Tile> playerRack, BoardOperator boardOperator, Consumer<WordPlacement> sink);
+
+    /**
+     * 在截止时间内生成单词放置方案
+     * 生成器在每一步开始前检查截止时间，到期后不再开始新的步骤，已生成的方案照常交给接收者。
+     * 默认实现不检查截止时间，把整个生成当作一步。
+     *
+     * @param playerRack 玩家的字母牌架
+     * @param boardOperator 棋盘操作器
+     * @param sink 接收每个放置方案
+     * @param deadline 截止时间
+     * @return 搜索报告
+     */
+    default SearchReport generate(List<Tile> playerRack, BoardOperator boardOperator, Consumer<WordPlacement> sink,
+                                  SearchDeadline deadline) {
+        long[] moves = new long[1];
+        generate(playerRack, boardOperator, placement -> {
+            moves[0]++;
+            sink.accept(placement);
+        });
+        return new SearchReport(1, 1, moves[0], deadline.getElapsedMillis(), deadline.getBudgetMillis());
+    }
+
+    /**
+     * 生成所有合法的单词放置方案并收集到列表中
+     *
+     * @param playerRack 玩家的字母牌架
+     * @param boardOperator 棋盘操作器
+     * @return 所有放置方案
+     */
+    default List<WordPlacement> generate(List<Tile> playerRack, BoardOperator boardOperator) {
+        List<WordPlacement> placements = new ArrayList<>();
+        generate(playerRack, boardOperator, placements::add);
+        return placements;
+    }
+}
@@ -0,0 +1,64 @@
+package scrabble.AIPlayer;
+
+import java.util.function.Consumer;
+
+/**
+ * 走法选择器，作为走法生成器的接收者逐个接收放置方案，只保留选择所需的信息
+ * 与先收集全部方案再排序相比，一回合占用的内存与生成的方案数量无关。
+ *
+ * 同一配置的两个选择器可以合并，便于并行生成时每个任务使用自己的选择器，最后按顺序合并。
+ * 选择器不是线程安全的。
+ */
+public interface MoveSelector extends Consumer<WordPlacement> {
+    /**
+     * 获取选中的放置方案
+     *
+     * @return 选中的放置方案，没有接收到任何方案时返回null
+     */
+    WordPlacement select();
+
+    /**
+     * 获取已接收的放置方案数量
+     *
+     * @return 方案数量
+     */
+    long getCount();
+
+    /**
+     * 创建一个配置相同的空选择器
+     *
+     * @return 新的选择器
+     */
+    MoveSelector newEmpty();
+
+    /**
+     * 合并另一个选择器接收的方案，结果与先接收本选择器的方案、再依次接收另一个选择器的方案相同
+     *
+     * @param later 由newEmpty()创建、接收在本选择器之后生成的方案的选择器
+     * @throws IllegalArgumentException 如果两个选择器的类型或配置不同
+     */
+    void merge(MoveSelector later);
+
+    /**
+     * 根据AI难度创建选择器
+     * NOVICE选择权益最低的方案，NORMAL选择分数居中的方案，MASTER选择权益最高的方案，
+     * EXPERT保留权益最高的若干个方案作为模拟的候选（select()返回其中权益最高的方案）。
+     * 生成器没有计算剩余字母价值时权益就是分数
+     *
+     * @param difficulty AI难度
+     * @return 选择器
+     */
+    static MoveSelector forDifficulty(AIPlayer.Difficulty difficulty) {
+        switch (difficulty) {
+            case NOVICE:
+                return new TopMoveSelector(1, false);
+            case NORMAL:
+                return new QuantileMoveSelector(0.5);
+            case EXPERT:
+                return new TopMoveSelector(MonteCarloSimulator.DEFAULT_CANDIDATES, true);
+            case MASTER:
+            default:
+                return new TopMoveSelector(1, true);
+        }
+    }
+}
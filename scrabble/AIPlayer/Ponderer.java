@@ -0,0 +1,334 @@
+package scrabble.AIPlayer;
+
+import scrabble.Board.Board;
+import scrabble.Placement.BoardOperator;
+import scrabble.Placement.PlaceTile;
+import scrabble.Placement.SimulationBoard;
+import scrabble.Tile.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * 后台预先思考：在其他玩家的回合里为AI玩家提前生成走法
+ * AI玩家的回合结束、补牌之后，它的字母架在下一回合开始前不会再变化，因此可以立即在后台按行（列）生成走法。
+ * 之后每次有玩家确认放置，只有受影响的行（列）需要重新生成：
+ * - 放置所在的行和列，以及
+ * - 放置所在的垂直（水平）连续字母两端的空格子所在的行（列），这些格子的交叉检查和锚点可能改变
+ * 其他行（列）的走法不变，直接保留。轮到AI时只需补算还没有生成的行（列），按行号顺序交给接收者，
+ * 结果与一次完整的AnchorMoveGenerator生成相同。
+ *
+ * 后台生成在预先思考自己的守护线程上逐行进行，读取的是确认放置时复制的棋盘，不会读到其他玩家还未确认的字母牌。
+ * 取用结果时会比较棋盘哈希、字母架、词库上下文和剩余字母价值表，有任何不一致都不使用预先思考的结果。
+ */
+public class Ponderer {
+    /** 行号总数，0-14为水平方向的各行，15-29为垂直方向的各列 */
+    private static final int LINES = 2 * Board.BOARD_SIZE;
+
+    private final ExecutorService executor;
+
+    /** 生成走法用的生成器，不使用交叉检查表和线程池，只在后台线程和取用结果的线程上使用 */
+    private AnchorMoveGenerator generator;
+    /** 预先思考的字母架，为null表示没有在预先思考 */
+    private List<Tile> rack;
+    /** 最近一次确认放置后复制的棋盘 */
+    private SimulationBoard board;
+    private long boardHash;
+    private boolean boardEmpty;
+    /** 开始预先思考时的词库上下文 */
+    private Object context;
+    /** 开始预先思考时的剩余字母价值表 */
+    private LeaveTable leaveTable;
+    /** 每一行（列）已生成的走法，为null表示需要（重新）生成 */
+    private final List<List<WordPlacement>> lineMoves = new ArrayList<>(Collections.nCopies(LINES, null));
+    /** 每一行（列）被作废的次数，后台生成完成时用来判断结果是否仍然有效 */
+    private final long[] lineVersions = new long[LINES];
+    /** 每次开始、作废或停止时递增，旧的后台任务发现后退出 */
+    private long generation;
+
+    /**
+     * 创建预先思考
+     *
+     * @param name 后台线程名称的后缀，通常为玩家名称
+     */
+    public Ponderer(String name) {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-ponder-" + name);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * 为新的字母架开始预先思考，之前的结果全部作废
+     * 必须在棋盘上只有已确认的字母牌时调用，例如回合结束时
+     *
+     * @param generator 生成走法用的生成器
+     * @param playerRack 玩家的字母牌架
+     * @param boardOperator 棋盘操作器
+     * @param context 词库上下文
+     * @param leaveTable 生成器使用的剩余字母价值表，可以为null
+     */
+    public synchronized void start(AnchorMoveGenerator generator, List<Tile> playerRack, BoardOperator boardOperator,
+                                   Object context, LeaveTable leaveTable) {
+        this.generator = generator;
+        this.rack = new ArrayList<>(playerRack);
+        this.context = context;
+        this.leaveTable = leaveTable;
+        copyBoard(boardOperator);
+        for (int line = 0; line < LINES; line++) {
+            lineMoves.set(line, null);
+            lineVersions[line]++;
+        }
+        submit();
+    }
+
+    /**
+     * 在一次放置确认后作废受影响的行（列）并在后台重新生成
+     * 必须在确认之后、棋盘上还没有新的待定字母牌时调用
+     *
+     * @param placements 已确认的字母牌放置
+     * @param boardOperator 确认后的棋盘
+     */
+    public synchronized void invalidate(List<PlaceTile.TilePlacement> placements, BoardOperator boardOperator) {
+        if (rack == null || placements == null || placements.isEmpty()) {
+            return;
+        }
+        // 第一次放置之前只有中心格是锚点，之后锚点遍布各处，全部重新生成
+        boolean[] affected = boardEmpty ? all() : affectedLines(placements, boardOperator);
+        copyBoard(boardOperator);
+        for (int line = 0; line < LINES; line++) {
+            if (affected[line]) {
+                lineMoves.set(line, null);
+                lineVersions[line]++;
+            }
+        }
+        submit();
+    }
+
+    /**
+     * 停止预先思考并丢弃结果
+     */
+    public synchronized void stop() {
+        rack = null;
+        board = null;
+        generator = null;
+        context = null;
+        leaveTable = null;
+        for (int line = 0; line < LINES; line++) {
+            lineMoves.set(line, null);
+        }
+        generation++;
+    }
+
+    /**
+     * 停止预先思考并关闭后台线程，之后不能再开始预先思考
+     */
+    public void shutdown() {
+        stop();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 取用预先思考的结果
+     * 还没有生成的行（列）在调用线程上补算，截止时间到期后不再补算；取用后预先思考停止
+     *
+     * @param playerRack 当前的字母牌架
+     * @param boardOperator 当前的棋盘
+     * @param context 当前的词库上下文
+     * @param leaveTable 当前使用的剩余字母价值表
+     * @param sink 按行号顺序接收走法
+     * @param deadline 补算的截止时间
+     * @return 搜索报告，每一行（列）是一步；预先思考的结果不可用时返回null，sink不会收到任何走法
+     */
+    public SearchReport take(List<Tile> playerRack, BoardOperator boardOperator, Object context,
+                             LeaveTable leaveTable, Consumer<WordPlacement> sink, SearchDeadline deadline) {
+        AnchorMoveGenerator generator;
+        SimulationBoard board;
+        List<Tile> rack;
+        List<List<WordPlacement>> ready;
+        synchronized (this) {
+            if (this.rack == null || this.context != context || this.leaveTable != leaveTable
+                    || !sameTiles(this.rack, playerRack) || MoveCache.boardHash(boardOperator) != boardHash) {
+                stop();
+                return null;
+            }
+            generator = this.generator;
+            board = this.board;
+            rack = this.rack;
+            ready = new ArrayList<>(lineMoves);
+            stop();
+        }
+
+        int completed = 0;
+        long moves = 0;
+        for (int line = 0; line < LINES; line++) {
+            List<WordPlacement> result = ready.get(line);
+            if (result == null) {
+                if (deadline.isExpired()) {
+                    continue;
+                }
+                result = generator.generateLine(rack, board, line);
+            }
+            completed++;
+            moves += result.size();
+            result.forEach(sink);
+        }
+        return new SearchReport(completed, LINES, moves, deadline.getElapsedMillis(), deadline.getBudgetMillis());
+    }
+
+    /**
+     * @return 已经生成好的行（列）数
+     */
+    public synchronized int getReadyLineCount() {
+        int ready = 0;
+        for (List<WordPlacement> moves : lineMoves) {
+            if (moves != null) {
+                ready++;
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * @return 是否正在预先思考
+     */
+    public synchronized boolean isActive() {
+        return rack != null;
+    }
+
+    private void copyBoard(BoardOperator boardOperator) {
+        board = SimulationBoard.of(boardOperator);
+        boardHash = MoveCache.boardHash(board);
+        boardEmpty = true;
+        for (int row = 0; row < Board.BOARD_SIZE && boardEmpty; row++) {
+            for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                if (board.isCellOccupied(row, col)) {
+                    boardEmpty = false;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void submit() {
+        long current = ++generation;
+        if (!executor.isShutdown()) {
+            executor.execute(() -> run(current));
+        }
+    }
+
+    /**
+     * 后台逐行生成，发现有更新的开始、作废或停止时退出
+     */
+    private void run(long current) {
+        for (int line = 0; line < LINES; line++) {
+            AnchorMoveGenerator generator;
+            SimulationBoard board;
+            List<Tile> rack;
+            long version;
+            synchronized (this) {
+                if (generation != current) {
+                    return;
+                }
+                if (lineMoves.get(line) != null) {
+                    continue;
+                }
+                generator = this.generator;
+                board = this.board;
+                rack = this.rack;
+                version = lineVersions[line];
+            }
+            List<WordPlacement> result = generator.generateLine(rack, board, line);
+            synchronized (this) {
+                // 生成期间该行（列）没有被作废时结果仍然有效，即使之后有其他行（列）被作废
+                if (this.rack != null && lineVersions[line] == version) {
+                    lineMoves.set(line, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * 计算一次放置影响的行（列）
+     *
+     * @param placements 已确认的字母牌放置
+     * @param boardOperator 确认后的棋盘
+     * @return 下标为行号的标记
+     */
+    static boolean[] affectedLines(List<PlaceTile.TilePlacement> placements, BoardOperator boardOperator) {
+        boolean[] affected = new boolean[LINES];
+        for (PlaceTile.TilePlacement placement : placements) {
+            int row = placement.getRow();
+            int col = placement.getCol();
+            affected[row] = true;
+            affected[Board.BOARD_SIZE + col] = true;
+            // 垂直连续字母两端的空格子，所在行的交叉检查或锚点改变
+            int up = row;
+            while (up >= 0 && boardOperator.isCellOccupied(up, col)) {
+                up--;
+            }
+            int down = row;
+            while (down < Board.BOARD_SIZE && boardOperator.isCellOccupied(down, col)) {
+                down++;
+            }
+            if (up >= 0) {
+                affected[up] = true;
+            }
+            if (down < Board.BOARD_SIZE) {
+                affected[down] = true;
+            }
+            // 水平连续字母两端的空格子，所在列同理
+            int left = col;
+            while (left >= 0 && boardOperator.isCellOccupied(row, left)) {
+                left--;
+            }
+            int right = col;
+            while (right < Board.BOARD_SIZE && boardOperator.isCellOccupied(row, right)) {
+                right++;
+            }
+            if (left >= 0) {
+                affected[Board.BOARD_SIZE + left] = true;
+            }
+            if (right < Board.BOARD_SIZE) {
+                affected[Board.BOARD_SIZE + right] = true;
+            }
+        }
+        return affected;
+    }
+
+    private static boolean[] all() {
+        boolean[] affected = new boolean[LINES];
+        Arrays.fill(affected, true);
+        return affected;
+    }
+
+    /**
+     * 两个字母架是否由同一组字母牌组成（按对象比较）
+     */
+    static boolean sameTiles(List<Tile> expected, List<Tile> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        Map<Tile, Integer> counts = new IdentityHashMap<>();
+        for (Tile tile : expected) {
+            counts.merge(tile, 1, Integer::sum);
+        }
+        for (Tile tile : actual) {
+            Integer count = counts.get(tile);
+            if (count == null || count == 0) {
+                return false;
+            }
+            counts.put(tile, count - 1);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,564 @@
+package scrabble.AIPlayer;
+
+import scrabble.Board.Board;
+import scrabble.Placement.DefaultBoardOperator;
+import scrabble.Placement.PlaceTile;
+import scrabble.Placement.SimulationBoard;
+import scrabble.Tile.Tile;
+import scrabble.Validator.DefaultWordValidator;
+import scrabble.Validator.Dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 离线批量局面分析工具
+ * 对每个局面（棋盘和字母架）生成全部走法，给出最好走法的得分和权益、实际走法的名次以及权益损失
+ * （最好走法的权益减去实际走法的权益）。局面之间相互独立，在线程池中并行分析，每个局面在一个线程上顺序生成，
+ * 不需要创建Game或AIPlayer。
+ *
+ * 局面可以直接构造，也可以用readLogs()从JsonGameLogger写出的对局日志中按回合还原：
+ * 每个回合开始时的棋盘和字母架是一个局面，本回合确认的放置是实际走法；没有放置的回合（跳过或交换）按权益0计算。
+ *
+ * 用法：PositionAnalyzer &lt;日志文件或目录&gt;... [--dictionary 词典路径] [--leaves 剩余字母价值表路径] [--threads 线程数]
+ * 线程数默认为系统属性 scrabble.analysis.parallelism，未设置时为处理器数量。
+ */
+public class PositionAnalyzer {
+    /** 并行度的系统属性 */
+    public static final String PARALLELISM_PROPERTY = "scrabble.analysis.parallelism";
+
+    private final AnchorMoveGenerator generator;
+    private final int parallelism;
+
+    /**
+     * 创建使用默认并行度的分析器
+     *
+     * @param dictionary 词典
+     * @param leaveTable 剩余字母价值表，为null时权益就是得分
+     */
+    public PositionAnalyzer(Dictionary dictionary, LeaveTable leaveTable) {
+        this(dictionary, leaveTable, Integer.getInteger(PARALLELISM_PROPERTY,
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * 创建分析器
+     *
+     * @param dictionary 词典
+     * @param leaveTable 剩余字母价值表，为null时权益就是得分
+     * @param parallelism 并行分析的线程数，至少为1
+     */
+    public PositionAnalyzer(Dictionary dictionary, LeaveTable leaveTable, int parallelism) {
+        // 每个局面自行计算交叉检查，生成器没有可变状态，可以在多个线程上同时使用
+        this.generator = new AnchorMoveGenerator(dictionary.getGaddag(), new DefaultWordValidator(dictionary), null,
+                null, leaveTable);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * 命令行入口
+     *
+     * @param args 日志文件或目录，以及可选的 --dictionary、--leaves 和 --threads
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("用法: PositionAnalyzer <日志文件或目录>... [--dictionary 词典路径] "
+                    + "[--leaves 剩余字母价值表路径] [--threads 线程数]");
+            System.exit(1);
+        }
+        String dictionaryPath = null;
+        String leavesPath = null;
+        Integer threads = null;
+        List<File> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--dictionary".equals(args[i]) && i + 1 < args.length) {
+                dictionaryPath = args[++i];
+            } else if ("--leaves".equals(args[i]) && i + 1 < args.length) {
+                leavesPath = args[++i];
+            } else if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                inputs.add(new File(args[i]));
+            }
+        }
+
+        try {
+            Dictionary dictionary = dictionaryPath != null ? new Dictionary(dictionaryPath) : new Dictionary();
+            LeaveTable leaveTable = leavesPath != null ? LeaveTable.map(leavesPath) : LeaveTable.getDefault();
+            PositionAnalyzer analyzer = threads != null
+                    ? new PositionAnalyzer(dictionary, leaveTable, threads)
+                    : new PositionAnalyzer(dictionary, leaveTable);
+            List<Position> positions = new ArrayList<>();
+            for (File input : inputs) {
+                positions.addAll(readLogs(input));
+            }
+
+            BatchResult result = analyzer.analyze(positions.stream());
+            for (Analysis analysis : result.getAnalyses()) {
+                System.out.println(analysis);
+            }
+            System.out.println(result);
+        } catch (IOException e) {
+            System.err.println("分析局面失败: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 并行分析一批局面
+     *
+     * @param positions 局面
+     * @return 按局面顺序排列的分析结果和吞吐量
+     */
+    public BatchResult analyze(Stream<Position> positions) {
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Analysis> analyses = pool.submit(
+                    () -> positions.parallel().map(this::analyze).collect(Collectors.toList())).get();
+            return new BatchResult(analyses, System.nanoTime() - start, parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("局面分析被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("局面分析失败", cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 在调用线程上分析一个局面
+     *
+     * @param position 局面
+     * @return 分析结果
+     */
+    public Analysis analyze(Position position) {
+        long start = System.nanoTime();
+        List<WordPlacement> moves = generator.generate(position.getRack(), position.getBoard());
+
+        WordPlacement best = null;
+        WordPlacement played = null;
+        String playedKey = position.getPlayed() != null ? key(position.getPlayed()) : null;
+        for (WordPlacement move : moves) {
+            if (best == null || move.getEquity() > best.getEquity()) {
+                best = move;
+            }
+            if (playedKey != null && (played == null || move.getEquity() > played.getEquity())
+                    && playedKey.equals(key(move))) {
+                played = move;
+            }
+        }
+
+        // 没有放置的回合按权益0计算；实际走法不在生成的走法中时（如词典不同）没有名次
+        boolean found = position.getPlayed() == null || played != null;
+        double playedEquity = played != null ? played.getEquity() : 0.0;
+        int rank = -1;
+        if (found) {
+            rank = 1;
+            for (WordPlacement move : moves) {
+                if (move.getEquity() > playedEquity) {
+                    rank++;
+                }
+            }
+        }
+        double bestEquity = best != null ? best.getEquity() : 0.0;
+        double equityLoss = found ? bestEquity - playedEquity : Double.NaN;
+        return new Analysis(position, best, played, moves.size(), rank, equityLoss, System.nanoTime() - start);
+    }
+
+    /**
+     * 走法的标识：每个放置格子的位置、字母以及是否为空白牌
+     */
+    private static String key(WordPlacement move) {
+        List<String> cells = new ArrayList<>();
+        for (PlaceTile.TilePlacement placement : move.getPlacements()) {
+            int index = move.isHorizontal() ? placement.getCol() - move.getCol() : placement.getRow() - move.getRow();
+            char letter = index >= 0 && index < move.getWord().length() ? move.getWord().charAt(index) : '\0';
+            cells.add(cell(placement.getRow(), placement.getCol(), letter, placement.getTile().isBlank()));
+        }
+        Collections.sort(cells);
+        return String.join(";", cells);
+    }
+
+    private static String key(List<PlaceTile.TilePlacement> placements) {
+        List<String> cells = new ArrayList<>();
+        for (PlaceTile.TilePlacement placement : placements) {
+            Tile tile = placement.getTile();
+            cells.add(cell(placement.getRow(), placement.getCol(), tile.getLetter(), tile.isBlank()));
+        }
+        Collections.sort(cells);
+        return String.join(";", cells);
+    }
+
+    private static String cell(int row, int col, char letter, boolean blank) {
+        return row + "," + col + "," + Character.toUpperCase(letter) + (blank ? "?" : "");
+    }
+
+    /**
+     * 从对局日志中还原局面
+     *
+     * @param input 日志文件，或包含 .json 日志文件的目录
+     * @return 按日志顺序排列的局面
+     * @throws IOException 如果文件无法读取或不是对局日志
+     */
+    public static List<Position> readLogs(File input) throws IOException {
+        List<Position> positions = new ArrayList<>();
+        GameLogReader.readFiles(input, (source, events) -> positions.addAll(readEvents(source, events)));
+        return positions;
+    }
+
+    /**
+     * 从一局游戏的事件中还原局面
+     *
+     * @param source 对局名称，用于标识局面
+     * @param events 按时间顺序排列的日志事件，不是对象的元素会被忽略
+     * @return 按回合顺序排列的局面
+     */
+    public static List<Position> readEvents(String source, List<?> events) {
+        Board emptyBoard = new Board();
+        emptyBoard.initBoard();
+        SimulationBoard board = SimulationBoard.of(new DefaultBoardOperator(emptyBoard));
+        Map<String, TurnState> players = new HashMap<>();
+        List<Position> positions = new ArrayList<>();
+        int[] turn = {0};
+
+        GameLogReader.forEachEvent(events, (type, player, data) -> {
+            TurnState state = players.get(player);
+
+            if ("RACK".equals(type) && "TURN_START".equals(data.get("event"))) {
+                if (state != null) {
+                    state.finish(positions);
+                }
+                state = new TurnState(source, ++turn[0], player, board.copy(), readTiles(data.get("tiles")));
+                players.put(player, state);
+            } else if (state == null || state.finished) {
+                return;
+            } else if ("TILE_PLACEMENT".equals(type)) {
+                Tile tile = GameLogReader.readTile(data);
+                Integer row = GameLogReader.integer(data.get("row"));
+                Integer col = GameLogReader.integer(data.get("col"));
+                if (tile != null && row != null && col != null) {
+                    state.pending.add(new PlaceTile.TilePlacement(tile, row, col, -1));
+                }
+            } else if ("TILE_MOVEMENT".equals(type)) {
+                state.move(GameLogReader.integer(data.get("fromRow")), GameLogReader.integer(data.get("fromCol")),
+                        GameLogReader.integer(data.get("toRow")), GameLogReader.integer(data.get("toCol")));
+            } else if ("TILE_RETURN".equals(type)) {
+                state.remove(GameLogReader.integer(data.get("row")), GameLogReader.integer(data.get("col")));
+            } else if ("PLACEMENT_CANCEL".equals(type)) {
+                state.pending.clear();
+            } else if ("BLANK_TILE_ASSIGN".equals(type)) {
+                state.assignBlank(data.get("letter"));
+            } else if ("PLACEMENT_CONFIRM".equals(type) && !state.pending.isEmpty()) {
+                Integer score = GameLogReader.integer(data.get("score"));
+                state.played = new ArrayList<>(state.pending);
+                state.playedScore = score != null ? score : 0;
+                for (PlaceTile.TilePlacement placement : state.played) {
+                    board.placeTileOnBoard(placement.getTile(), placement.getRow(), placement.getCol());
+                }
+                state.finish(positions);
+            }
+        });
+        for (TurnState state : players.values()) {
+            state.finish(positions);
+        }
+        positions.sort((a, b) -> Integer.compare(a.getTurn(), b.getTurn()));
+        return positions;
+    }
+
+    private static List<Tile> readTiles(Object tiles) {
+        List<Tile> rack = new ArrayList<>();
+        if (tiles instanceof List) {
+            for (Object tile : (List<?>) tiles) {
+                if (tile instanceof Map) {
+                    Tile parsed = GameLogReader.readTile((Map<?, ?>) tile);
+                    if (parsed != null) {
+                        // 字母架上的空白牌在搜索中是万能牌，不保留日志中指定的字母
+                        rack.add(parsed.isBlank() ? new Tile() : parsed);
+                    }
+                }
+            }
+        }
+        return rack;
+    }
+
+
+    /**
+     * 还原日志时一个玩家当前回合的状态
+     */
+    private static final class TurnState {
+        final String source;
+        final int turn;
+        final String player;
+        final SimulationBoard board;
+        final List<Tile> rack;
+        /** 本回合放到棋盘上还没有确认的字母牌 */
+        final List<PlaceTile.TilePlacement> pending = new ArrayList<>();
+        List<PlaceTile.TilePlacement> played;
+        int playedScore;
+        boolean finished;
+
+        TurnState(String source, int turn, String player, SimulationBoard board, List<Tile> rack) {
+            this.source = source;
+            this.turn = turn;
+            this.player = player;
+            this.board = board;
+            this.rack = rack;
+        }
+
+        void move(Integer fromRow, Integer fromCol, Integer toRow, Integer toCol) {
+            if (fromRow == null || fromCol == null || toRow == null || toCol == null) {
+                return;
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                PlaceTile.TilePlacement placement = pending.get(i);
+                if (placement.getRow() == fromRow && placement.getCol() == fromCol) {
+                    pending.set(i, new PlaceTile.TilePlacement(placement.getTile(), toRow, toCol, -1));
+                    return;
+                }
+            }
+        }
+
+        void remove(Integer row, Integer col) {
+            if (row != null && col != null) {
+                pending.removeIf(placement -> placement.getRow() == row && placement.getCol() == col);
+            }
+        }
+
+        /**
+         * 空白牌放到棋盘上之后才指定字母时，把字母指定给最近一张还没有字母的空白牌
+         */
+        void assignBlank(Object letter) {
+            if (!(letter instanceof String) || ((String) letter).length() != 1) {
+                return;
+            }
+            for (int i = pending.size() - 1; i >= 0; i--) {
+                Tile tile = pending.get(i).getTile();
+                if (tile.isBlank() && !Character.isLetter(tile.getLetter())) {
+                    tile.setBlankLetter(Character.toUpperCase(((String) letter).charAt(0)), 0);
+                    return;
+                }
+            }
+        }
+
+        void finish(List<Position> positions) {
+            if (!finished) {
+                finished = true;
+                positions.add(new Position(source + "#" + turn + " " + player, turn, board, rack, played,
+                        playedScore));
+            }
+        }
+    }
+
+    /**
+     * 一个待分析的局面
+     */
+    public static class Position {
+        private final String label;
+        private final int turn;
+        private final SimulationBoard board;
+        private final List<Tile> rack;
+        private final List<PlaceTile.TilePlacement> played;
+        private final int playedScore;
+
+        /**
+         * 创建局面
+         *
+         * @param label 局面名称
+         * @param turn 回合序号
+         * @param board 回合开始时的棋盘
+         * @param rack 回合开始时的字母架
+         * @param played 实际的放置，没有放置（跳过或交换）时为null
+         * @param playedScore 实际得分
+         */
+        public Position(String label, int turn, SimulationBoard board, List<Tile> rack,
+                        List<PlaceTile.TilePlacement> played, int playedScore) {
+            this.label = label;
+            this.turn = turn;
+            this.board = board;
+            this.rack = Collections.unmodifiableList(new ArrayList<>(rack));
+            this.played = played != null ? Collections.unmodifiableList(new ArrayList<>(played)) : null;
+            this.playedScore = playedScore;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getTurn() {
+            return turn;
+        }
+
+        public SimulationBoard getBoard() {
+            return board;
+        }
+
+        public List<Tile> getRack() {
+            return rack;
+        }
+
+        /**
+         * @return 实际的放置，没有放置时为null
+         */
+        public List<PlaceTile.TilePlacement> getPlayed() {
+            return played;
+        }
+
+        public int getPlayedScore() {
+            return playedScore;
+        }
+    }
+
+    /**
+     * 一个局面的分析结果
+     */
+    public static class Analysis {
+        private final Position position;
+        private final WordPlacement best;
+        private final WordPlacement played;
+        private final int moveCount;
+        private final int playedRank;
+        private final double equityLoss;
+        private final long nanos;
+
+        public Analysis(Position position, WordPlacement best, WordPlacement played, int moveCount, int playedRank,
+                        double equityLoss, long nanos) {
+            this.position = position;
+            this.best = best;
+            this.played = played;
+            this.moveCount = moveCount;
+            this.playedRank = playedRank;
+            this.equityLoss = equityLoss;
+            this.nanos = nanos;
+        }
+
+        public Position getPosition() {
+            return position;
+        }
+
+        /**
+         * @return 权益最高的走法，没有合法走法时为null
+         */
+        public WordPlacement getBest() {
+            return best;
+        }
+
+        /**
+         * @return 最好走法的得分，没有合法走法时为0
+         */
+        public int getBestScore() {
+            return best != null ? best.getScore() : 0;
+        }
+
+        /**
+         * @return 生成的走法中与实际放置相同的走法，没有放置或没有找到时为null
+         */
+        public WordPlacement getPlayed() {
+            return played;
+        }
+
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        /**
+         * @return 实际走法按权益的名次（从1开始），实际放置不在生成的走法中时为-1
+         */
+        public int getPlayedRank() {
+            return playedRank;
+        }
+
+        /**
+         * @return 最好走法与实际走法的权益之差，实际放置不在生成的走法中时为NaN
+         */
+        public double getEquityLoss() {
+            return equityLoss;
+        }
+
+        public double getMillis() {
+            return nanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            String playedText = position.getPlayed() == null ? "跳过或交换"
+                    : played != null ? played.getWord() + " " + played.getScore() + "分" : "未找到实际走法";
+            return String.format("%s: 最好 %s，实际 %s，名次 %d/%d，权益损失 %.1f，用时 %.1f ms",
+                    position.getLabel(), best != null ? best.getWord() + " " + best.getScore() + "分" : "无",
+                    playedText, playedRank, moveCount, equityLoss, getMillis());
+        }
+    }
+
+    /**
+     * 一批局面的分析结果
+     */
+    public static class BatchResult {
+        private final List<Analysis> analyses;
+        private final long nanos;
+        private final int parallelism;
+
+        public BatchResult(List<Analysis> analyses, long nanos, int parallelism) {
+            this.analyses = Collections.unmodifiableList(analyses);
+            this.nanos = nanos;
+            this.parallelism = parallelism;
+        }
+
+        /**
+         * @return 按局面顺序排列的分析结果
+         */
+        public List<Analysis> getAnalyses() {
+            return analyses;
+        }
+
+        public double getElapsedMillis() {
+            return nanos / 1e6;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * @return 每秒分析的局面数
+         */
+        public double getPositionsPerSecond() {
+            return nanos == 0 ? 0.0 : analyses.size() * 1e9 / nanos;
+        }
+
+        /**
+         * @return 能确定名次的局面的平均权益损失
+         */
+        public double getAverageEquityLoss() {
+            double total = 0;
+            int counted = 0;
+            for (Analysis analysis : analyses) {
+                if (!Double.isNaN(analysis.getEquityLoss())) {
+                    total += analysis.getEquityLoss();
+                    counted++;
+                }
+            }
+            return counted == 0 ? 0.0 : total / counted;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("分析了 %d 个局面，用时 %.0f ms，%d 个线程，%.1f 局面/秒，平均权益损失 %.2f",
+                    analyses.size(), getElapsedMillis(), parallelism, getPositionsPerSecond(),
+                    getAverageEquityLoss());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package scrabble.AIPlayer;
+
+import java.util.Arrays;
+
+/**
+ * 选择分数位于指定分位的放置方案的选择器
+ * 得分是范围有限的非负整数，因此按分数记录方案数量的直方图就是精确的分位数摘要：
+ * 每个分数只保留第一个接收到的方案作为代表，结束时按直方图找到分位所在的分数并返回它的代表。
+ * 占用的内存只与出现过的最高分有关，与方案数量无关。
+ *
+ * 分位为0.5时选中的分数与把所有方案按分数排序后取第 n/2 个相同。
+ */
+public class QuantileMoveSelector implements MoveSelector {
+    /** 直方图的初始容量，通常的得分都在这个范围内 */
+    private static final int INITIAL_CAPACITY = 128;
+
+    private final double quantile;
+    /** 每个分数的方案数量 */
+    private long[] counts = new long[INITIAL_CAPACITY];
+    /** 每个分数第一个接收到的方案 */
+    private WordPlacement[] representatives = new WordPlacement[INITIAL_CAPACITY];
+    private long count;
+
+    /**
+     * 创建选择器
+     *
+     * @param quantile 分位，范围0到1，0为最低分，1为最高分
+     */
+    public QuantileMoveSelector(double quantile) {
+        if (!(quantile >= 0.0 && quantile <= 1.0)) {
+            throw new IllegalArgumentException("分位必须在0到1之间: " + quantile);
+        }
+        this.quantile = quantile;
+    }
+
+    @Override
+    public void accept(WordPlacement placement) {
+        int score = Math.max(0, placement.getScore());
+        ensureCapacity(score + 1);
+        if (counts[score]++ == 0) {
+            representatives[score] = placement;
+        }
+        count++;
+    }
+
+    @Override
+    public WordPlacement select() {
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.min(count - 1, (long) (count * quantile));
+        long seen = 0;
+        for (int score = 0; score < counts.length; score++) {
+            seen += counts[score];
+            if (seen > rank) {
+                return representatives[score];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public MoveSelector newEmpty() {
+        return new QuantileMoveSelector(quantile);
+    }
+
+    @Override
+    public void merge(MoveSelector later) {
+        if (!(later instanceof QuantileMoveSelector)) {
+            throw new IllegalArgumentException("无法合并不同类型的选择器");
+        }
+        QuantileMoveSelector other = (QuantileMoveSelector) later;
+        if (other.quantile != quantile) {
+            throw new IllegalArgumentException("无法合并配置不同的选择器");
+        }
+        ensureCapacity(other.counts.length);
+        for (int score = 0; score < other.counts.length; score++) {
+            if (other.counts[score] == 0) {
+                continue;
+            }
+            if (counts[score] == 0) {
+                representatives[score] = other.representatives[score];
+            }
+            counts[score] += other.counts[score];
+        }
+        count += other.count;
+    }
+
+    /**
+     * 获取分位
+     *
+     * @return 分位
+     */
+    public double getQuantile() {
+        return quantile;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > counts.length) {
+            int newLength = Math.max(capacity, counts.length * 2);
+            counts = Arrays.copyOf(counts, newLength);
+            representatives = Arrays.copyOf(representatives, newLength);
+        }
+    }
+}
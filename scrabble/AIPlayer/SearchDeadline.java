@@ -0,0 +1,191 @@
+package scrabble.AIPlayer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI搜索的截止时间
+ * 走法生成器在每一步（一行、一列或一个锚点）开始前检查截止时间，时间用完后不再开始新的步骤，
+ * 已生成的走法仍然交给接收者，因此AI总能在截止时间附近拿到目前为止最好的走法。
+ *
+ * 每个难度有一个搜索预算，默认为：NOVICE 1秒，NORMAL 3秒，MASTER 6秒，EXPERT 8秒，
+ * 都小于界面上10秒的AI超时监控；可以通过系统属性 scrabble.ai.budget.&lt;难度&gt;（毫秒，
+ * 如 scrabble.ai.budget.master=8000）修改。有回合时间限制时，预算不超过回合剩余时间减去一个安全余量。
+ *
+ * 截止时间可以被取消（如游戏暂停、取消托管或游戏结束时），取消后立即视为到期，
+ * 由它派生的截止时间也一起到期，正在进行的搜索在下一步开始前停止。
+ */
+public final class SearchDeadline {
+    /** 搜索预算系统属性的前缀，后接小写的难度名称 */
+    public static final String BUDGET_PROPERTY_PREFIX = "scrabble.ai.budget.";
+    /** 回合剩余时间中为放置字母牌和界面更新保留的时间（毫秒） */
+    public static final long TURN_SAFETY_MARGIN_MILLIS = 1000;
+    /** 回合即将结束时仍给搜索保留的最短时间（毫秒） */
+    public static final long MIN_BUDGET_MILLIS = 100;
+
+    private static final SearchDeadline NONE = new SearchDeadline(System.nanoTime(), Long.MAX_VALUE);
+
+    private final long startNanos;
+    /** 预算（毫秒），Long.MAX_VALUE表示没有限制 */
+    private final long budgetMillis;
+    /** 派生出本截止时间的截止时间，到期或取消时本截止时间也到期 */
+    private final SearchDeadline parent;
+    private volatile boolean cancelled;
+
+    private SearchDeadline(long startNanos, long budgetMillis) {
+        this(startNanos, budgetMillis, null);
+    }
+
+    private SearchDeadline(long startNanos, long budgetMillis, SearchDeadline parent) {
+        this.startNanos = startNanos;
+        this.budgetMillis = budgetMillis;
+        this.parent = parent;
+    }
+
+    /**
+     * 获取没有时间限制的截止时间
+     *
+     * @return 永不到期的截止时间
+     */
+    public static SearchDeadline none() {
+        return NONE;
+    }
+
+    /**
+     * 创建没有时间限制、但可以取消的截止时间
+     * 安排AI回合时先创建它作为回合的取消标记，回合开始后再用limit()派生出有预算的截止时间，
+     * 这样回合在开始执行之前被取消也不会漏掉
+     *
+     * @return 截止时间
+     */
+    public static SearchDeadline unlimited() {
+        return new SearchDeadline(System.nanoTime(), Long.MAX_VALUE);
+    }
+
+    /**
+     * 创建从现在开始、经过指定时间后到期的截止时间
+     *
+     * @param budgetMillis 预算（毫秒），小于0时按0处理
+     * @return 截止时间
+     */
+    public static SearchDeadline after(long budgetMillis) {
+        return new SearchDeadline(System.nanoTime(), Math.max(0, budgetMillis));
+    }
+
+    /**
+     * 为一个AI回合创建截止时间
+     * 取难度的搜索预算；回合有时间限制时，再以回合剩余时间减去安全余量为上限
+     *
+     * @param difficulty AI难度
+     * @param turnTimeLimit 回合时间限制（秒），0或负数表示没有限制
+     * @param remainingTurnTime 回合剩余时间（秒）
+     * @return 截止时间
+     */
+    public static SearchDeadline forTurn(AIPlayer.Difficulty difficulty, int turnTimeLimit, int remainingTurnTime) {
+        long budget = getBudgetMillis(difficulty);
+        if (turnTimeLimit > 0) {
+            long turnBudget = TimeUnit.SECONDS.toMillis(Math.min(turnTimeLimit, remainingTurnTime))
+                    - TURN_SAFETY_MARGIN_MILLIS;
+            budget = Math.min(budget, Math.max(MIN_BUDGET_MILLIS, turnBudget));
+        }
+        return after(budget);
+    }
+
+    /**
+     * 获取难度的搜索预算
+     *
+     * @param difficulty AI难度
+     * @return 预算（毫秒）
+     */
+    public static long getBudgetMillis(AIPlayer.Difficulty difficulty) {
+        Long configured = Long.getLong(BUDGET_PROPERTY_PREFIX + difficulty.name().toLowerCase());
+        if (configured != null) {
+            return Math.max(0, configured);
+        }
+        switch (difficulty) {
+            case NOVICE:
+                return 1000;
+            case NORMAL:
+                return 3000;
+            case EXPERT:
+                return 8000;
+            case MASTER:
+            default:
+                return 6000;
+        }
+    }
+
+    /**
+     * 从本截止时间派生一个更短的截止时间，例如只把一部分时间用于生成走法
+     * 派生的截止时间在自己的预算用完、或本截止时间到期或被取消时到期
+     *
+     * @param budgetMillis 从现在开始的预算（毫秒）
+     * @return 派生的截止时间
+     */
+    public SearchDeadline limit(long budgetMillis) {
+        return new SearchDeadline(System.nanoTime(), Math.max(0, budgetMillis), this);
+    }
+
+    /**
+     * 取消截止时间，之后立即视为到期
+     * 没有时间限制的共享截止时间none()不能被取消
+     */
+    public void cancel() {
+        if (this != NONE) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * 检查截止时间或派生出它的截止时间是否被取消
+     *
+     * @return 已取消时返回true
+     */
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * 检查截止时间是否已到
+     *
+     * @return 已到期或已取消时返回true
+     */
+    public boolean isExpired() {
+        if (cancelled || (parent != null && parent.isExpired())) {
+            return true;
+        }
+        return budgetMillis != Long.MAX_VALUE && getElapsedMillis() >= budgetMillis;
+    }
+
+    /**
+     * 获取剩余时间
+     *
+     * @return 剩余时间（毫秒），没有限制时返回Long.MAX_VALUE，已取消时返回0
+     */
+    public long getRemainingMillis() {
+        if (isCancelled()) {
+            return 0;
+        }
+        long remaining = budgetMillis == Long.MAX_VALUE
+                ? Long.MAX_VALUE
+                : Math.max(0, budgetMillis - getElapsedMillis());
+        return parent != null ? Math.min(remaining, parent.getRemainingMillis()) : remaining;
+    }
+
+    /**
+     * 获取从创建截止时间起经过的时间
+     *
+     * @return 经过的时间（毫秒）
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 获取预算
+     *
+     * @return 预算（毫秒），没有限制时返回Long.MAX_VALUE
+     */
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+}
@@ -0,0 +1,112 @@
+package scrabble.AIPlayer;
+
+/**
+ * 一次AI搜索的进度报告
+ * 记录搜索完成了多少步（锚点生成器按行列计，穷举生成器按锚点和方向计）、用时、预算以及是否因为超时提前结束，
+ * 用于调整各难度的搜索预算。搜索前等待索引（如GADDAG）构建的时间也占用预算，单独记录。
+ */
+public class SearchReport {
+    private final int completedSteps;
+    private final int totalSteps;
+    private final long movesFound;
+    private final long elapsedMillis;
+    private final long budgetMillis;
+    private final long setupMillis;
+
+    /**
+     * 创建搜索报告
+     *
+     * @param completedSteps 完成的步数
+     * @param totalSteps 总步数
+     * @param movesFound 找到的走法数量
+     * @param elapsedMillis 用时（毫秒）
+     * @param budgetMillis 预算（毫秒），Long.MAX_VALUE表示没有限制
+     */
+    public SearchReport(int completedSteps, int totalSteps, long movesFound, long elapsedMillis, long budgetMillis) {
+        this(completedSteps, totalSteps, movesFound, elapsedMillis, budgetMillis, 0);
+    }
+
+    /**
+     * 创建搜索报告
+     *
+     * @param completedSteps 完成的步数
+     * @param totalSteps 总步数
+     * @param movesFound 找到的走法数量
+     * @param elapsedMillis 用时（毫秒）
+     * @param budgetMillis 预算（毫秒），Long.MAX_VALUE表示没有限制
+     * @param setupMillis 搜索前等待索引构建的时间（毫秒）
+     */
+    public SearchReport(int completedSteps, int totalSteps, long movesFound, long elapsedMillis, long budgetMillis,
+                        long setupMillis) {
+        this.completedSteps = completedSteps;
+        this.totalSteps = totalSteps;
+        this.movesFound = movesFound;
+        this.elapsedMillis = elapsedMillis;
+        this.budgetMillis = budgetMillis;
+        this.setupMillis = setupMillis;
+    }
+
+    /**
+     * 记录搜索前等待索引构建的时间
+     *
+     * @param setupMillis 等待时间（毫秒）
+     * @return 带有等待时间的新报告
+     */
+    public SearchReport withSetupMillis(long setupMillis) {
+        return new SearchReport(completedSteps, totalSteps, movesFound, elapsedMillis, budgetMillis, setupMillis);
+    }
+
+    public int getCompletedSteps() {
+        return completedSteps;
+    }
+
+    public int getTotalSteps() {
+        return totalSteps;
+    }
+
+    public long getMovesFound() {
+        return movesFound;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * @return 搜索前等待索引构建的时间（毫秒），已计入截止时间
+     */
+    public long getSetupMillis() {
+        return setupMillis;
+    }
+
+    /**
+     * 搜索是否完整，即所有步骤都在截止时间前完成
+     *
+     * @return 完整时返回true
+     */
+    public boolean isComplete() {
+        return completedSteps >= totalSteps;
+    }
+
+    /**
+     * 获取完成比例
+     *
+     * @return 0到1之间的比例，没有步骤时为1
+     */
+    public double getCompletion() {
+        return totalSteps == 0 ? 1.0 : (double) completedSteps / totalSteps;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("搜索%s：完成 %d/%d 步，找到 %d 个走法，用时 %d ms（预算 %s）%s",
+                isComplete() ? "完成" : "超时",
+                completedSteps, totalSteps, movesFound, elapsedMillis,
+                budgetMillis == Long.MAX_VALUE ? "无限制" : budgetMillis + " ms",
+                setupMillis > 0 ? "，搜索前等待索引 " + setupMillis + " ms" : "");
+    }
+}
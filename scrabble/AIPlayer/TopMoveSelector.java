@@ -0,0 +1,141 @@
+package scrabble.AIPlayer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 保留权益最高（或最低）的K个放置方案的选择器
+ * 权益为得分加剩余字母价值，生成器没有使用剩余字母价值表时就是得分。
+ * 使用容量为K的堆，堆顶是已保留方案中最差的一个，新方案只有比它好时才替换它。
+ * 权益相同时的取舍与按权益稳定排序后取两端相同：取最高时后生成的方案优先，取最低时先生成的方案优先。
+ */
+public class TopMoveSelector implements MoveSelector {
+    private final int limit;
+    private final boolean highest;
+    /** 从好到差的顺序 */
+    private final Comparator<Entry> preference;
+    /** 堆顶为最差的已保留方案 */
+    private final PriorityQueue<Entry> heap;
+    private long count;
+
+    /**
+     * 保留的方案及其接收顺序
+     */
+    private static final class Entry {
+        final WordPlacement placement;
+        final long sequence;
+
+        Entry(WordPlacement placement, long sequence) {
+            this.placement = placement;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * 创建选择器
+     *
+     * @param limit 保留的方案数量，至少为1
+     * @param highest 为true时保留权益最高的方案，为false时保留权益最低的方案
+     */
+    public TopMoveSelector(int limit, boolean highest) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("保留数量必须至少为1: " + limit);
+        }
+        this.limit = limit;
+        this.highest = highest;
+        Comparator<Entry> byScore = Comparator.comparingDouble(e -> e.placement.getEquity());
+        Comparator<Entry> bySequence = Comparator.comparingLong(e -> e.sequence);
+        this.preference = highest
+                ? byScore.reversed().thenComparing(bySequence.reversed())
+                : byScore.thenComparing(bySequence);
+        this.heap = new PriorityQueue<>(limit, preference.reversed());
+    }
+
+    @Override
+    public void accept(WordPlacement placement) {
+        offer(new Entry(placement, count++));
+    }
+
+    private void offer(Entry entry) {
+        if (heap.size() < limit) {
+            heap.add(entry);
+        } else if (preference.compare(entry, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    @Override
+    public WordPlacement select() {
+        WordPlacement best = null;
+        Entry bestEntry = null;
+        for (Entry entry : heap) {
+            if (bestEntry == null || preference.compare(entry, bestEntry) < 0) {
+                bestEntry = entry;
+                best = entry.placement;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 获取保留的方案，从好到差排列
+     *
+     * @return 保留的方案列表
+     */
+    public List<WordPlacement> getMoves() {
+        List<Entry> entries = new ArrayList<>(heap);
+        entries.sort(preference);
+        List<WordPlacement> moves = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            moves.add(entry.placement);
+        }
+        return moves;
+    }
+
+    @Override
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public MoveSelector newEmpty() {
+        return new TopMoveSelector(limit, highest);
+    }
+
+    @Override
+    public void merge(MoveSelector later) {
+        if (!(later instanceof TopMoveSelector)) {
+            throw new IllegalArgumentException("无法合并不同类型的选择器");
+        }
+        TopMoveSelector other = (TopMoveSelector) later;
+        if (other.limit != limit || other.highest != highest) {
+            throw new IllegalArgumentException("无法合并配置不同的选择器");
+        }
+        // 另一个选择器的方案排在本选择器之后
+        for (Entry entry : other.heap) {
+            offer(new Entry(entry.placement, count + entry.sequence));
+        }
+        count += other.count;
+    }
+
+    /**
+     * 获取保留的方案数量上限
+     *
+     * @return 数量上限
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 是否保留权益最高的方案
+     *
+     * @return 保留权益最高的方案时返回true
+     */
+    public boolean isHighest() {
+        return highest;
+    }
+}
@@ -0,0 +1,83 @@
+package scrabble.AIPlayer;
+
+import scrabble.Placement.PlaceTile;
+
+import java.util.List;
+
+/**
+ * 表示一个可能的单词放置方案
+ * 由走法生成器产生，包含主单词、起始位置、方向、得分以及需要放置的字母牌，
+ * 生成器使用剩余字母价值表时还包含放置后留在字母架上的字母的价值
+ */
+public class WordPlacement {
+    private final String word;
+    private final int row;
+    private final int col;
+    private final boolean isHorizontal;
+    private final int score;
+    private final List<PlaceTile.TilePlacement> placements;
+    private final float leaveValue;
+
+    public WordPlacement(String word, int row, int col, boolean isHorizontal, int score, List<PlaceTile.TilePlacement> placements) {
+        this(word, row, col, isHorizontal, score, placements, 0f);
+    }
+
+    public WordPlacement(String word, int row, int col, boolean isHorizontal, int score,
+                         List<PlaceTile.TilePlacement> placements, float leaveValue) {
+        this.word = word;
+        this.row = row;
+        this.col = col;
+        this.isHorizontal = isHorizontal;
+        this.score = score;
+        this.placements = placements;
+        this.leaveValue = leaveValue;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public boolean isHorizontal() {
+        return isHorizontal;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public List<PlaceTile.TilePlacement> getPlacements() {
+        return placements;
+    }
+
+    /**
+     * 获取放置后剩余字母的价值
+     *
+     * @return 剩余字母价值，生成器没有使用剩余字母价值表时为0
+     */
+    public float getLeaveValue() {
+        return leaveValue;
+    }
+
+    /**
+     * 获取权益，即得分加剩余字母价值
+     *
+     * @return 权益
+     */
+    public double getEquity() {
+        return score + leaveValue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("单词：'%s'，位置：(%d,%d)，方向：%s，分数：%d",
+                word, row, col, isHorizontal ? "水平" : "垂直", score);
+    }
+}
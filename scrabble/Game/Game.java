@@ -10,22 +10,30 @@ import scrabble.Placement.TileRackOperator;
 import scrabble.Score.ScoreCalculator;
 import scrabble.Tile.Tile;
 import scrabble.Tile.TileManager;
+import scrabble.Validator.CrossCheckTable;
 import scrabble.Validator.Dictionary;
+import scrabble.Validator.LexiconRegistry;
 import scrabble.Validator.PositionValidator;
 import scrabble.Validator.WordFormer;
 import scrabble.Validator.WordValidator;
 import scrabble.Logging.GameLogger;
 import scrabble.Logging.GameLoggerFactory;
 import scrabble.Validator.DefaultPositionValidator;
+import scrabble.Lexicon.Gaddag;
+import scrabble.Lexicon.LexiconSnapshot;
 import scrabble.Validator.DefaultWordValidator;
 import scrabble.AIPlayer.AIPlayerFactory;
 import scrabble.AIPlayer.AIPlayer;
+import scrabble.AIPlayer.ExchangePlanner;
+import scrabble.AIPlayer.HintService;
+import scrabble.AIPlayer.LeaveTable;
 
 import java.io.*;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -36,6 +44,8 @@ import java.util.concurrent.TimeUnit;
  */
 public class Game implements Serializable {
     private static final long serialVersionUID = 1L;
+    /** AI回合开始前的延迟（毫秒），使游戏更自然 */
+    public static final long AI_TURN_DELAY_MILLIS = 1000;
 
     /** 游戏棋盘 */
     private final Board board;
@@ -53,12 +63,14 @@ public class Game implements Serializable {
     private transient TileRackOperator tileRackOperator;
     /** 字母放置器 */
     private transient PlaceTile placeTile;
-    /** 词典 */
+    /** 词典，由LexiconRegistry在多个游戏间共享 */
     private transient Dictionary dictionary;
     /** 单词验证器 */
     private transient WordValidator wordValidator;
     /** 位置验证器 */
     private transient PositionValidator positionValidator;
+    /** 棋盘每个空格子的交叉检查集合 */
+    private transient CrossCheckTable crossCheckTable;
     /** 游戏是否结束 */
     private boolean isGameOver;
     /** 游戏配置 */
@@ -93,6 +105,14 @@ public class Game implements Serializable {
     private transient AIPlayerFactory aiPlayerFactory;
     /** 存储跳过回合后需要保持字母架不变的玩家ID */
     private transient Set<Integer> keepRackPlayers = new HashSet<>();
+    /** 是否已释放对共享词典的引用 */
+    private transient boolean dictionaryReleased;
+    /** 交换字母牌的规划器，游戏开始时在后台线程上按字母分布创建 */
+    private transient CompletableFuture<ExchangePlanner> exchangePlanner;
+    /** 在后台预先构建的GADDAG，为null时还没有开始构建 */
+    private transient CompletableFuture<Gaddag> gaddag;
+    /** 提示服务，第一次使用时创建 */
+    private transient HintService hintService;
 
     /**
      * 游戏状态枚举
@@ -119,7 +139,7 @@ public class Game implements Serializable {
      * 创建一个新的Scrabble游戏实例
      * @param players 参与游戏的玩家列表
      * @param config 游戏配置
-     * @param dictionaryPath 词典文件路径
+     * @param dictionaryPath 词典文件路径，为null时使用配置的词典语言对应的语言包词表
      * @throws IOException 如果词典加载失败
      */
     public Game(List<Player> players, GameConfig config, String dictionaryPath) throws IOException {
@@ -135,9 +155,12 @@ public class Game implements Serializable {
         // 使用游戏ID初始化日志记录器
         this.logger = GameLoggerFactory.getLoggerForGame(this.gameId);
 
+        // 根据配置的词典语言选择语言包，决定词表和字母分布
+        LanguagePack languagePack = LanguagePack.forLanguage(config.getDictionaryLanguage());
+
         // 初始化游戏组件
         this.board = new Board();
-        this.tileManager = new TileManager();
+        this.tileManager = languagePack.createTileManager();
         this.boardOperator = new DefaultBoardOperator(board);
         this.tileRackOperator = new DefaultTileRackOperator(tileManager);
         this.placeTile = new PlaceTile(boardOperator, tileRackOperator, this.logger);
@@ -146,8 +169,13 @@ public class Game implements Serializable {
         this.isGameOver = false;
 
         // 初始化词典和验证器
-        this.dictionary = new Dictionary();
+        if (dictionaryPath == null) {
+            dictionaryPath = languagePack.getDictionaryPath();
+        }
+        this.dictionary = LexiconRegistry.acquire(dictionaryPath, gameId);
         this.wordValidator = new DefaultWordValidator(dictionary);
+        this.crossCheckTable = new CrossCheckTable(boardOperator, wordValidator);
+        this.placeTile.setCrossCheckTable(crossCheckTable);
 
         // 初始化计时器
         this.timerService = Executors.newSingleThreadScheduledExecutor();
@@ -190,6 +218,12 @@ public class Game implements Serializable {
         // 启动游戏总时间计时器
         startGameTimer();
 
+        // 剩余字母价值表较大，提前在后台准备交换规划器
+        prepareExchangePlanner();
+
+        // GADDAG第一次使用时要构建好几秒，提前在后台构建，不占用AI第一个回合的搜索时间
+        prepareGaddag();
+
         // 开始第一个玩家的回合
         currentPlayerIndex = 0; // 确保从第一个玩家开始
         currentTurn = new Turn(getCurrentPlayer());
@@ -289,25 +323,10 @@ public class Game implements Serializable {
             listener.onTurnChanged(currentPlayer, remainingTurnTime);
         }
 
-        // 如果当前玩家由AI托管，则自动执行AI回合
-        if (aiPlayerFactory.isAIControlled(getCurrentPlayer())) {
-            // 使用线程执行AI回合，避免UI卡顿
-            new Thread(() -> {
-                try {
-                    // 为AI回合添加一点延迟，使游戏更自然
-                    Thread.sleep(1000);
-                    
-                    // 获取AI玩家实例
-                    AIPlayer aiPlayer = aiPlayerFactory.getAIPlayer(getCurrentPlayer());
-                    // 处理可能新抽到的空白牌
-                    aiPlayer.processBlankTiles();
-                    
-                    // 执行AI回合
-                    aiPlayerFactory.playAITurnIfControlled(getCurrentPlayer());
-                } catch (InterruptedException e) {
-                    logger.error("AI回合执行被中断", e);
-                }
-            }).start();
+        // 如果当前玩家由AI托管，则在AI回合执行器中执行AI回合，避免UI卡顿
+        // 为AI回合添加一点延迟，使游戏更自然；暂停、取消托管或游戏结束时回合会被取消
+        if (aiPlayerFactory.isAIControlled(currentPlayer)) {
+            aiPlayerFactory.scheduleAITurn(currentPlayer, AI_TURN_DELAY_MILLIS);
         }
 
         // 启动回合计时器
@@ -373,6 +392,9 @@ public class Game implements Serializable {
         List<Tile> playerRack = tileManager.getPlayerRackList(currentPlayer);
         logger.logPlayerRack(currentPlayer, playerRack, "TURN_END");
 
+        // AI托管的玩家补牌后字母架不再变化，在其他玩家的回合里预先思考
+        aiPlayerFactory.startPonderingIfControlled(currentPlayer);
+
         // 添加到历史记录
         turnHistory.add(currentTurn);
 
@@ -411,6 +433,7 @@ public class Game implements Serializable {
             // 记录玩家字母架
             List<Tile> playerRack = tileManager.getPlayerRackList(currentPlayer);
             logger.logPlayerRack(currentPlayer, playerRack, "TURN_END");
+            aiPlayerFactory.startPonderingIfControlled(currentPlayer);
 
             // 添加到历史记录
             turnHistory.add(currentTurn);
@@ -496,6 +519,18 @@ public class Game implements Serializable {
             timerService.shutdown();
         }
 
+        // 取消正在进行的AI回合，停止AI玩家的预先思考
+        aiPlayerFactory.cancelAllAITurns();
+        aiPlayerFactory.stopAllPondering();
+        synchronized (this) {
+            if (hintService != null) {
+                hintService.shutdown();
+            }
+        }
+
+        // 游戏结束后不再需要共享词典
+        releaseDictionary();
+
         // 通知监听器游戏结束
         for (GameStateListener listener : gameStateListeners) {
             listener.onGameOver(winner);
@@ -503,6 +538,17 @@ public class Game implements Serializable {
         
     }
 
+    /**
+     * 释放对共享词典的引用，重复调用不会重复释放
+     * 游戏仍保留词典实例，已显示的界面可以继续验证单词
+     */
+    synchronized void releaseDictionary() {
+        if (!dictionaryReleased) {
+            dictionaryReleased = true;
+            LexiconRegistry.release(dictionary, gameId);
+        }
+    }
+
     /**
      * 确定游戏胜利者
      * @return 分数最高的玩家
@@ -555,6 +601,9 @@ public class Game implements Serializable {
             }
             System.out.println("=========================");
 
+            // 通知AI玩家作废预先思考中受影响的行列
+            aiPlayerFactory.notifyPlacementConfirmed(placements);
+
             // 为玩家补充字母牌
             tileManager.drawTilesForPlayer(currentPlayer);
             
@@ -714,6 +763,9 @@ public class Game implements Serializable {
             gameTimerTask.cancel(false);
         }
 
+        // 取消正在进行的AI回合，恢复时重新安排
+        aiPlayerFactory.cancelAllAITurns();
+
         logger.info("游戏已暂停");
 
         // 更新游戏状态
@@ -737,6 +789,12 @@ public class Game implements Serializable {
         // 重新启动计时器
         startGameTimer();
         startTurnTimer();
+
+        // 暂停时取消的AI回合重新开始
+        Player currentPlayer = getCurrentPlayer();
+        if (aiPlayerFactory.isAIControlled(currentPlayer)) {
+            aiPlayerFactory.scheduleAITurn(currentPlayer, AI_TURN_DELAY_MILLIS);
+        }
     }
 
     /**
@@ -778,7 +836,7 @@ public class Game implements Serializable {
     /**
      * 从文件加载游戏
      * @param filePath 文件路径
-     * @param dictionaryPath 词典路径
+     * @param dictionaryPath 词典路径，为null时使用存档中词典语言对应的语言包词表
      * @return 加载的游戏实例
      * @throws IOException 如果加载失败
      * @throws ClassNotFoundException 如果类找不到
@@ -797,6 +855,7 @@ public class Game implements Serializable {
                 // 自动重启游戏计时器和回合计时器
                 game.startGameTimer();
                 game.startTurnTimer();
+                game.prepareGaddag();
                 game.logger.info("游戏计时已自动恢复");
             }
 
@@ -806,7 +865,7 @@ public class Game implements Serializable {
 
     /**
      * 重新初始化transient字段
-     * @param dictionaryPath 词典路径
+     * @param dictionaryPath 词典路径，为null时使用语言包词表
      * @throws IOException 如果词典加载失败
      */
     private void reinitializeTransientFields(String dictionaryPath) throws IOException {
@@ -820,8 +879,14 @@ public class Game implements Serializable {
         this.positionValidator = new DefaultPositionValidator(boardOperator);
 
         // 重新初始化词典和验证器
-        this.dictionary = new Dictionary();
+        if (dictionaryPath == null) {
+            dictionaryPath = LanguagePack.forLanguage(config.getDictionaryLanguage()).getDictionaryPath();
+        }
+        this.dictionaryReleased = false;
+        this.dictionary = LexiconRegistry.acquire(dictionaryPath, gameId);
         this.wordValidator = new DefaultWordValidator(dictionary);
+        this.crossCheckTable = new CrossCheckTable(boardOperator, wordValidator);
+        this.placeTile.setCrossCheckTable(crossCheckTable);
 
         // 重新初始化计时器
         this.timerService = Executors.newSingleThreadScheduledExecutor();
@@ -981,6 +1046,50 @@ public class Game implements Serializable {
         return wordValidator;
     }
 
+    /**
+     * 获取本局游戏当前接受的全部单词的快照，包括本局添加的自定义单词
+     * 走法缓存、预先思考和提示用它判断之前的结果是否仍然有效
+     * @return 快照，没有词典时返回null
+     */
+    public LexiconSnapshot getLexiconSnapshot() {
+        if (wordValidator == null) {
+            return null;
+        }
+        LexiconSnapshot snapshot = wordValidator.getLexiconSnapshot();
+        return snapshot != null || dictionary == null ? snapshot : dictionary.snapshot();
+    }
+
+    /**
+     * 向本局游戏添加自定义单词，共享同一词典的其他游戏不受影响
+     * 添加后单词验证、交叉检查和AI走法生成都会接受这个单词
+     * @param word 要添加的单词
+     * @return 验证器不支持自定义单词时返回false
+     */
+    public boolean addCustomWord(String word) {
+        if (!(wordValidator instanceof DefaultWordValidator)) {
+            return false;
+        }
+        ((DefaultWordValidator) wordValidator).addCustomWord(word);
+        crossCheckTable.rebuild();
+        return true;
+    }
+
+    /**
+     * 获取交叉检查表
+     * @return 交叉检查表
+     */
+    public CrossCheckTable getCrossCheckTable() {
+        return crossCheckTable;
+    }
+
+    /**
+     * 获取词典
+     * @return 词典
+     */
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
     /**
      * 获取游戏日志记录器
      * @return 游戏日志记录器
@@ -1107,6 +1216,94 @@ public class Game implements Serializable {
         return aiPlayerFactory;
     }
 
+    /**
+     * 在后台线程上准备交换字母牌的规划器
+     * 规划器按本局的字母分布和默认的剩余字母价值表创建，AI玩家和交换建议共用；
+     * 默认的价值表第一次使用时要映射文件或计算一百多万个组合，不能在界面线程上进行
+     *
+     * @return 规划器准备好时完成
+     */
+    public synchronized CompletableFuture<ExchangePlanner> prepareExchangePlanner() {
+        if (exchangePlanner == null) {
+            CompletableFuture<ExchangePlanner> future = new CompletableFuture<>();
+            Map<Character, TileManager.TileInfo> distribution = tileManager.getTileDistribution();
+            Thread thread = new Thread(() -> {
+                try {
+                    future.complete(new ExchangePlanner(LeaveTable.getDefault(), distribution));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }, "exchange-planner-" + gameId);
+            thread.setDaemon(true);
+            thread.start();
+            exchangePlanner = future;
+        }
+        return exchangePlanner;
+    }
+
+    /**
+     * 在后台线程上构建词典的GADDAG
+     * 索引缓存在词典中，AI玩家、提示和模拟在第一次使用时直接取得，不必在回合的截止时间内构建
+     *
+     * @return 构建完成时完成，游戏没有词典时得到null
+     */
+    public synchronized CompletableFuture<Gaddag> prepareGaddag() {
+        if (gaddag == null) {
+            CompletableFuture<Gaddag> future = new CompletableFuture<>();
+            Dictionary target = dictionary;
+            if (target == null) {
+                future.complete(null);
+            } else {
+                Thread thread = new Thread(() -> {
+                    try {
+                        future.complete(target.getGaddag());
+                    } catch (RuntimeException e) {
+                        future.completeExceptionally(e);
+                    }
+                }, "gaddag-" + gameId);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            gaddag = future;
+        }
+        return gaddag;
+    }
+
+    /**
+     * 获取交换字母牌的规划器，还没有准备好时等待，不应在界面线程上调用
+     *
+     * @return 交换规划器
+     */
+    public ExchangePlanner getExchangePlanner() {
+        return prepareExchangePlanner().join();
+    }
+
+    /**
+     * 获取提示服务
+     * 人类玩家可以通过它在后台得到当前字母架得分最高的若干个走法
+     *
+     * @return 提示服务
+     */
+    public synchronized HintService getHintService() {
+        if (hintService == null) {
+            hintService = new HintService(this);
+        }
+        return hintService;
+    }
+
+    /**
+     * 为当前玩家建议要交换的字母牌，不会等待规划器准备
+     *
+     * @return 交换方案，游戏未运行或规划器还没有准备好时返回null
+     */
+    public ExchangePlanner.ExchangePlan suggestExchange() {
+        CompletableFuture<ExchangePlanner> planner = prepareExchangePlanner();
+        if (gameState != GameState.RUNNING || !planner.isDone() || planner.isCompletedExceptionally()) {
+            return null;
+        }
+        return planner.join().plan(tileManager.getPlayerRackList(getCurrentPlayer()));
+    }
+
     /**
      * 处理对象销毁
      * @throws Throwable 如果发生错误
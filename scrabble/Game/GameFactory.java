@@ -21,8 +21,6 @@ public class GameFactory {
     private static final String GAMES_DIRECTORY = "src/main/resources/games";
     // 日志目录
     private static final String LOGS_DIRECTORY = "src/main/resources/logs";
-    // 默认词典路径
-    private static final String DEFAULT_DICTIONARY_PATH = "src/main/resources/Dictionary/words.txt";
 
     private static GameFactory instance;
 
@@ -82,14 +80,14 @@ public class GameFactory {
     }
 
     /**
-     * 创建新的Scrabble游戏实例
+     * 创建新的Scrabble游戏实例，词表和字母分布由配置的词典语言对应的语言包决定
      */
     public Game createGame(List<Player> players, GameConfig config) throws IOException {
-        return createGame(players, config, DEFAULT_DICTIONARY_PATH);
+        return createGame(players, config, null);
     }
 
     /**
-     * 创建新的Scrabble游戏实例，使用指定的词典
+     * 创建新的Scrabble游戏实例，使用指定的词典（为null时使用语言包词表）
      */
     public Game createGame(List<Player> players, GameConfig config, String dictionaryPath) throws IOException {
         Game game = new Game(players, config, dictionaryPath);
@@ -120,7 +118,7 @@ public class GameFactory {
      * 加载保存的游戏
      */
     public Game loadGame(String filePath) throws IOException, ClassNotFoundException {
-        Game game = Game.loadGame(filePath, DEFAULT_DICTIONARY_PATH);
+        Game game = Game.loadGame(filePath, null);
         activeGames.put(game.getGameId(), game);
         return game;
     }
@@ -217,6 +215,7 @@ public class GameFactory {
      * 清理游戏相关资源
      */
     public void cleanupGameResources(Game game) {
+        game.releaseDictionary();
         GameLoggerFactory.cleanupGameLogger(game.getGameId());
     }
 
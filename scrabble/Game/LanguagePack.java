@@ -0,0 +1,174 @@
+package scrabble.Game;
+
+import scrabble.Tile.TileManager;
+import scrabble.Validator.Dictionary;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 语言包，包含一种语言的词表、字母分布和字母分值
+ * 语言包目录为 src/main/resources/Dictionary/&lt;语言&gt;/，其中：
+ * - words.txt：词表，每行一个单词，格式与默认词表相同
+ * - tiles.txt：字母分布，每行 字母:数量:分值，'*' 表示空白牌（可选，缺省时使用英文分布）
+ * 英文语言包在没有对应目录时使用默认词表和默认字母分布。
+ * 词库目前只支持A-Z字母，带变音符号的语言需要在词表和字母分布中将字母折叠为基本字母。
+ *
+ * 语言包在第一次被请求时才读取，之后由所有游戏共享；词表本身由LexiconRegistry
+ * 在创建游戏时加载，并在同一词表的所有游戏之间共享。
+ */
+public final class LanguagePack {
+    /** 默认语言 */
+    public static final String DEFAULT_LANGUAGE = "english";
+    /** 语言包根目录 */
+    public static final String PACKS_DIRECTORY = "src/main/resources/Dictionary";
+    /** 语言包中的词表文件名 */
+    private static final String WORDS_FILE = "words.txt";
+    /** 语言包中的字母分布文件名 */
+    private static final String TILES_FILE = "tiles.txt";
+
+    /** 已加载的语言包 */
+    private static final Map<String, LanguagePack> packs = new HashMap<>();
+
+    private final String language;
+    private final String dictionaryPath;
+    private final Map<Character, TileManager.TileInfo> tileDistribution;
+
+    private LanguagePack(String language, String dictionaryPath, Map<Character, TileManager.TileInfo> tileDistribution) {
+        this.language = language;
+        this.dictionaryPath = dictionaryPath;
+        this.tileDistribution = Collections.unmodifiableMap(tileDistribution);
+    }
+
+    /**
+     * 获取指定语言的语言包，第一次请求时读取并缓存
+     *
+     * @param language 语言名称（不区分大小写），为null或空时使用默认语言
+     * @return 语言包
+     * @throws IOException 如果语言包不存在或字母分布文件格式错误
+     */
+    public static synchronized LanguagePack forLanguage(String language) throws IOException {
+        String key = normalize(language);
+        LanguagePack pack = packs.get(key);
+        if (pack == null) {
+            pack = load(key);
+            packs.put(key, pack);
+        }
+        return pack;
+    }
+
+    /**
+     * 检查指定语言是否有可用的语言包
+     *
+     * @param language 语言名称
+     * @return 如果有可用的语言包返回true
+     */
+    public static boolean isAvailable(String language) {
+        String key = normalize(language);
+        return DEFAULT_LANGUAGE.equals(key) || new File(new File(PACKS_DIRECTORY, key), WORDS_FILE).isFile();
+    }
+
+    /**
+     * 移除缓存的语言包，下次请求时重新读取
+     * 已创建的游戏不受影响
+     */
+    public static synchronized void clearCache() {
+        packs.clear();
+    }
+
+    private static String normalize(String language) {
+        if (language == null || language.trim().isEmpty()) {
+            return DEFAULT_LANGUAGE;
+        }
+        return language.trim().toLowerCase();
+    }
+
+    /**
+     * 读取语言包目录
+     */
+    private static LanguagePack load(String language) throws IOException {
+        File directory = new File(PACKS_DIRECTORY, language);
+        File words = new File(directory, WORDS_FILE);
+        File tiles = new File(directory, TILES_FILE);
+
+        if (!words.isFile()) {
+            if (DEFAULT_LANGUAGE.equals(language)) {
+                return new LanguagePack(language, Dictionary.DEFAULT_DICTIONARY_PATH,
+                        TileManager.defaultTileDistribution());
+            }
+            throw new IOException("不支持的词典语言: " + language + "（找不到 " + words.getPath() + "）");
+        }
+
+        Map<Character, TileManager.TileInfo> distribution;
+        if (tiles.isFile()) {
+            try {
+                distribution = TileManager.parseTileData(Files.readAllLines(tiles.toPath(), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("字母分布文件格式错误: " + tiles.getPath() + " - " + e.getMessage(), e);
+            }
+            if (distribution.isEmpty()) {
+                throw new IOException("字母分布文件为空: " + tiles.getPath());
+            }
+        } else {
+            distribution = TileManager.defaultTileDistribution();
+        }
+        return new LanguagePack(language, words.getPath(), distribution);
+    }
+
+    /**
+     * 获取语言名称
+     *
+     * @return 小写的语言名称
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    /**
+     * 获取词表路径
+     *
+     * @return 词表路径
+     */
+    public String getDictionaryPath() {
+        return dictionaryPath;
+    }
+
+    /**
+     * 获取字母分布
+     *
+     * @return 只读的字母分布（字母->{数量,分值}）
+     */
+    public Map<Character, TileManager.TileInfo> getTileDistribution() {
+        return tileDistribution;
+    }
+
+    /**
+     * 获取字母分值
+     *
+     * @param letter 字母（大小写均可）
+     * @return 分值，字母不在分布中时返回0
+     */
+    public int getLetterValue(char letter) {
+        TileManager.TileInfo info = tileDistribution.get(Character.toUpperCase(letter));
+        return info != null ? info.getValue() : 0;
+    }
+
+    /**
+     * 创建使用本语言包字母分布的字母管理器
+     *
+     * @return 字母管理器
+     */
+    public TileManager createTileManager() {
+        return new TileManager(tileDistribution);
+    }
+
+    @Override
+    public String toString() {
+        return language + " (" + dictionaryPath + ")";
+    }
+}
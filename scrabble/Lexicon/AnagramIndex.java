@@ -0,0 +1,259 @@
+package scrabble.Lexicon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 按字母签名组织的变位词索引
+ * 单词的签名是其字母排序后的字符串（如 "stop" 的签名为 "opst"），签名相同的单词互为变位词。
+ * 查询时枚举字母架（加上可选的棋盘字母和空白牌）能组成的所有字母子多重集，
+ * 对每个子多重集做一次签名查找，而不是扫描整个词库。
+ * 字母架最多7张牌时子多重集不超过128个，查询时间与词库大小无关。
+ * 索引不可变且线程安全。
+ */
+public final class AnagramIndex {
+    /** 按字典序排列的不重复签名 */
+    private final String[] signatures;
+    /** 第i个签名的单词位于words[offsets[i]..offsets[i+1]) */
+    private final int[] offsets;
+    /** 按签名分组的单词 */
+    private final String[] words;
+
+    private AnagramIndex(String[] signatures, int[] offsets, String[] words) {
+        this.signatures = signatures;
+        this.offsets = offsets;
+        this.words = words;
+    }
+
+    /**
+     * 由词库构建变位词索引
+     *
+     * @param lexicon 词库
+     * @return 构建好的索引
+     */
+    public static AnagramIndex build(Lexicon lexicon) {
+        List<String[]> pairs = new ArrayList<>(lexicon.size());
+        for (String word : lexicon) {
+            pairs.add(new String[]{signature(word), word});
+        }
+        // 词库按字典序遍历，稳定排序后同一签名内的单词仍保持字典序
+        pairs.sort((a, b) -> a[0].compareTo(b[0]));
+
+        List<String> signatureList = new ArrayList<>();
+        int[] offsets = new int[pairs.size() + 1];
+        String[] words = new String[pairs.size()];
+        String previous = null;
+        for (int i = 0; i < pairs.size(); i++) {
+            String[] pair = pairs.get(i);
+            if (!pair[0].equals(previous)) {
+                offsets[signatureList.size()] = i;
+                signatureList.add(pair[0]);
+                previous = pair[0];
+            }
+            words[i] = pair[1];
+        }
+        offsets[signatureList.size()] = pairs.size();
+        return new AnagramIndex(signatureList.toArray(new String[0]),
+                Arrays.copyOf(offsets, signatureList.size() + 1), words);
+    }
+
+    /**
+     * 计算单词的签名
+     *
+     * @param word 单词（大小写均可）
+     * @return 小写字母排序后的签名
+     */
+    public static String signature(CharSequence word) {
+        char[] letters = new char[word.length()];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = Character.toLowerCase(word.charAt(i));
+        }
+        Arrays.sort(letters);
+        return new String(letters);
+    }
+
+    /**
+     * 查找恰好由给定字母组成的所有单词
+     *
+     * @param letters 字母（顺序无关）
+     * @return 变位词列表，没有时返回空列表
+     */
+    public List<String> anagrams(CharSequence letters) {
+        char[] key = signature(letters).toCharArray();
+        int index = find(key, key.length);
+        if (index < 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(words).subList(offsets[index], offsets[index + 1]));
+    }
+
+    /**
+     * 查找用字母架字母和空白牌能拼出的所有单词，可以借用最多maxBoardLetters个棋盘字母
+     * 每个单词至少使用一张字母架上的牌，每个单词只会输出一次。
+     *
+     * @param rackCounts 字母架上每个字母（0-25）的数量
+     * @param blanks 空白牌数量
+     * @param boardCounts 可借用的棋盘字母数量，为null表示不借用
+     * @param maxBoardLetters 最多借用的棋盘字母数
+     * @param minLength 单词最小长度
+     * @param maxLength 单词最大长度
+     * @param visitor 接收每个单词
+     */
+    public void find(int[] rackCounts, int blanks, int[] boardCounts, int maxBoardLetters,
+                     int minLength, int maxLength, Consumer<String> visitor) {
+        int[] board = boardCounts != null ? boardCounts : new int[Lexicon.ALPHABET_SIZE];
+        int boardTotal = 0;
+        int rackTotal = blanks;
+        for (int i = 0; i < Lexicon.ALPHABET_SIZE; i++) {
+            boardTotal += board[i];
+            rackTotal += rackCounts[i];
+        }
+        int limit = Math.min(maxLength, rackTotal + Math.min(boardTotal, Math.max(0, maxBoardLetters)));
+        new Search(rackCounts, board, blanks, Math.max(0, maxBoardLetters),
+                Math.max(1, minLength), limit, visitor).enumerate(0, 0, 0, 0, 0);
+    }
+
+    /**
+     * 查找只用字母架上的牌能拼出的所有单词
+     *
+     * @param rack 字母架上的字母，'*' 或 '?' 表示空白牌
+     * @param minLength 单词最小长度
+     * @return 单词列表
+     */
+    public List<String> find(String rack, int minLength) {
+        int[] counts = new int[Lexicon.ALPHABET_SIZE];
+        int blanks = 0;
+        for (int i = 0; i < rack.length(); i++) {
+            char c = rack.charAt(i);
+            int index = Lexicon.letterIndex(c);
+            if (index >= 0) {
+                counts[index]++;
+            } else if (c == '*' || c == '?') {
+                blanks++;
+            }
+        }
+        List<String> result = new ArrayList<>();
+        find(counts, blanks, null, 0, minLength, rack.length(), result::add);
+        return result;
+    }
+
+    /**
+     * 获取索引中的单词数量
+     *
+     * @return 单词数量
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * 获取不重复签名的数量
+     *
+     * @return 签名数量
+     */
+    public int signatureCount() {
+        return signatures.length;
+    }
+
+    /**
+     * 二分查找签名，不为查询创建字符串
+     */
+    private int find(char[] key, int length) {
+        int low = 0;
+        int high = signatures.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(signatures[mid], key, length);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int compare(String signature, char[] key, int length) {
+        int n = Math.min(signature.length(), length);
+        for (int i = 0; i < n; i++) {
+            int diff = signature.charAt(i) - key[i];
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return signature.length() - length;
+    }
+
+    /**
+     * 一次子多重集枚举的状态
+     * 按字母顺序逐个决定每个字母的数量，得到的字母序列本身就是有序的签名。
+     * 超出字母架数量的部分先由棋盘字母补足，再由空白牌补足。
+     */
+    private final class Search {
+        private final int[] rack;
+        private final int[] board;
+        private final int blanks;
+        private final int maxBoardLetters;
+        private final int minLength;
+        private final int maxLength;
+        private final Consumer<String> visitor;
+        private final char[] key;
+
+        Search(int[] rack, int[] board, int blanks, int maxBoardLetters,
+               int minLength, int maxLength, Consumer<String> visitor) {
+            this.rack = rack;
+            this.board = board;
+            this.blanks = blanks;
+            this.maxBoardLetters = maxBoardLetters;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.visitor = visitor;
+            this.key = new char[Math.max(0, maxLength)];
+        }
+
+        /**
+         * @param letter 当前决定的字母
+         * @param length 已选字母数
+         * @param fromRack 已选字母中由字母架提供的数量
+         * @param extra 超出字母架数量的字母总数（需由棋盘字母或空白牌提供）
+         * @param blanksNeeded 超出字母架和棋盘数量、只能由空白牌提供的字母数
+         */
+        void enumerate(int letter, int length, int fromRack, int extra, int blanksNeeded) {
+            if (letter == Lexicon.ALPHABET_SIZE) {
+                // 借用的棋盘字母尽量少，剩余的空白牌都可以替代棋盘字母
+                int blanksUsed = Math.max(blanksNeeded, extra - maxBoardLetters);
+                if (length >= minLength && fromRack + blanksUsed > 0) {
+                    emit(length);
+                }
+                return;
+            }
+            int max = Math.min(rack[letter] + board[letter] + (blanks - blanksNeeded), maxLength - length);
+            for (int count = 0; count <= max; count++) {
+                int over = Math.max(0, count - rack[letter]);
+                int nextExtra = extra + over;
+                int nextBlanks = blanksNeeded + Math.max(0, over - board[letter]);
+                if (nextBlanks > blanks || nextExtra > maxBoardLetters + blanks) {
+                    break;
+                }
+                for (int i = 0; i < count; i++) {
+                    key[length + i] = (char) ('a' + letter);
+                }
+                enumerate(letter + 1, length + count, fromRack + Math.min(count, rack[letter]),
+                        nextExtra, nextBlanks);
+            }
+        }
+
+        private void emit(int length) {
+            int index = AnagramIndex.this.find(key, length);
+            if (index >= 0) {
+                for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+                    visitor.accept(words[i]);
+                }
+            }
+        }
+    }
+}
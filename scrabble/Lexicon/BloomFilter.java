@@ -0,0 +1,196 @@
+package scrabble.Lexicon;
+
+/**
+ * 分块布隆过滤器，用于在查询词库之前快速排除不存在的单词
+ * 每个单词的所有哈希位都落在同一个512位（64字节）的块中，一次查询只访问一条缓存行。
+ * 过滤器只会产生假阳性：返回false的单词一定不在词库中，返回true的单词仍需查询词库确认。
+ * 哈希时忽略大小写，因此可以直接用未经转换的输入查询。
+ * 过滤器构建后不可变且线程安全。
+ */
+public final class BloomFilter {
+    /** 每块的long数量，8个long为512位，正好一条缓存行 */
+    private static final int BLOCK_LONGS = 8;
+    /** 块内位下标的掩码 */
+    private static final int BLOCK_BIT_MASK = BLOCK_LONGS * 64 - 1;
+    /** 最多使用的哈希函数个数 */
+    private static final int MAX_HASHES = 16;
+
+    private final long[] bits;
+    private final int blockCount;
+    private final int hashCount;
+    private final int entries;
+
+    private BloomFilter(int blockCount, int hashCount, int entries) {
+        this.bits = new long[blockCount * BLOCK_LONGS];
+        this.blockCount = blockCount;
+        this.hashCount = hashCount;
+        this.entries = entries;
+    }
+
+    /**
+     * 由单词集合构建过滤器
+     *
+     * @param words 单词
+     * @param count 单词数量，用于确定过滤器大小
+     * @param bitsPerWord 每个单词分配的位数，越大假阳性率越低（10位约1%）
+     * @return 构建好的过滤器
+     */
+    public static BloomFilter build(Iterable<String> words, int count, int bitsPerWord) {
+        if (bitsPerWord <= 0) {
+            throw new IllegalArgumentException("每个单词的位数必须为正数: " + bitsPerWord);
+        }
+        long totalBits = Math.max(1L, (long) count) * bitsPerWord;
+        int blockCount = (int) Math.min(Integer.MAX_VALUE / BLOCK_LONGS,
+                Math.max(1L, (totalBits + BLOCK_BIT_MASK) / (BLOCK_BIT_MASK + 1)));
+        int hashCount = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerWord * Math.log(2))));
+
+        BloomFilter filter = new BloomFilter(blockCount, hashCount, count);
+        for (String word : words) {
+            filter.add(hash(word, 0, word.length()));
+        }
+        return filter;
+    }
+
+    /**
+     * 由词库构建过滤器
+     *
+     * @param lexicon 词库
+     * @param bitsPerWord 每个单词分配的位数
+     * @return 构建好的过滤器
+     */
+    public static BloomFilter build(Lexicon lexicon, int bitsPerWord) {
+        return build(lexicon, lexicon.size(), bitsPerWord);
+    }
+
+    /**
+     * 检查字符序列的一段是否可能在词库中
+     *
+     * @param word 字符序列
+     * @param start 起始下标（包含）
+     * @param end 结束下标（不包含）
+     * @return 返回false表示一定不在词库中
+     */
+    public boolean mightContain(CharSequence word, int start, int end) {
+        return test(hash(word, start, end));
+    }
+
+    /**
+     * 检查字符数组的一段是否可能在词库中
+     *
+     * @param letters 字符数组
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 返回false表示一定不在词库中
+     */
+    public boolean mightContain(char[] letters, int offset, int length) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ fold(letters[i])) * 0x100000001b3L;
+        }
+        return test(mix(h));
+    }
+
+    /**
+     * 获取哈希函数个数
+     *
+     * @return 哈希函数个数
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * 获取过滤器的位数
+     *
+     * @return 位数
+     */
+    public long bitCount() {
+        return 64L * bits.length;
+    }
+
+    /**
+     * 获取构建时加入的单词数量
+     *
+     * @return 单词数量
+     */
+    public int entries() {
+        return entries;
+    }
+
+    /**
+     * 估算过滤器占用的堆内存（字节）
+     *
+     * @return 字节数
+     */
+    public long estimatedBytes() {
+        return 8L * bits.length;
+    }
+
+    /**
+     * 按标准布隆过滤器公式估算的假阳性率 (1 - e^(-kn/m))^k
+     * 分块布隆过滤器的实际假阳性率略高于这个值
+     *
+     * @return 估算的假阳性率
+     */
+    public double expectedFalsePositiveRate() {
+        double exponent = -(double) hashCount * entries / bitCount();
+        return Math.pow(1 - Math.exp(exponent), hashCount);
+    }
+
+    private void add(long h) {
+        int base = block(h) * BLOCK_LONGS;
+        int a = (int) h & BLOCK_BIT_MASK;
+        int b = ((int) (h >>> 9) & BLOCK_BIT_MASK) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (a + i * b) & BLOCK_BIT_MASK;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private boolean test(long h) {
+        int base = block(h) * BLOCK_LONGS;
+        int a = (int) h & BLOCK_BIT_MASK;
+        int b = ((int) (h >>> 9) & BLOCK_BIT_MASK) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (a + i * b) & BLOCK_BIT_MASK;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 用哈希值的高32位选择块，低位用于块内的位
+     */
+    private int block(long h) {
+        return (int) (((h >>> 32) * blockCount) >>> 32);
+    }
+
+    /**
+     * 忽略大小写的FNV-1a哈希，最后用MurmurHash3的混合函数打散
+     */
+    private static long hash(CharSequence word, int start, int end) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            h = (h ^ fold(word.charAt(i))) * 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static char fold(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        return c < 128 ? c : Character.toLowerCase(c);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,135 @@
+package scrabble.Lexicon;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 有向无环词图（DAWG，最小化自动机）实现的不可变词库
+ * 共享前缀和后缀的单词共用节点，整个词图只占用两个int数组（布局见GraphBuilder）。
+ * 查找子节点时通过掩码的位计数直接定位出边，时间为O(1)。
+ */
+public final class Dawg implements Lexicon {
+    private final int[] nodes;
+    private final int[] edges;
+    private final int wordCount;
+
+    Dawg(int[] nodes, int[] edges, int wordCount) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * 从单词集合构建最小化词图
+     * 只收录由英文字母组成的单词，其他单词会被忽略
+     *
+     * @param words 单词集合（不要求有序或去重）
+     * @return 构建好的词图
+     */
+    public static Dawg build(Collection<String> words) {
+        List<String> sorted = new ArrayList<>(words.size());
+        for (String word : words) {
+            String normalized = normalize(word);
+            if (normalized != null) {
+                sorted.add(normalized);
+            }
+        }
+        sorted.sort(null);
+
+        GraphBuilder builder = new GraphBuilder();
+        String previous = null;
+        for (String word : sorted) {
+            if (!word.equals(previous)) {
+                builder.add(word);
+                previous = word;
+            }
+        }
+        builder.finish();
+        return new Dawg(builder.nodes, builder.edges, builder.count());
+    }
+
+    /**
+     * 将单词转换为小写，如果包含非英文字母则返回null
+     */
+    static String normalize(String word) {
+        if (word == null || word.isEmpty()) {
+            return null;
+        }
+        char[] letters = new char[word.length()];
+        for (int i = 0; i < letters.length; i++) {
+            int index = Lexicon.letterIndex(word.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            letters[i] = (char) ('a' + index);
+        }
+        return new String(letters);
+    }
+
+    @Override
+    public int root() {
+        return 0;
+    }
+
+    @Override
+    public int child(int node, char letter) {
+        int index = Lexicon.letterIndex(letter);
+        if (index < 0 || node < 0) {
+            return NO_NODE;
+        }
+        return GraphBuilder.child(nodes, edges, node, index);
+    }
+
+    @Override
+    public int childMask(int node) {
+        return nodes[2 * node + 1] & GraphBuilder.MASK_BITS;
+    }
+
+    @Override
+    public boolean isTerminal(int node) {
+        return (nodes[2 * node + 1] & GraphBuilder.TERMINAL_BIT) != 0;
+    }
+
+    @Override
+    public int size() {
+        return wordCount;
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodes.length / 2;
+    }
+
+    /**
+     * 获取出边数量
+     *
+     * @return 出边数量
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * 估算词图占用的堆内存（字节）
+     *
+     * @return 估算的字节数
+     */
+    public long estimatedBytes() {
+        return 4L * nodes.length + 4L * edges.length;
+    }
+
+    int[] nodeArray() {
+        return nodes;
+    }
+
+    int[] edgeArray() {
+        return edges;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new LexiconIterator(this);
+    }
+}
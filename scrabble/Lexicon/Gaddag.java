@@ -0,0 +1,361 @@
+package scrabble.Lexicon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GADDAG索引，用于从棋盘锚点双向生成单词
+ * 对单词w的每个拆分位置i，索引中保存 REV(w[0..i)) + 分隔符 + w[i..n)，
+ * 当i等于单词长度时只保存REV(w)。这样从锚点的字母出发，可以先向左逐个读出前缀，
+ * 遇到分隔符后再向右补全后缀，任意位置的棋盘字母都能作为搜索起点。
+ * 索引不可变且线程安全，同一词表只需构建一次即可被走法生成、提示和分析工具共享。
+ */
+public final class Gaddag {
+    /** 分隔符在图中的符号索引（紧跟在26个字母之后） */
+    private static final int SEPARATOR = Lexicon.ALPHABET_SIZE;
+    /** 分隔符对应的字符，'z'之后的字符保证排序时位于所有字母之后 */
+    private static final char SEPARATOR_CHAR = (char) ('a' + SEPARATOR);
+    /** 26个字母的掩码 */
+    private static final int LETTER_MASK = (1 << Lexicon.ALPHABET_SIZE) - 1;
+
+    private final int[] nodes;
+    private final int[] edges;
+    private final int wordCount;
+
+    private Gaddag(int[] nodes, int[] edges, int wordCount) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * 由词库构建GADDAG
+     * 为控制构建时的内存峰值，按首字母分26批生成、排序并加入路径
+     *
+     * @param lexicon 词库
+     * @return 构建好的GADDAG
+     */
+    public static Gaddag build(Lexicon lexicon) {
+        GraphBuilder builder = new GraphBuilder();
+        List<String> batch = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+
+        for (int first = 0; first < Lexicon.ALPHABET_SIZE; first++) {
+            char firstLetter = (char) ('a' + first);
+            batch.clear();
+            for (String word : lexicon) {
+                int n = word.length();
+                for (int i = 1; i <= n; i++) {
+                    // 路径的首字母就是拆分点左侧的字母
+                    if (word.charAt(i - 1) != firstLetter) {
+                        continue;
+                    }
+                    sb.setLength(0);
+                    for (int j = i - 1; j >= 0; j--) {
+                        sb.append(word.charAt(j));
+                    }
+                    if (i < n) {
+                        sb.append(SEPARATOR_CHAR).append(word, i, n);
+                    }
+                    batch.add(sb.toString());
+                }
+            }
+            batch.sort(null);
+            String previous = null;
+            for (String path : batch) {
+                if (!path.equals(previous)) {
+                    builder.add(path);
+                    previous = path;
+                }
+            }
+        }
+
+        builder.finish();
+        return new Gaddag(builder.nodes, builder.edges, lexicon.size());
+    }
+
+    /**
+     * 获取根节点
+     *
+     * @return 根节点编号
+     */
+    public int root() {
+        return 0;
+    }
+
+    /**
+     * 沿字母边走到子节点
+     *
+     * @param node 当前节点
+     * @param letter 字母（大小写均可）
+     * @return 子节点，不存在则返回Lexicon.NO_NODE
+     */
+    public int child(int node, char letter) {
+        int index = Lexicon.letterIndex(letter);
+        if (index < 0 || node < 0) {
+            return Lexicon.NO_NODE;
+        }
+        return GraphBuilder.child(nodes, edges, node, index);
+    }
+
+    /**
+     * 沿分隔符边走到子节点，即从向左读前缀切换为向右读后缀
+     *
+     * @param node 当前节点
+     * @return 子节点，不存在则返回Lexicon.NO_NODE
+     */
+    public int separator(int node) {
+        if (node < 0) {
+            return Lexicon.NO_NODE;
+        }
+        return GraphBuilder.child(nodes, edges, node, SEPARATOR);
+    }
+
+    /**
+     * 获取节点字母出边的26位掩码（不含分隔符）
+     *
+     * @param node 节点
+     * @return 字母掩码
+     */
+    public int childMask(int node) {
+        return nodes[2 * node + 1] & LETTER_MASK;
+    }
+
+    /**
+     * 检查到达该节点的路径是否对应一个完整单词
+     *
+     * @param node 节点
+     * @return 如果是完整单词返回true
+     */
+    public boolean isTerminal(int node) {
+        return (nodes[2 * node + 1] & GraphBuilder.TERMINAL_BIT) != 0;
+    }
+
+    /**
+     * 获取索引的单词数量
+     *
+     * @return 单词数量
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * 获取节点数量
+     *
+     * @return 节点数量
+     */
+    public int nodeCount() {
+        return nodes.length / 2;
+    }
+
+    /**
+     * 获取边数量
+     *
+     * @return 边数量
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * 估算索引占用的堆内存（字节）
+     *
+     * @return 估算的字节数
+     */
+    public long estimatedBytes() {
+        return 4L * nodes.length + 4L * edges.length;
+    }
+
+    /**
+     * 单词访问器，接收从锚点扩展出的每个单词
+     */
+    public interface WordVisitor {
+        /**
+         * @param word 小写单词
+         * @param start 单词第一个字母在行中的下标
+         * @param blankMask 第i位为1表示单词第i个字母由空白牌充当
+         */
+        void visit(String word, int start, int blankMask);
+    }
+
+    /**
+     * 在一行（或一列）中从锚点出发扩展出所有可拼出的单词
+     * 先从锚点向左读出前缀，再经分隔符向右补全后缀。
+     * 只会生成覆盖锚点且至少使用一张字母架上字母牌的单词。
+     *
+     * @param line 行中每个格子上的字母，空格子为'\0'
+     * @param anchor 锚点下标
+     * @param leftLimit 允许放置新字母牌的最小下标，用于避免与左侧锚点生成重复单词
+     * @param allowedMasks 每个空格子允许放置的字母掩码（交叉检查），为null表示不限制
+     * @param rackCounts 字母架上每个字母（0-25）的数量
+     * @param blanks 字母架上空白牌的数量
+     * @param visitor 单词访问器
+     */
+    public void expand(char[] line, int anchor, int leftLimit, int[] allowedMasks,
+                       int[] rackCounts, int blanks, WordVisitor visitor) {
+        Expansion expansion = new Expansion(line, anchor, leftLimit, allowedMasks,
+                rackCounts.clone(), blanks, visitor);
+        expansion.goLeft(anchor, root());
+    }
+
+    /**
+     * 一次锚点扩展的搜索状态
+     */
+    private final class Expansion {
+        private final char[] line;
+        private final int anchor;
+        private final int leftLimit;
+        private final int[] allowedMasks;
+        private final int[] rack;
+        private int blanks;
+        private final WordVisitor visitor;
+        /** 当前路径在行中各位置的字母 */
+        private final char[] letters;
+        /** 当前路径中由空白牌充当的位置 */
+        private int blankMask;
+        /** 当前路径放置的新字母牌数量 */
+        private int tilesPlaced;
+
+        Expansion(char[] line, int anchor, int leftLimit, int[] allowedMasks,
+                  int[] rack, int blanks, WordVisitor visitor) {
+            this.line = line;
+            this.anchor = anchor;
+            this.leftLimit = leftLimit;
+            this.allowedMasks = allowedMasks;
+            this.rack = rack;
+            this.blanks = blanks;
+            this.visitor = visitor;
+            this.letters = new char[line.length];
+        }
+
+        private boolean isEmpty(int pos) {
+            return pos < 0 || pos >= line.length || line[pos] == '\0';
+        }
+
+        private int allowed(int pos) {
+            return allowedMasks == null ? LETTER_MASK : allowedMasks[pos];
+        }
+
+        /**
+         * 向左扩展：处理pos处的格子
+         */
+        void goLeft(int pos, int node) {
+            if (!isEmpty(pos)) {
+                int index = Lexicon.letterIndex(line[pos]);
+                int next = index < 0 ? Lexicon.NO_NODE : GraphBuilder.child(nodes, edges, node, index);
+                if (next != Lexicon.NO_NODE) {
+                    leftStep(pos, next, index, false, false);
+                }
+                return;
+            }
+            if (pos < leftLimit) {
+                return;
+            }
+            int candidates = childMask(node) & allowed(pos);
+            for (int mask = candidates; mask != 0; mask &= mask - 1) {
+                int index = Integer.numberOfTrailingZeros(mask);
+                int next = GraphBuilder.child(nodes, edges, node, index);
+                if (rack[index] > 0) {
+                    rack[index]--;
+                    leftStep(pos, next, index, true, false);
+                    rack[index]++;
+                }
+                if (blanks > 0) {
+                    blanks--;
+                    leftStep(pos, next, index, true, true);
+                    blanks++;
+                }
+            }
+        }
+
+        private void leftStep(int pos, int next, int index, boolean placed, boolean blank) {
+            letters[pos] = (char) ('a' + index);
+            if (placed) {
+                tilesPlaced++;
+            }
+            if (blank) {
+                blankMask |= 1 << pos;
+            }
+
+            // 左边和锚点右边都没有字母时，当前路径本身就是一个完整单词
+            if (isTerminal(next) && isEmpty(pos - 1) && isEmpty(anchor + 1) && tilesPlaced > 0) {
+                emit(pos, anchor);
+            }
+            if (pos - 1 >= 0) {
+                goLeft(pos - 1, next);
+            }
+            // 左侧结束，经分隔符转向锚点右侧继续
+            if (isEmpty(pos - 1) && anchor + 1 < line.length) {
+                int separatorNode = GraphBuilder.child(nodes, edges, next, SEPARATOR);
+                if (separatorNode != Lexicon.NO_NODE) {
+                    goRight(anchor + 1, separatorNode, pos);
+                }
+            }
+
+            if (placed) {
+                tilesPlaced--;
+            }
+            if (blank) {
+                blankMask &= ~(1 << pos);
+            }
+        }
+
+        /**
+         * 向右扩展：处理pos处的格子，start为单词起点
+         */
+        private void goRight(int pos, int node, int start) {
+            if (!isEmpty(pos)) {
+                int index = Lexicon.letterIndex(line[pos]);
+                int next = index < 0 ? Lexicon.NO_NODE : GraphBuilder.child(nodes, edges, node, index);
+                if (next != Lexicon.NO_NODE) {
+                    rightStep(pos, next, index, start, false, false);
+                }
+                return;
+            }
+            int candidates = childMask(node) & allowed(pos);
+            for (int mask = candidates; mask != 0; mask &= mask - 1) {
+                int index = Integer.numberOfTrailingZeros(mask);
+                int next = GraphBuilder.child(nodes, edges, node, index);
+                if (rack[index] > 0) {
+                    rack[index]--;
+                    rightStep(pos, next, index, start, true, false);
+                    rack[index]++;
+                }
+                if (blanks > 0) {
+                    blanks--;
+                    rightStep(pos, next, index, start, true, true);
+                    blanks++;
+                }
+            }
+        }
+
+        private void rightStep(int pos, int next, int index, int start, boolean placed, boolean blank) {
+            letters[pos] = (char) ('a' + index);
+            if (placed) {
+                tilesPlaced++;
+            }
+            if (blank) {
+                blankMask |= 1 << pos;
+            }
+
+            if (isTerminal(next) && isEmpty(pos + 1) && tilesPlaced > 0) {
+                emit(start, pos);
+            }
+            if (pos + 1 < line.length) {
+                goRight(pos + 1, next, start);
+            }
+
+            if (placed) {
+                tilesPlaced--;
+            }
+            if (blank) {
+                blankMask &= ~(1 << pos);
+            }
+        }
+
+        private void emit(int start, int end) {
+            visitor.visit(new String(letters, start, end - start + 1), start, blankMask >>> start);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package scrabble.Lexicon;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 最小化词图构建器，使用Daciuk等人的增量算法：
+ * 字符串按字典序加入，每加入一个字符串就把上一个字符串不再共享的后缀节点最小化并登记，
+ * 因此任意时刻只有当前路径上的节点是未最小化的。
+ * 字符串中的符号取值为'a'到('a' + MAX_SYMBOLS - 1)，构建结果为紧凑的int数组：
+ * - nodes[2*i]   节点i第一条出边在edges中的下标
+ * - nodes[2*i+1] 节点i的出边掩码，第TERMINAL_BIT位表示字符串结尾
+ * - edges[j]     第j条边指向的节点，同一节点的出边按符号顺序连续存放
+ */
+final class GraphBuilder {
+    /** 支持的最大符号数（26个字母加一个分隔符） */
+    static final int MAX_SYMBOLS = 27;
+    /** 节点信息中表示字符串结尾的标志位 */
+    static final int TERMINAL_BIT = 1 << 30;
+    /** 节点信息中出边掩码所占的位 */
+    static final int MASK_BITS = (1 << MAX_SYMBOLS) - 1;
+
+    private final MutableNode root = new MutableNode();
+    /** 已登记（最小化）的节点，键为节点的结构签名 */
+    private final Map<Signature, MutableNode> register = new HashMap<>();
+    private final List<MutableNode> path = new ArrayList<>();
+    private String previous = "";
+    private int count;
+
+    /** 构建结果：节点数组 */
+    int[] nodes;
+    /** 构建结果：边数组 */
+    int[] edges;
+
+    /**
+     * 加入一个字符串，必须按字典序严格递增加入
+     *
+     * @param sequence 字符串
+     */
+    void add(String sequence) {
+        int common = 0;
+        int limit = Math.min(sequence.length(), previous.length());
+        while (common < limit && sequence.charAt(common) == previous.charAt(common)) {
+            common++;
+        }
+
+        // 上一个字符串从公共前缀之后的部分已不会再变化，可以最小化
+        minimize(common);
+
+        MutableNode node = path.isEmpty() ? root : path.get(path.size() - 1);
+        for (int i = common; i < sequence.length(); i++) {
+            MutableNode next = new MutableNode();
+            node.addChild(sequence.charAt(i) - 'a', next);
+            path.add(next);
+            node = next;
+        }
+        node.terminal = true;
+        previous = sequence;
+        count++;
+    }
+
+    /**
+     * 已加入的字符串数量
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * 最小化当前路径上深度大于downTo的节点
+     */
+    private void minimize(int downTo) {
+        for (int i = path.size() - 1; i >= downTo; i--) {
+            MutableNode child = path.get(i);
+            MutableNode parent = i == 0 ? root : path.get(i - 1);
+            Signature signature = new Signature(child);
+            MutableNode existing = register.get(signature);
+            if (existing != null) {
+                parent.replaceLastChild(existing);
+            } else {
+                child.id = register.size() + 1;
+                register.put(signature, child);
+            }
+            path.remove(i);
+        }
+    }
+
+    /**
+     * 完成构建并生成紧凑数组，结果保存在nodes和edges中
+     */
+    void finish() {
+        minimize(0);
+
+        // 按广度优先顺序为节点编号，根节点编号为0
+        Map<MutableNode, Integer> ids = new IdentityHashMap<>();
+        List<MutableNode> order = new ArrayList<>();
+        Deque<MutableNode> queue = new ArrayDeque<>();
+        ids.put(root, 0);
+        order.add(root);
+        queue.add(root);
+        int edgeTotal = 0;
+        while (!queue.isEmpty()) {
+            MutableNode node = queue.poll();
+            edgeTotal += node.childCount;
+            for (int i = 0; i < node.childCount; i++) {
+                MutableNode child = node.children[i];
+                if (!ids.containsKey(child)) {
+                    ids.put(child, order.size());
+                    order.add(child);
+                    queue.add(child);
+                }
+            }
+        }
+
+        nodes = new int[order.size() * 2];
+        edges = new int[edgeTotal];
+        int edgeIndex = 0;
+        for (int i = 0; i < order.size(); i++) {
+            MutableNode node = order.get(i);
+            nodes[2 * i] = edgeIndex;
+            nodes[2 * i + 1] = node.mask | (node.terminal ? TERMINAL_BIT : 0);
+            for (int j = 0; j < node.childCount; j++) {
+                edges[edgeIndex++] = ids.get(node.children[j]);
+            }
+        }
+    }
+
+    /**
+     * 在紧凑数组中查找子节点
+     *
+     * @param nodes 节点数组
+     * @param edges 边数组
+     * @param node 当前节点
+     * @param symbol 符号索引
+     * @return 子节点编号，不存在则返回Lexicon.NO_NODE
+     */
+    static int child(int[] nodes, int[] edges, int node, int symbol) {
+        int mask = nodes[2 * node + 1];
+        int bit = 1 << symbol;
+        if ((mask & bit) == 0) {
+            return Lexicon.NO_NODE;
+        }
+        return edges[nodes[2 * node] + Integer.bitCount(mask & MASK_BITS & (bit - 1))];
+    }
+
+    /**
+     * 构建过程中使用的可变节点，子节点按符号顺序追加
+     */
+    private static final class MutableNode {
+        private MutableNode[] children = new MutableNode[2];
+        private byte[] symbols = new byte[2];
+        private int childCount;
+        private int mask;
+        private boolean terminal;
+        /** 登记后分配的编号，用于计算父节点的签名 */
+        private int id;
+
+        void addChild(int symbol, MutableNode child) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, childCount * 2);
+                symbols = Arrays.copyOf(symbols, childCount * 2);
+            }
+            children[childCount] = child;
+            symbols[childCount] = (byte) symbol;
+            childCount++;
+            mask |= 1 << symbol;
+        }
+
+        void replaceLastChild(MutableNode child) {
+            children[childCount - 1] = child;
+        }
+    }
+
+    /**
+     * 节点的结构签名：结尾标志加上每条出边的(符号, 子节点编号)
+     * 两个节点签名相同即表示它们接受完全相同的后缀集合
+     */
+    private static final class Signature {
+        private final int[] data;
+        private final int hash;
+
+        Signature(MutableNode node) {
+            data = new int[1 + node.childCount * 2];
+            data[0] = node.terminal ? 1 : 0;
+            for (int i = 0; i < node.childCount; i++) {
+                data[1 + 2 * i] = node.symbols[i];
+                data[2 + 2 * i] = node.children[i].id;
+            }
+            hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Signature && Arrays.equals(data, ((Signature) other).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package scrabble.Lexicon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 按单词长度分桶的字母掩码索引，用于根据字母架快速筛选候选单词
+ * 每个单词预先计算26位字母掩码（第i位表示单词含有第i个字母），
+ * 查询时先用掩码排除含有不可用字母的单词，再按字母数量精确检查，
+ * 只有通过检查的单词才会生成字符串。
+ * 同一长度的单词字母连续存放在一个字节数组中，不为每个单词保存String对象。
+ * 索引不可变且线程安全。
+ */
+public final class LetterMaskIndex {
+    /** buckets[n]保存长度为n的单词，没有该长度的单词时为null */
+    private final Bucket[] buckets;
+    private final int wordCount;
+
+    private LetterMaskIndex(Bucket[] buckets, int wordCount) {
+        this.buckets = buckets;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * 由单词构建索引，包含非英文字母的单词会被忽略
+     *
+     * @param words 单词
+     * @return 构建好的索引
+     */
+    public static LetterMaskIndex build(Iterable<String> words) {
+        List<List<String>> byLength = new ArrayList<>();
+        int count = 0;
+        for (String word : words) {
+            String normalized = Dawg.normalize(word);
+            if (normalized == null) {
+                continue;
+            }
+            while (byLength.size() <= normalized.length()) {
+                byLength.add(new ArrayList<>());
+            }
+            byLength.get(normalized.length()).add(normalized);
+            count++;
+        }
+
+        Bucket[] buckets = new Bucket[byLength.size()];
+        for (int length = 0; length < byLength.size(); length++) {
+            List<String> list = byLength.get(length);
+            if (!list.isEmpty()) {
+                buckets[length] = new Bucket(length, list);
+            }
+        }
+        return new LetterMaskIndex(buckets, count);
+    }
+
+    /**
+     * 计算单词的26位字母掩码
+     *
+     * @param word 单词（大小写均可）
+     * @return 字母掩码，忽略非英文字母
+     */
+    public static int mask(CharSequence word) {
+        int mask = 0;
+        for (int i = 0; i < word.length(); i++) {
+            int index = Lexicon.letterIndex(word.charAt(i));
+            if (index >= 0) {
+                mask |= 1 << index;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 检查单词能否用给定的字母拼出
+     *
+     * @param word 单词（大小写均可）
+     * @param rackCounts 字母架上每个字母（0-25）的数量
+     * @param blanks 空白牌数量
+     * @param boardCounts 可以借用的棋盘字母数量，为null表示不借用
+     * @return 如果缺少的字母不超过空白牌数量返回true
+     */
+    public static boolean fits(CharSequence word, int[] rackCounts, int blanks, int[] boardCounts) {
+        int[] used = new int[Lexicon.ALPHABET_SIZE];
+        int missing = 0;
+        for (int i = 0; i < word.length(); i++) {
+            int index = Lexicon.letterIndex(word.charAt(i));
+            if (index < 0) {
+                return false;
+            }
+            used[index]++;
+            int available = rackCounts[index] + (boardCounts != null ? boardCounts[index] : 0);
+            if (used[index] > available && ++missing > blanks) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 遍历所有能用字母架字母、可借用的棋盘字母和空白牌拼出且长度在范围内的单词
+     *
+     * @param rackCounts 字母架上每个字母（0-25）的数量
+     * @param blanks 空白牌数量
+     * @param boardCounts 可以借用的棋盘字母数量（如锚点所在行或列上的字母），为null表示不借用
+     * @param minLength 最小长度
+     * @param maxLength 最大长度（如该行或列上可用的格子数）
+     * @param visitor 接收每个候选单词
+     */
+    public void forEachCandidate(int[] rackCounts, int blanks, int[] boardCounts,
+                                 int minLength, int maxLength, Consumer<String> visitor) {
+        int[] available = new int[Lexicon.ALPHABET_SIZE];
+        int availableMask = 0;
+        int total = blanks;
+        for (int i = 0; i < Lexicon.ALPHABET_SIZE; i++) {
+            available[i] = rackCounts[i] + (boardCounts != null ? boardCounts[i] : 0);
+            total += available[i];
+            if (available[i] > 0) {
+                availableMask |= 1 << i;
+            }
+        }
+
+        int upper = Math.min(Math.min(maxLength, total), buckets.length - 1);
+        int[] used = new int[Lexicon.ALPHABET_SIZE];
+        for (int length = Math.max(1, minLength); length <= upper; length++) {
+            Bucket bucket = buckets[length];
+            if (bucket != null) {
+                bucket.scan(available, availableMask, blanks, used, visitor);
+            }
+        }
+    }
+
+    /**
+     * 返回所有候选单词
+     *
+     * @param rackCounts 字母架上每个字母（0-25）的数量
+     * @param blanks 空白牌数量
+     * @param boardCounts 可以借用的棋盘字母数量，为null表示不借用
+     * @param minLength 最小长度
+     * @param maxLength 最大长度
+     * @return 候选单词列表
+     */
+    public List<String> candidates(int[] rackCounts, int blanks, int[] boardCounts, int minLength, int maxLength) {
+        List<String> result = new ArrayList<>();
+        forEachCandidate(rackCounts, blanks, boardCounts, minLength, maxLength, result::add);
+        return result;
+    }
+
+    /**
+     * 获取索引中的单词数量
+     *
+     * @return 单词数量
+     */
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * 估算索引占用的堆内存（字节）
+     *
+     * @return 字节数
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Bucket bucket : buckets) {
+            if (bucket != null) {
+                bytes += 4L * bucket.masks.length + bucket.letters.length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 同一长度的单词
+     */
+    private static final class Bucket {
+        private final int length;
+        private final int[] masks;
+        /** 第i个单词的字母索引（0-25）位于letters[i*length..(i+1)*length) */
+        private final byte[] letters;
+
+        Bucket(int length, List<String> words) {
+            this.length = length;
+            this.masks = new int[words.size()];
+            this.letters = new byte[words.size() * length];
+            for (int i = 0; i < words.size(); i++) {
+                String word = words.get(i);
+                int mask = 0;
+                for (int j = 0; j < length; j++) {
+                    int index = word.charAt(j) - 'a';
+                    letters[i * length + j] = (byte) index;
+                    mask |= 1 << index;
+                }
+                masks[i] = mask;
+            }
+        }
+
+        void scan(int[] available, int availableMask, int blanks, int[] used, Consumer<String> visitor) {
+            for (int i = 0; i < masks.length; i++) {
+                // 缺少的不同字母数超过空白牌数量时直接排除
+                if (Integer.bitCount(masks[i] & ~availableMask) > blanks) {
+                    continue;
+                }
+                if (fitsCounts(i, available, blanks, used)) {
+                    visitor.accept(word(i));
+                }
+            }
+        }
+
+        private boolean fitsCounts(int i, int[] available, int blanks, int[] used) {
+            int offset = i * length;
+            int missing = 0;
+            int counted = 0;
+            while (counted < length && missing <= blanks) {
+                int index = letters[offset + counted++];
+                if (++used[index] > available[index]) {
+                    missing++;
+                }
+            }
+            // 只清零已经计数的字母，used在两次检查之间保持全零
+            for (int j = 0; j < counted; j++) {
+                used[letters[offset + j]] = 0;
+            }
+            return missing <= blanks;
+        }
+
+        private String word(int i) {
+            char[] chars = new char[length];
+            int offset = i * length;
+            for (int j = 0; j < length; j++) {
+                chars[j] = (char) ('a' + letters[offset + j]);
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package scrabble.Lexicon;
+
+/**
+ * 词库接口 - 以有向图的形式提供单词查询、前缀查询和子边遍历
+ * 图中的节点用int编号表示，走法生成器等算法可以直接沿边行走，无需创建任何对象。
+ * 字母表固定为26个英文字母，查询时不区分大小写。
+ */
+public interface Lexicon extends Iterable<String> {
+    /** 表示不存在的节点 */
+    int NO_NODE = -1;
+    /** 字母表大小 */
+    int ALPHABET_SIZE = 26;
+
+    /**
+     * 获取根节点（对应空前缀）
+     *
+     * @return 根节点编号
+     */
+    int root();
+
+    /**
+     * 沿指定字母的边走到子节点
+     *
+     * @param node 当前节点
+     * @param letter 字母（大小写均可）
+     * @return 子节点编号，如果不存在该边则返回NO_NODE
+     */
+    int child(int node, char letter);
+
+    /**
+     * 获取节点所有出边的字母掩码
+     * 第i位为1表示存在字母('a' + i)的出边
+     *
+     * @param node 节点编号
+     * @return 26位字母掩码
+     */
+    int childMask(int node);
+
+    /**
+     * 检查到达该节点的路径是否构成一个完整单词
+     *
+     * @param node 节点编号
+     * @return 如果是单词结尾返回true
+     */
+    boolean isTerminal(int node);
+
+    /**
+     * 获取词库中的单词数量
+     *
+     * @return 单词数量
+     */
+    int size();
+
+    /**
+     * 获取图中的节点数量
+     *
+     * @return 节点数量
+     */
+    int nodeCount();
+
+    /**
+     * 检查单词是否在词库中
+     *
+     * @param word 要检查的单词
+     * @return 如果单词存在返回true
+     */
+    default boolean contains(CharSequence word) {
+        int node = walk(word);
+        return node != NO_NODE && isTerminal(node);
+    }
+
+    /**
+     * 检查字符数组的一段是否是词库中的单词，不创建任何对象
+     *
+     * @param letters 字符数组
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 如果单词存在返回true
+     */
+    default boolean contains(char[] letters, int offset, int length) {
+        int node = walk(letters, offset, length);
+        return node != NO_NODE && isTerminal(node);
+    }
+
+    /**
+     * 检查词库中是否存在以指定前缀开头的单词
+     *
+     * @param prefix 前缀
+     * @return 如果存在返回true
+     */
+    default boolean hasPrefix(CharSequence prefix) {
+        return walk(prefix) != NO_NODE;
+    }
+
+    /**
+     * 从根节点开始沿字符序列行走
+     *
+     * @param sequence 字符序列
+     * @return 到达的节点，如果中途没有对应的边则返回NO_NODE
+     */
+    default int walk(CharSequence sequence) {
+        if (sequence == null) {
+            return NO_NODE;
+        }
+        int node = root();
+        for (int i = 0; i < sequence.length() && node != NO_NODE; i++) {
+            node = child(node, sequence.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * 从根节点开始沿字符数组的一段行走
+     *
+     * @param letters 字符数组
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 到达的节点，如果中途没有对应的边则返回NO_NODE
+     */
+    default int walk(char[] letters, int offset, int length) {
+        if (letters == null) {
+            return NO_NODE;
+        }
+        int node = root();
+        for (int i = offset; i < offset + length && node != NO_NODE; i++) {
+            node = child(node, letters[i]);
+        }
+        return node;
+    }
+
+    /**
+     * 将字母转换为字母表索引，忽略大小写
+     *
+     * @param letter 字母
+     * @return 0-25的索引，非英文字母返回-1
+     */
+    static int letterIndex(char letter) {
+        if (letter >= 'a' && letter <= 'z') {
+            return letter - 'a';
+        }
+        if (letter >= 'A' && letter <= 'Z') {
+            return letter - 'A';
+        }
+        return -1;
+    }
+}
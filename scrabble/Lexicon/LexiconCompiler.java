@@ -0,0 +1,46 @@
+package scrabble.Lexicon;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 词库编译工具
+ * 将文本词表编译为可内存映射的二进制词库文件，供Dictionary在启动和读档时直接映射使用。
+ * 用法：LexiconCompiler &lt;词表路径&gt; [输出路径]
+ * 未指定输出路径时写入与词表同名的.lex文件。
+ */
+public class LexiconCompiler {
+
+    /**
+     * 命令行入口
+     *
+     * @param args 词表路径和可选的输出路径
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("用法: LexiconCompiler <词表路径> [输出路径]");
+            System.exit(1);
+        }
+        String sourcePath = args[0];
+        String outputPath = args.length > 1 ? args[1] : LexiconFile.compiledPathFor(sourcePath);
+
+        try {
+            long start = System.nanoTime();
+            Dawg dawg = LexiconFile.compile(sourcePath, outputPath);
+            long compileMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            Lexicon mapped = LexiconFile.map(outputPath);
+            long mapMillis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.println("已编译词库: " + outputPath);
+            System.out.println("单词数: " + dawg.size() + ", 节点数: " + dawg.nodeCount()
+                    + ", 边数: " + dawg.edgeCount() + ", 文件大小: " + new File(outputPath).length() / 1024 + " KB");
+            System.out.println("编译耗时: " + compileMillis + " ms, 映射加载耗时: " + mapMillis
+                    + " ms (单词数 " + mapped.size() + ")");
+        } catch (IOException e) {
+            System.err.println("编译词库失败: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package scrabble.Lexicon;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.zip.CRC32;
+
+/**
+ * 预编译二进制词库文件的读写
+ * 文件布局（大端序）：
+ * - 头部48字节：魔数、格式版本、保留标志、单词数、节点数、边数、
+ *   源词表大小、源词表修改时间、数据区CRC32校验和
+ * - 数据区：节点数组（每节点2个int）和边数组，布局与内存中的Dawg完全相同
+ * 加载时通过FileChannel.map映射整个文件，查询直接读取映射区域，不在堆上创建节点对象。
+ */
+public final class LexiconFile {
+    /** 文件魔数 "SLEX" */
+    private static final int MAGIC = 0x534C4558;
+    /** 文件格式版本 */
+    private static final int VERSION = 1;
+    /** 头部长度（字节） */
+    private static final int HEADER_SIZE = 48;
+    /** 编译后词库文件的扩展名 */
+    public static final String EXTENSION = ".lex";
+
+    private LexiconFile() {
+    }
+
+    /**
+     * 根据源词表路径得到对应的编译文件路径，如 words.txt -> words.lex
+     *
+     * @param sourcePath 源词表路径
+     * @return 编译文件路径
+     */
+    public static String compiledPathFor(String sourcePath) {
+        int dot = sourcePath.lastIndexOf('.');
+        int slash = Math.max(sourcePath.lastIndexOf('/'), sourcePath.lastIndexOf('\\'));
+        String base = dot > slash ? sourcePath.substring(0, dot) : sourcePath;
+        return base + EXTENSION;
+    }
+
+    /**
+     * 将文本词表编译为二进制词库文件
+     *
+     * @param sourcePath 源词表路径
+     * @param outputPath 输出文件路径
+     * @return 编译得到的词图
+     * @throws IOException 如果读取或写入失败
+     */
+    public static Dawg compile(String sourcePath, String outputPath) throws IOException {
+        File source = new File(sourcePath);
+        Dawg dawg = Dawg.build(WordListLoader.load(sourcePath));
+        write(dawg, Path.of(outputPath), source.length(), source.lastModified());
+        return dawg;
+    }
+
+    /**
+     * 将词图写入二进制文件
+     * 先写入临时文件再原子替换，避免其他进程映射到写了一半的文件
+     *
+     * @param dawg 词图
+     * @param output 输出文件
+     * @param sourceSize 源词表大小，用于检测编译文件是否过期
+     * @param sourceModified 源词表修改时间，用于检测编译文件是否过期
+     * @throws IOException 如果写入失败
+     */
+    public static void write(Dawg dawg, Path output, long sourceSize, long sourceModified) throws IOException {
+        int[] nodes = dawg.nodeArray();
+        int[] edges = dawg.edgeArray();
+
+        ByteBuffer payload = ByteBuffer.allocate(4 * (nodes.length + edges.length));
+        payload.asIntBuffer().put(nodes).put(edges);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = output.resolveSibling(output.getFileName() + "."
+                + ProcessHandle.current().pid() + "." + System.nanoTime() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp.toFile())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(0);
+            out.writeInt(dawg.size());
+            out.writeInt(dawg.nodeCount());
+            out.writeInt(dawg.edgeCount());
+            out.writeLong(sourceSize);
+            out.writeLong(sourceModified);
+            out.writeLong(crc.getValue());
+            out.write(payload.array());
+        }
+        try {
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 检查编译文件是否由当前的源词表生成
+     *
+     * @param compiledPath 编译文件路径
+     * @param sourceSize 源词表大小
+     * @param sourceModified 源词表修改时间
+     * @return 如果编译文件存在、格式正确且源词表未变化则返回true
+     */
+    public static boolean isUpToDate(String compiledPath, long sourceSize, long sourceModified) {
+        File file = new File(compiledPath);
+        if (!file.isFile() || file.length() < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // 读满头部
+            }
+            header.flip();
+            return header.remaining() == HEADER_SIZE
+                    && header.getInt(0) == MAGIC
+                    && header.getInt(4) == VERSION
+                    && header.getLong(24) == sourceSize
+                    && header.getLong(32) == sourceModified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 映射二进制词库文件
+     *
+     * @param compiledPath 编译文件路径
+     * @return 基于映射区域的只读词库
+     * @throws IOException 如果文件无法读取、格式错误或校验失败
+     */
+    public static Lexicon map(String compiledPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(compiledPath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("词库文件过短: " + compiledPath);
+            }
+            // 映射在通道关闭后仍然有效
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("不是有效的词库文件: " + compiledPath);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("不支持的词库文件版本: " + buffer.getInt(4));
+            }
+            int wordCount = buffer.getInt(12);
+            int nodeCount = buffer.getInt(16);
+            int edgeCount = buffer.getInt(20);
+            long checksum = buffer.getLong(40);
+
+            long expectedSize = HEADER_SIZE + 4L * (2L * nodeCount + edgeCount);
+            if (nodeCount <= 0 || edgeCount < 0 || expectedSize != size) {
+                throw new IOException("词库文件长度与头部不符: " + compiledPath);
+            }
+
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(payload.slice());
+            if (crc.getValue() != checksum) {
+                throw new IOException("词库文件校验失败: " + compiledPath);
+            }
+
+            payload.position(HEADER_SIZE);
+            IntBuffer ints = payload.slice().asIntBuffer();
+            IntBuffer nodes = ints.duplicate();
+            nodes.limit(2 * nodeCount);
+            nodes = nodes.slice();
+            IntBuffer edges = ints.duplicate();
+            edges.position(2 * nodeCount);
+            edges = edges.slice();
+            return new MappedLexicon(nodes, edges, wordCount);
+        }
+    }
+
+    /**
+     * 直接读取映射区域的词库，布局与Dawg相同
+     */
+    private static final class MappedLexicon implements Lexicon {
+        private final IntBuffer nodes;
+        private final IntBuffer edges;
+        private final int wordCount;
+
+        MappedLexicon(IntBuffer nodes, IntBuffer edges, int wordCount) {
+            this.nodes = nodes;
+            this.edges = edges;
+            this.wordCount = wordCount;
+        }
+
+        @Override
+        public int root() {
+            return 0;
+        }
+
+        @Override
+        public int child(int node, char letter) {
+            int index = Lexicon.letterIndex(letter);
+            if (index < 0 || node < 0) {
+                return NO_NODE;
+            }
+            int mask = nodes.get(2 * node + 1) & GraphBuilder.MASK_BITS;
+            int bit = 1 << index;
+            if ((mask & bit) == 0) {
+                return NO_NODE;
+            }
+            return edges.get(nodes.get(2 * node) + Integer.bitCount(mask & (bit - 1)));
+        }
+
+        @Override
+        public int childMask(int node) {
+            return nodes.get(2 * node + 1) & GraphBuilder.MASK_BITS;
+        }
+
+        @Override
+        public boolean isTerminal(int node) {
+            return (nodes.get(2 * node + 1) & GraphBuilder.TERMINAL_BIT) != 0;
+        }
+
+        @Override
+        public int size() {
+            return wordCount;
+        }
+
+        @Override
+        public int nodeCount() {
+            return nodes.limit() / 2;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new LexiconIterator(this);
+        }
+    }
+}
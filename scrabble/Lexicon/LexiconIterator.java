@@ -0,0 +1,90 @@
+package scrabble.Lexicon;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 按字典序深度优先遍历词库中所有单词的迭代器
+ * 只依赖Lexicon的节点接口，因此适用于任何词库实现
+ */
+class LexiconIterator implements Iterator<String> {
+    private final Lexicon lexicon;
+    /** 路径上每一层的节点 */
+    private int[] nodes;
+    /** 路径上每一层尚未访问的出边掩码 */
+    private int[] pendingMasks;
+    /** 当前路径对应的字母 */
+    private final StringBuilder path;
+    /** 当前路径深度 */
+    private int depth;
+    /** 预先找到的下一个单词 */
+    private String next;
+
+    LexiconIterator(Lexicon lexicon) {
+        this.lexicon = lexicon;
+        this.nodes = new int[16];
+        this.pendingMasks = new int[16];
+        this.path = new StringBuilder();
+        this.depth = 0;
+        int root = lexicon.root();
+        if (root != Lexicon.NO_NODE) {
+            nodes[0] = root;
+            pendingMasks[0] = lexicon.childMask(root);
+            depth = 1;
+        }
+        advance();
+    }
+
+    /**
+     * 继续深度优先搜索，直到找到下一个单词或遍历结束
+     */
+    private void advance() {
+        next = null;
+        while (depth > 0) {
+            int top = depth - 1;
+            int mask = pendingMasks[top];
+            if (mask == 0) {
+                // 当前节点的所有出边已访问，回溯
+                depth--;
+                if (path.length() > 0) {
+                    path.setLength(path.length() - 1);
+                }
+                continue;
+            }
+
+            int letter = Integer.numberOfTrailingZeros(mask);
+            pendingMasks[top] = mask & (mask - 1);
+            int child = lexicon.child(nodes[top], (char) ('a' + letter));
+
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                pendingMasks = Arrays.copyOf(pendingMasks, depth * 2);
+            }
+            nodes[depth] = child;
+            pendingMasks[depth] = lexicon.childMask(child);
+            depth++;
+            path.append((char) ('a' + letter));
+
+            if (lexicon.isTerminal(child)) {
+                next = path.toString();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        String word = next;
+        advance();
+        return word;
+    }
+}
@@ -0,0 +1,381 @@
+package scrabble.Lexicon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 词库的不可变快照
+ * 快照由基础词库和一个很小的有序覆盖层组成，覆盖层保存运行时添加的自定义单词。
+ * 添加单词时复制覆盖层得到新快照（写时复制），覆盖层积累到一定数量后在后台合并进新的基础词库。
+ * 读者在一次搜索开始时取得快照并一直使用它，不需要加锁，也不会看到写了一半的更新。
+ *
+ * 基础词库可以是词图（Lexicon），也可以是哈希集合（对应Dictionary的HASH_SET后端）。
+ * 快照可以带有只覆盖基础词库的布隆过滤器，合并时会随基础词库一起重建。
+ * 覆盖层的单词另有一个在第一次使用时构建的小GADDAG，使走法生成器在合并前也能生成自定义单词。
+ */
+public final class LexiconSnapshot implements Iterable<String> {
+    private final Lexicon baseLexicon;
+    private final Set<String> baseWords;
+    /** 不在基础词库中的自定义单词，按字典序排列 */
+    private final String[] overlay;
+    private final BloomFilter filter;
+    /** 构建过滤器时每个单词的位数，合并时用于重建 */
+    private final int filterBitsPerWord;
+    /** 快照版本，每次添加或合并后递增 */
+    private final long version;
+    /** 由覆盖层单词构建的GADDAG，首次使用时构建 */
+    private volatile Gaddag overlayGaddag;
+
+    private LexiconSnapshot(Lexicon baseLexicon, Set<String> baseWords, String[] overlay,
+                            BloomFilter filter, int filterBitsPerWord, long version) {
+        this.baseLexicon = baseLexicon;
+        this.baseWords = baseWords;
+        this.overlay = overlay;
+        this.filter = filter;
+        this.filterBitsPerWord = filterBitsPerWord;
+        this.version = version;
+    }
+
+    /**
+     * 以词图为基础词库创建快照
+     *
+     * @param lexicon 基础词库
+     * @return 没有自定义单词的快照
+     */
+    public static LexiconSnapshot of(Lexicon lexicon) {
+        return new LexiconSnapshot(lexicon, null, new String[0], null, 0, 0);
+    }
+
+    /**
+     * 以单词集合为基础词库创建快照
+     *
+     * @param words 小写单词集合，创建后不应再被修改
+     * @return 没有自定义单词的快照
+     */
+    public static LexiconSnapshot of(Set<String> words) {
+        return new LexiconSnapshot(null, Collections.unmodifiableSet(words), new String[0], null, 0, 0);
+    }
+
+    /**
+     * 检查单词是否在快照中
+     *
+     * @param word 单词（大小写均可，不含首尾空白）
+     * @return 如果存在返回true
+     */
+    public boolean contains(CharSequence word) {
+        return baseContains(word, 0, word.length()) || overlayContains(word, 0, word.length());
+    }
+
+    /**
+     * 检查字符序列的一段是否在基础词库中
+     *
+     * @param word 字符序列
+     * @param start 起始下标（包含）
+     * @param end 结束下标（不包含）
+     * @return 如果存在返回true
+     */
+    public boolean baseContains(CharSequence word, int start, int end) {
+        if (baseLexicon != null) {
+            int node = baseLexicon.root();
+            for (int i = start; i < end && node != Lexicon.NO_NODE; i++) {
+                node = baseLexicon.child(node, word.charAt(i));
+            }
+            return node != Lexicon.NO_NODE && baseLexicon.isTerminal(node);
+        }
+        return baseWords.contains(word.subSequence(start, end).toString().toLowerCase());
+    }
+
+    /**
+     * 检查字符数组的一段是否在基础词库中
+     *
+     * @param letters 字符数组
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 如果存在返回true
+     */
+    public boolean baseContains(char[] letters, int offset, int length) {
+        if (baseLexicon != null) {
+            return baseLexicon.contains(letters, offset, length);
+        }
+        return baseWords.contains(new String(letters, offset, length).toLowerCase());
+    }
+
+    /**
+     * 检查字符序列的一段是否在覆盖层中
+     *
+     * @param word 字符序列
+     * @param start 起始下标（包含）
+     * @param end 结束下标（不包含）
+     * @return 如果存在返回true
+     */
+    public boolean overlayContains(CharSequence word, int start, int end) {
+        return overlay.length > 0 && overlaySearch(word, null, start, end - start);
+    }
+
+    /**
+     * 检查字符数组的一段是否在覆盖层中
+     *
+     * @param letters 字符数组
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 如果存在返回true
+     */
+    public boolean overlayContains(char[] letters, int offset, int length) {
+        return overlay.length > 0 && overlaySearch(null, letters, offset, length);
+    }
+
+    /**
+     * 在有序的覆盖层中二分查找一段字符，逐个字符转为小写后与覆盖层的单词比较，不创建字符串。
+     * word和letters中只有一个不为null
+     *
+     * @param word 字符序列
+     * @param letters 字符数组
+     * @param start 起始下标
+     * @param length 长度
+     * @return 如果存在返回true
+     */
+    private boolean overlaySearch(CharSequence word, char[] letters, int start, int length) {
+        int low = 0;
+        int high = overlay.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            String entry = overlay[mid];
+            int common = Math.min(entry.length(), length);
+            int cmp = 0;
+            for (int i = 0; i < common && cmp == 0; i++) {
+                char ch = letters != null ? letters[start + i] : word.charAt(start + i);
+                cmp = entry.charAt(i) - Character.toLowerCase(ch);
+            }
+            if (cmp == 0) {
+                cmp = entry.length() - length;
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 检查覆盖层中是否有以指定前缀开头的单词
+     *
+     * @param prefix 小写前缀
+     * @return 如果存在返回true
+     */
+    public boolean overlayHasPrefix(String prefix) {
+        int index = Arrays.binarySearch(overlay, prefix);
+        int insertion = index >= 0 ? index : -index - 1;
+        return insertion < overlay.length && overlay[insertion].startsWith(prefix);
+    }
+
+    /**
+     * 返回加入一个单词后的新快照，单词已存在时返回当前快照
+     *
+     * @param word 小写单词
+     * @return 新快照
+     */
+    public LexiconSnapshot withWord(String word) {
+        if (baseContains(word, 0, word.length())) {
+            return this;
+        }
+        int index = Arrays.binarySearch(overlay, word);
+        if (index >= 0) {
+            return this;
+        }
+        int insertion = -index - 1;
+        String[] next = new String[overlay.length + 1];
+        System.arraycopy(overlay, 0, next, 0, insertion);
+        next[insertion] = word;
+        System.arraycopy(overlay, insertion, next, insertion + 1, overlay.length - insertion);
+        return new LexiconSnapshot(baseLexicon, baseWords, next, filter, filterBitsPerWord, version + 1);
+    }
+
+    /**
+     * 返回带有布隆过滤器的新快照
+     *
+     * @param bitsPerWord 每个单词的位数，为0时去掉过滤器
+     * @return 新快照
+     */
+    public LexiconSnapshot withBloomFilter(int bitsPerWord) {
+        BloomFilter built = bitsPerWord > 0 ? buildFilter(baseLexicon, baseWords, bitsPerWord) : null;
+        return new LexiconSnapshot(baseLexicon, baseWords, overlay, built, Math.max(0, bitsPerWord), version + 1);
+    }
+
+    /**
+     * 将覆盖层合并进新的基础词库
+     * 词图基础词库只能收录英文字母组成的单词，其余自定义单词继续保留在覆盖层中。
+     * 这个操作需要重建词图，应在后台线程中执行。
+     *
+     * @return 合并后的快照
+     */
+    public LexiconSnapshot merged() {
+        if (overlay.length == 0) {
+            return this;
+        }
+        Lexicon lexicon = null;
+        Set<String> words = null;
+        List<String> remaining = new ArrayList<>();
+        if (baseLexicon != null) {
+            List<String> all = new ArrayList<>(baseLexicon.size() + overlay.length);
+            for (String word : baseLexicon) {
+                all.add(word);
+            }
+            for (String word : overlay) {
+                if (Dawg.normalize(word) != null) {
+                    all.add(word);
+                } else {
+                    remaining.add(word);
+                }
+            }
+            lexicon = Dawg.build(all);
+        } else {
+            words = new HashSet<>(baseWords);
+            words.addAll(Arrays.asList(overlay));
+            words = Collections.unmodifiableSet(words);
+        }
+        BloomFilter rebuilt = filter != null ? buildFilter(lexicon, words, filterBitsPerWord) : null;
+        return new LexiconSnapshot(lexicon, words, remaining.toArray(new String[0]),
+                rebuilt, filterBitsPerWord, version + 1);
+    }
+
+    /**
+     * 在合并期间又有单词加入时，把当前快照中合并后新增的单词转移到合并结果上
+     *
+     * @param merged 由source.merged()得到的快照
+     * @param source 开始合并时的快照
+     * @return 包含当前快照所有单词的新快照
+     */
+    public LexiconSnapshot rebase(LexiconSnapshot merged, LexiconSnapshot source) {
+        LexiconSnapshot result = merged;
+        for (String word : overlay) {
+            if (Arrays.binarySearch(source.overlay, word) < 0) {
+                result = result.withWord(word);
+            }
+        }
+        return result;
+    }
+
+    private static BloomFilter buildFilter(Lexicon lexicon, Set<String> words, int bitsPerWord) {
+        return lexicon != null ? BloomFilter.build(lexicon, bitsPerWord)
+                : BloomFilter.build(words, words.size(), bitsPerWord);
+    }
+
+    /**
+     * 获取词图形式的基础词库
+     *
+     * @return 基础词库，基础词库是单词集合时返回null
+     */
+    public Lexicon getBaseLexicon() {
+        return baseLexicon;
+    }
+
+    /**
+     * 获取单词集合形式的基础词库
+     *
+     * @return 只读的基础单词集合，基础词库是词图时返回null
+     */
+    public Set<String> getBaseWords() {
+        return baseWords;
+    }
+
+    /**
+     * 获取覆盖层中的自定义单词
+     *
+     * @return 按字典序排列的只读列表
+     */
+    public List<String> getOverlay() {
+        return Collections.unmodifiableList(Arrays.asList(overlay));
+    }
+
+    /**
+     * 获取覆盖层中的单词数量
+     *
+     * @return 单词数量
+     */
+    public int overlaySize() {
+        return overlay.length;
+    }
+
+    /**
+     * 获取由覆盖层中英文字母组成的单词构建的GADDAG，供走法生成器在基础词库的GADDAG之外再扩展一次。
+     * 覆盖层的单词都不在基础词库中，两次扩展不会生成重复的走法。
+     *
+     * @return GADDAG，覆盖层中没有可以放到棋盘上的单词时返回null
+     */
+    public Gaddag getOverlayGaddag() {
+        if (overlay.length == 0) {
+            return null;
+        }
+        Gaddag result = overlayGaddag;
+        if (result == null) {
+            // 构建结果只取决于不可变的覆盖层，并发构建时保留任意一个即可
+            result = Gaddag.build(Dawg.build(Arrays.asList(overlay)));
+            overlayGaddag = result;
+        }
+        return result.size() > 0 ? result : null;
+    }
+
+    /**
+     * 获取只覆盖基础词库的布隆过滤器
+     *
+     * @return 过滤器，未启用时返回null
+     */
+    public BloomFilter getBloomFilter() {
+        return filter;
+    }
+
+    /**
+     * 获取快照版本
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取快照中的单词总数
+     *
+     * @return 单词数量
+     */
+    public int size() {
+        return (baseLexicon != null ? baseLexicon.size() : baseWords.size()) + overlay.length;
+    }
+
+    /**
+     * 依次遍历基础词库和覆盖层中的单词
+     */
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<String> base = baseLexicon != null ? baseLexicon.iterator() : baseWords.iterator();
+        return new Iterator<String>() {
+            private int overlayIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return base.hasNext() || overlayIndex < overlay.length;
+            }
+
+            @Override
+            public String next() {
+                if (base.hasNext()) {
+                    return base.next();
+                }
+                if (overlayIndex < overlay.length) {
+                    return overlay[overlayIndex++];
+                }
+                throw new NoSuchElementException();
+            }
+        };
+    }
+}
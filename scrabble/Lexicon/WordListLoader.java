@@ -0,0 +1,51 @@
+package scrabble.Lexicon;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 文本词表读取工具
+ * 每行一个单词，读取时去除首尾空白并转换为小写，
+ * 只保留长度大于或等于2且不包含 '.' 或 '-' 的单词。
+ */
+public final class WordListLoader {
+
+    private WordListLoader() {
+    }
+
+    /**
+     * 从文本文件读取单词
+     *
+     * @param path 词表文件路径
+     * @return 读取到的单词集合
+     * @throws IOException 如果文件无法读取、格式错误或没有有效单词
+     */
+    public static Set<String> load(String path) throws IOException {
+        Set<String> loaded = new HashSet<>();
+        int lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                try {
+                    String word = line.trim().toLowerCase();
+                    // 只加入长度大于或等于2且不包含 '.' 或 '-' 的单词
+                    if (!word.isEmpty() && word.length() >= 2 && !word.contains(".") && !word.contains("-")) {
+                        loaded.add(word);
+                    }
+                } catch (Exception e) {
+                    throw new IOException("词典文件第 " + lineNumber + " 行格式错误: " + line, e);
+                }
+            }
+        }
+
+        if (loaded.isEmpty()) {
+            throw new IOException("词典文件为空或没有有效单词: " + path);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,150 @@
+package scrabble.Placement;
+
+import scrabble.Board.Board;
+import scrabble.Board.Cell;
+import scrabble.Placement.PlaceTile.TilePlacement;
+import scrabble.Tile.Tile;
+
+import java.util.List;
+
+/**
+ * 棋盘覆盖层，在只读的基础棋盘上叠加最多7张待定的字母牌
+ * 覆盖层实现BoardOperator，WordFormer、DefaultScoreCalculator和各验证器可以直接通过它读取
+ * “放上候选字母牌之后”的棋盘，而基础棋盘始终不被修改。
+ * 放置和移除只作用于覆盖层；基础棋盘上已有的字母牌不能通过覆盖层移除。
+ *
+ * 每个格子的覆盖单元格在第一次使用时创建并在之后重复使用，
+ * 因此对大量候选放置反复调用clear()和setPlacements()不会再分配内存。
+ * 覆盖层本身不是线程安全的，每个线程应使用自己的覆盖层；多个覆盖层可以共享同一个基础棋盘。
+ */
+public class BoardOverlay implements BoardOperator {
+    /** 覆盖层最多容纳的待定字母牌数量 */
+    public static final int MAX_PENDING = 7;
+
+    private static final int SIZE = Board.BOARD_SIZE;
+
+    private final BoardOperator base;
+    /** 按格子下标缓存的覆盖单元格 */
+    private final Cell[] overlayCells = new Cell[SIZE * SIZE];
+    /** 待定字母牌所在格子的下标 */
+    private final int[] pending = new int[MAX_PENDING];
+    private int pendingCount;
+
+    /**
+     * 创建覆盖层
+     *
+     * @param base 基础棋盘，覆盖层只读取它
+     */
+    public BoardOverlay(BoardOperator base) {
+        this.base = base;
+    }
+
+    /**
+     * 移除所有待定字母牌
+     */
+    public void clear() {
+        for (int i = 0; i < pendingCount; i++) {
+            overlayCells[pending[i]].removeTile();
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * 用一组放置替换覆盖层中的待定字母牌
+     *
+     * @param placements 字母牌放置列表
+     * @return 如果所有字母牌都放置成功返回true；某个格子已被占用、超出棋盘或超过数量上限时返回false
+     */
+    public boolean setPlacements(List<TilePlacement> placements) {
+        clear();
+        for (TilePlacement placement : placements) {
+            if (!placeTileOnBoard(placement.getTile(), placement.getRow(), placement.getCol())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 在覆盖层上放置一张待定字母牌
+     */
+    @Override
+    public boolean placeTileOnBoard(Tile tile, int row, int col) {
+        if (isOutOfBounds(row, col) || pendingCount == MAX_PENDING || isCellOccupied(row, col)) {
+            return false;
+        }
+        int index = row * SIZE + col;
+        Cell cell = overlayCells[index];
+        if (cell == null) {
+            cell = new Cell(row, col, base.getCell(row, col).getCellType());
+            overlayCells[index] = cell;
+        }
+        cell.placeTile(tile);
+        pending[pendingCount++] = index;
+        return true;
+    }
+
+    /**
+     * 移除覆盖层上的待定字母牌，基础棋盘上的字母牌不受影响
+     *
+     * @return 被移除的待定字母牌，该位置没有待定字母牌时返回null
+     */
+    @Override
+    public Tile removeTileFromBoard(int row, int col) {
+        int slot = findPending(row, col);
+        if (slot < 0) {
+            return null;
+        }
+        int index = pending[slot];
+        pending[slot] = pending[--pendingCount];
+        return overlayCells[index].removeTile();
+    }
+
+    @Override
+    public boolean isCellOccupied(int row, int col) {
+        return findPending(row, col) >= 0 || base.isCellOccupied(row, col);
+    }
+
+    @Override
+    public Cell getCell(int row, int col) {
+        if (findPending(row, col) >= 0) {
+            return overlayCells[row * SIZE + col];
+        }
+        return base.getCell(row, col);
+    }
+
+    /**
+     * 获取待定字母牌数量
+     *
+     * @return 待定字母牌数量
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * 获取基础棋盘
+     *
+     * @return 基础棋盘
+     */
+    public BoardOperator getBase() {
+        return base;
+    }
+
+    private int findPending(int row, int col) {
+        if (isOutOfBounds(row, col)) {
+            return -1;
+        }
+        int index = row * SIZE + col;
+        for (int i = 0; i < pendingCount; i++) {
+            if (pending[i] == index) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isOutOfBounds(int row, int col) {
+        return row < 0 || row >= SIZE || col < 0 || col >= SIZE;
+    }
+}
@@ -1,6 +1,7 @@
 package scrabble.Placement;
 
 import scrabble.Tile.Tile;
+import scrabble.Validator.CrossCheckTable;
 import scrabble.Validator.WordValidator;
 import scrabble.Validator.PositionValidator;
 import scrabble.Validator.WordFormer;
@@ -23,6 +24,8 @@ public class PlaceTile {
     private final WordFormer wordFormer;
     private final DefaultScoreCalculator scoreCalculator;
     private final Map<Object, List<TilePlacement>> currentTurnPlacements;
+    /** 交叉检查表，确认放置后更新，为null时不做交叉预检查 */
+    private CrossCheckTable crossCheckTable;
 
     /**
      * 内部类，用于跟踪回合中的字母牌放置情况。
@@ -93,6 +96,24 @@ public class PlaceTile {
         this.scoreCalculator = new DefaultScoreCalculator(boardOperator);
     }
 
+    /**
+     * 设置交叉检查表，确认放置时用它预检查交叉单词，并在确认后更新
+     *
+     * @param crossCheckTable 交叉检查表，为null表示不使用
+     */
+    public void setCrossCheckTable(CrossCheckTable crossCheckTable) {
+        this.crossCheckTable = crossCheckTable;
+    }
+
+    /**
+     * 获取交叉检查表
+     *
+     * @return 交叉检查表，未设置时返回null
+     */
+    public CrossCheckTable getCrossCheckTable() {
+        return crossCheckTable;
+    }
+
     /**
      * 方法1: 将玩家字母架上选中的字母牌放置到棋盘上。
      * @param player 玩家
@@ -281,6 +302,13 @@ public class PlaceTile {
             return 0;
         }
 
+        // 用交叉检查表预先排除交叉单词无效的放置，每个字母只需一次位运算
+        if (crossCheckTable != null && !crossCheckTable.permits(placements)) {
+            logger.info("Invalid cross word formed by the placement");
+            cancelPlacements(player);
+            return 0;
+        }
+
         // 2. 形成单词并检查是否有有效单词
         // WordFormer会检查：
         // - 是否形成连续完整的单词（无间隙）
@@ -313,6 +341,11 @@ public class PlaceTile {
 
         currentTurnPlacements.remove(player);
 
+        // 只重新计算放置所在行和列的交叉检查
+        if (crossCheckTable != null) {
+            crossCheckTable.update(placements);
+        }
+
         logger.logPlacementConfirmation(player, formedWords, score);
 
         return score;
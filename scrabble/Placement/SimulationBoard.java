@@ -0,0 +1,95 @@
+package scrabble.Placement;
+
+import scrabble.Board.Board;
+import scrabble.Board.Cell;
+import scrabble.Tile.Tile;
+
+/**
+ * 可复制的棋盘状态，供AI模拟对局使用
+ * 与游戏中的Board不同，它不属于任何游戏，可以随意放置字母牌，也可以用copy()廉价地复制出独立的副本，
+ * 因此每一次模拟都在自己的副本上进行，不会影响真实棋盘，也不需要加锁。
+ *
+ * 复制只复制格子，字母牌对象在副本之间共享，放到模拟棋盘上的字母牌在之后不应再被修改
+ * （例如空白牌应在放置前就指定好字母）。单个模拟棋盘不是线程安全的。
+ */
+public class SimulationBoard implements BoardOperator {
+    private static final int SIZE = Board.BOARD_SIZE;
+
+    private final Cell[] cells;
+
+    private SimulationBoard(Cell[] cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * 读取一个棋盘的格子类型和字母牌，创建模拟棋盘
+     *
+     * @param boardOperator 要读取的棋盘
+     * @return 新的模拟棋盘
+     */
+    public static SimulationBoard of(BoardOperator boardOperator) {
+        Cell[] cells = new Cell[SIZE * SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                Cell source = boardOperator.getCell(row, col);
+                Cell cell = new Cell(row, col, source.getCellType());
+                if (source.hasTile()) {
+                    cell.placeTile(source.getTile().copy());
+                }
+                cells[row * SIZE + col] = cell;
+            }
+        }
+        return new SimulationBoard(cells);
+    }
+
+    /**
+     * 复制模拟棋盘
+     *
+     * @return 独立的副本
+     */
+    public SimulationBoard copy() {
+        Cell[] copy = new Cell[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            Cell source = cells[i];
+            Cell cell = new Cell(source.getRow(), source.getCol(), source.getCellType());
+            if (source.hasTile()) {
+                cell.placeTile(source.getTile());
+            }
+            copy[i] = cell;
+        }
+        return new SimulationBoard(copy);
+    }
+
+    @Override
+    public boolean placeTileOnBoard(Tile tile, int row, int col) {
+        if (isOutOfBounds(row, col)) {
+            return false;
+        }
+        return cells[row * SIZE + col].placeTile(tile);
+    }
+
+    @Override
+    public Tile removeTileFromBoard(int row, int col) {
+        if (isOutOfBounds(row, col)) {
+            return null;
+        }
+        return cells[row * SIZE + col].removeTile();
+    }
+
+    @Override
+    public boolean isCellOccupied(int row, int col) {
+        return !isOutOfBounds(row, col) && cells[row * SIZE + col].hasTile();
+    }
+
+    @Override
+    public Cell getCell(int row, int col) {
+        if (isOutOfBounds(row, col)) {
+            return null;
+        }
+        return cells[row * SIZE + col];
+    }
+
+    private boolean isOutOfBounds(int row, int col) {
+        return row < 0 || row >= SIZE || col < 0 || col >= SIZE;
+    }
+}
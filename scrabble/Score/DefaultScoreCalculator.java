@@ -138,6 +138,10 @@ public class DefaultScoreCalculator implements ScoreCalculator {
 
             // 获取单元格和字母牌
             Cell cell = boardOperator.getCell(row, col);
+            if (cell == null) {
+                // 位置超出棋盘范围
+                continue;
+            }
             Tile tile;
 
             // 检查是否是新放置的字母牌
@@ -73,17 +73,40 @@ public class TileManager implements Serializable {
     /** 用于随机生成字母牌的随机数生成器 */
     private final Random random;
 
+    /** 默认的英文字母分布，格式为 字母:数量:分值，'*' 表示空白牌 */
+    private static final String[] DEFAULT_TILE_DATA = {
+            "A:9:1", "B:2:3", "C:2:3", "D:4:2", "E:12:1",
+            "F:2:4", "G:3:2", "H:2:4", "I:9:1", "J:1:8",
+            "K:1:5", "L:4:1", "M:2:3", "N:6:1", "O:8:1",
+            "P:2:3", "Q:1:10", "R:6:1", "S:4:1", "T:6:1",
+            "U:4:1", "V:2:4", "W:2:4", "X:1:8", "Y:2:4",
+            "Z:1:10", "*:2:0"
+    };
+
     /**
-     * 创建一个字母管理器，默认字母架容量为7
+     * 创建一个字母管理器，默认字母架容量为7，使用默认的英文字母分布
      */
     public TileManager() {
+        this(defaultTileDistribution());
+    }
+
+    /**
+     * 创建一个使用指定字母分布的字母管理器，默认字母架容量为7
+     * @param distribution 字母分布（字母->{数量,分值}），由语言包提供
+     */
+    public TileManager(Map<Character, TileInfo> distribution) {
         this.tileDistribution = new HashMap<>();
         this.playerRacks = new HashMap<>();
         this.selectedTiles = new HashMap<>();
         this.maxRackSize = 7;
-        this.totalWeight = 100;
         this.random = new Random();
-        initTileDistribution();
+        for (Map.Entry<Character, TileInfo> entry : distribution.entrySet()) {
+            tileDistribution.put(entry.getKey(), entry.getValue().copy());
+            this.totalWeight += entry.getValue().getWeight();
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("字母分布中没有字母牌");
+        }
     }
 
     /**
@@ -96,25 +119,40 @@ public class TileManager implements Serializable {
     }
 
     /**
-     * 初始化字母分布表
-     * 设置每个字母的数量和分值
+     * 获取默认的英文字母分布
+     * @return 字母分布
+     */
+    public static Map<Character, TileInfo> defaultTileDistribution() {
+        return parseTileData(Arrays.asList(DEFAULT_TILE_DATA));
+    }
+
+    /**
+     * 解析字母分布数据
+     * 每行格式为 字母:数量:分值，字母统一转换为大写，'*' 表示空白牌；空行和以 '#' 开头的行被忽略
+     * @param lines 字母分布数据
+     * @return 字母分布
+     * @throws IllegalArgumentException 如果某行格式错误
      */
-    private void initTileDistribution() {
-        String[] tileData = {
-                "A:9:1", "B:2:3", "C:2:3", "D:4:2", "E:12:1",
-                "F:2:4", "G:3:2", "H:2:4", "I:9:1", "J:1:8",
-                "K:1:5", "L:4:1", "M:2:3", "N:6:1", "O:8:1",
-                "P:2:3", "Q:1:10", "R:6:1", "S:4:1", "T:6:1",
-                "U:4:1", "V:2:4", "W:2:4", "X:1:8", "Y:2:4",
-                "Z:1:10", "*:2:0"
-        };
-        for (String data : tileData) {
+    public static Map<Character, TileInfo> parseTileData(List<String> lines) {
+        Map<Character, TileInfo> distribution = new HashMap<>();
+        for (String line : lines) {
+            String data = line.trim();
+            if (data.isEmpty() || data.startsWith("#")) {
+                continue;
+            }
             String[] parts = data.split(":");
-            char letter = parts[0].charAt(0);
-            int weight = Integer.parseInt(parts[1]);
-            int value = Integer.parseInt(parts[2]);
-            tileDistribution.put(letter, new TileInfo(weight, value));
+            if (parts.length != 3 || parts[0].length() != 1) {
+                throw new IllegalArgumentException("字母分布格式错误: " + line);
+            }
+            char letter = Character.toUpperCase(parts[0].charAt(0));
+            int weight = Integer.parseInt(parts[1].trim());
+            int value = Integer.parseInt(parts[2].trim());
+            if (weight < 0 || value < 0) {
+                throw new IllegalArgumentException("字母数量和分值不能为负数: " + line);
+            }
+            distribution.put(letter, new TileInfo(weight, value));
         }
+        return distribution;
     }
 
     /**
@@ -192,6 +230,14 @@ public class TileManager implements Serializable {
         return tileInfo != null ? tileInfo.getValue() : 0;
     }
 
+    /**
+     * 获取字母分布
+     * @return 只读的字母分布（字母->{数量,分值}），'*' 表示空白牌
+     */
+    public Map<Character, TileInfo> getTileDistribution() {
+        return Collections.unmodifiableMap(tileDistribution);
+    }
+
     /**
      * 验证玩家的注册状态
      * @param player 要验证的玩家
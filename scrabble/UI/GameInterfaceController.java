@@ -9,6 +9,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ToggleButton;
+import javafx.scene.control.Tooltip;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.input.Dragboard;
 import javafx.scene.input.TransferMode;
@@ -23,6 +24,7 @@ import javafx.scene.text.Text;
 import javafx.scene.effect.DropShadow;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import scrabble.AIPlayer.ExchangePlanner;
 import scrabble.Board.Board;
 import scrabble.Board.Cell;
 import scrabble.Board.CellType;
@@ -115,6 +117,7 @@ public class GameInterfaceController implements Game.GameStateListener {
 
     // AI超时相关变量
     private final int AI_TIMEOUT_SECONDS = 10; // AI动作超时时间（秒）
+    private final long AI_TURN_DELAY_MILLIS = 500; // 托管后AI开始行动前的延迟（毫秒）
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
     private final Map<Integer, ScheduledFuture<?>> aiTimeoutTasks = new HashMap<>(); // 存储每个AI玩家的计时器任务
 
@@ -1078,15 +1081,8 @@ public class GameInterfaceController implements Game.GameStateListener {
                     // 启动AI超时计时器
                     startAITimeoutTimer(player);
                     
-                    new Thread(() -> {
-                        try {
-                            // 为AI回合添加一点延迟，使游戏更自然
-                            Thread.sleep(500);
-                            game.getAIPlayerFactory().playAITurnIfControlled(player);
-                        } catch (InterruptedException e) {
-                            System.err.println("AI回合执行被中断: " + e.getMessage());
-                        }
-                    }).start();
+                    // 为AI回合添加一点延迟，使游戏更自然
+                    game.getAIPlayerFactory().scheduleAITurn(player, AI_TURN_DELAY_MILLIS);
                 }
             }
             
@@ -1198,6 +1194,8 @@ public class GameInterfaceController implements Game.GameStateListener {
             updateBoard();
             // 更新字母架
             updateRack();
+            // 更新交换建议
+            updateSwapSuggestion(player);
             // 更新回合时间
             TurnRemainingTime.setText("Turn Time: " + formatTime(remainingTurnTime));
             
@@ -1213,6 +1211,32 @@ public class GameInterfaceController implements Game.GameStateListener {
         });
     }
 
+    /**
+     * 在交换按钮的提示中显示交换建议，AI控制的玩家不显示
+     * 交换规划器在后台准备，准备好之前不显示建议，准备好后如果仍是该玩家的回合再更新
+     *
+     * @param player 当前玩家
+     */
+    private void updateSwapSuggestion(Player player) {
+        if (!game.isAIControlled(player) && !game.prepareExchangePlanner().isDone()) {
+            swap.setTooltip(null);
+            game.prepareExchangePlanner().thenRun(() -> Platform.runLater(() -> {
+                if (game.getCurrentPlayer() == player) {
+                    updateSwapSuggestion(player);
+                }
+            }));
+            return;
+        }
+        ExchangePlanner.ExchangePlan plan = game.isAIControlled(player) ? null : game.suggestExchange();
+        if (plan == null || plan.isEmpty()) {
+            swap.setTooltip(null);
+            return;
+        }
+        String keep = plan.getKeep().isEmpty() ? "nothing" : ExchangePlanner.ExchangePlan.letters(plan.getKeep());
+        swap.setTooltip(new Tooltip("Suggested swap: " + ExchangePlanner.ExchangePlan.letters(plan.getExchange())
+                + " (keep " + keep + ")"));
+    }
+
     @Override
     public void onTurnTimeUpdated(int remainingTurnTime) {
         Platform.runLater(() -> {
@@ -1340,15 +1364,8 @@ public class GameInterfaceController implements Game.GameStateListener {
                     game.disableAIControl(player);
                     game.enableAIControl(player);
                     
-                    // 重新执行AI回合
-                    new Thread(() -> {
-                        try {
-                            Thread.sleep(500); // 增加短暂延迟
-                            game.getAIPlayerFactory().playAITurnIfControlled(player);
-                        } catch (InterruptedException e) {
-                            System.err.println("AI回合执行被中断: " + e.getMessage());
-                        }
-                    }).start();
+                    // 重新执行AI回合，取消托管时已取消卡住的回合
+                    game.getAIPlayerFactory().scheduleAITurn(player, AI_TURN_DELAY_MILLIS);
                 }
             });
         }, AI_TIMEOUT_SECONDS, AI_TIMEOUT_SECONDS, TimeUnit.SECONDS);
@@ -77,7 +77,9 @@ public class GameManager {
         }
 
         // 使用当前配置创建游戏
+        Game previous = currentGame;
         currentGame = GameFactory.getInstance().createGame(players, gameConfig);
+        closePreviousGame(previous);
 
         return currentGame;
     }
@@ -133,7 +135,20 @@ public class GameManager {
      * @return 加载的游戏实例
      */
     public Game loadGame(String filePath) throws IOException, ClassNotFoundException {
+        Game previous = currentGame;
         currentGame = GameFactory.getInstance().loadGame(filePath);
+        closePreviousGame(previous);
         return currentGame;
     }
+
+    /**
+     * 关闭被替换的游戏，释放其占用的共享词典等资源
+     * @param previous 之前的游戏实例
+     */
+    private void closePreviousGame(Game previous) {
+        // 重复加载同一存档时两个实例的游戏ID相同，此时不能关闭新实例
+        if (previous != null && !previous.getGameId().equals(currentGame.getGameId())) {
+            GameFactory.getInstance().closeGame(previous.getGameId());
+        }
+    }
 }
\ No newline at end of file
@@ -75,6 +75,7 @@ public class SettingInterfaceController {
                     case NOVICE: return "简单";
                     case NORMAL: return "普通";
                     case MASTER: return "困难";
+                    case EXPERT: return "专家";
                     default: return "";
                 }
             }
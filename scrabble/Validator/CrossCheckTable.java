@@ -0,0 +1,274 @@
+package scrabble.Validator;
+
+import scrabble.Board.Board;
+import scrabble.Lexicon.LexiconSnapshot;
+import scrabble.Placement.BoardOperator;
+import scrabble.Placement.PlaceTile.TilePlacement;
+import scrabble.Tile.Tile;
+
+import java.util.List;
+
+/**
+ * 交叉检查表，为每个空格子和每个方向保存一个26位字母集合
+ * 水平方向的集合表示：在该格子放置字母并作为水平单词的一部分时，与上下已有字母组成的垂直单词有效的字母；
+ * 垂直方向同理。格子上下（左右）都没有字母时允许所有字母。
+ * 表中同时保存交叉单词中已有字母的分值之和，供走法生成器直接计算交叉单词得分。
+ *
+ * 交叉检查只依赖已确认的字母牌：确认放置后只重新计算放置所在的行和列，
+ * 其他格子的交叉单词不受影响。每次更新都发布一份新的数组，读者不需要加锁。
+ * 每份状态记录计算时验证器的词库快照，读取时发现验证器的快照已经变化（添加了自定义单词、
+ * 共享词典添加单词或在后台合并）就先重新计算所有格子，调用者不需要记得调用rebuild()。
+ */
+public class CrossCheckTable {
+    /** 26个字母都允许 */
+    public static final int ALL_LETTERS = (1 << 26) - 1;
+    /** 没有交叉单词时的分值之和 */
+    public static final int NO_CROSS_WORD = -1;
+
+    private static final int SIZE = Board.BOARD_SIZE;
+    private static final int CELLS = SIZE * SIZE;
+
+    private final BoardOperator boardOperator;
+    private final WordValidator wordValidator;
+    private final char[] buffer = new char[SIZE];
+    /** 当前发布的交叉检查状态 */
+    private volatile State state;
+
+    /**
+     * 当前棋盘对应的交叉检查数据，发布后不再修改
+     * 下标为 方向 * 225 + 行 * 15 + 列，方向0为水平，1为垂直
+     */
+    private static final class State {
+        final int[] masks;
+        final int[] sums;
+        final long version;
+        /** 计算时验证器的词库快照，验证器不提供快照时为null */
+        final LexiconSnapshot lexicon;
+
+        State(int[] masks, int[] sums, long version, LexiconSnapshot lexicon) {
+            this.masks = masks;
+            this.sums = sums;
+            this.version = version;
+            this.lexicon = lexicon;
+        }
+    }
+
+    /**
+     * 创建交叉检查表并根据当前棋盘计算所有格子
+     *
+     * @param boardOperator 棋盘操作器
+     * @param wordValidator 单词验证器
+     */
+    public CrossCheckTable(BoardOperator boardOperator, WordValidator wordValidator) {
+        this.boardOperator = boardOperator;
+        this.wordValidator = wordValidator;
+        rebuild();
+    }
+
+    /**
+     * 重新计算所有格子
+     */
+    public synchronized void rebuild() {
+        // 先取快照再计算，计算期间词表再变化时下一次读取会再重新计算
+        LexiconSnapshot lexicon = wordValidator.getLexiconSnapshot();
+        int[] masks = new int[2 * CELLS];
+        int[] sums = new int[2 * CELLS];
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                compute(masks, sums, row, col);
+            }
+        }
+        State current = state;
+        state = new State(masks, sums, current == null ? 0 : current.version + 1, lexicon);
+    }
+
+    /**
+     * 在一次放置确认后更新交叉检查，只重新计算放置所在的行和列
+     *
+     * @param placements 已确认的字母牌放置
+     */
+    public synchronized void update(List<TilePlacement> placements) {
+        if (placements == null || placements.isEmpty()) {
+            return;
+        }
+        State current = state;
+        if (current.lexicon != wordValidator.getLexiconSnapshot()) {
+            // 词表已经变化，只更新部分行列会留下过时的格子
+            rebuild();
+            return;
+        }
+        int[] masks = current.masks.clone();
+        int[] sums = current.sums.clone();
+        boolean[] rows = new boolean[SIZE];
+        boolean[] cols = new boolean[SIZE];
+        for (TilePlacement placement : placements) {
+            rows[placement.getRow()] = true;
+            cols[placement.getCol()] = true;
+        }
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                if (rows[row] || cols[col]) {
+                    compute(masks, sums, row, col);
+                }
+            }
+        }
+        state = new State(masks, sums, current.version + 1, current.lexicon);
+    }
+
+    /**
+     * 获取格子在指定方向上允许放置的字母
+     *
+     * @param row 行
+     * @param col 列
+     * @param isHorizontal 放置所在单词的方向
+     * @return 26位字母集合，第i位表示第i个字母，已有字母牌的格子返回0
+     */
+    public int getAllowedLetters(int row, int col, boolean isHorizontal) {
+        return current().masks[index(row, col, isHorizontal)];
+    }
+
+    /**
+     * 检查字母能否放在格子上
+     *
+     * @param row 行
+     * @param col 列
+     * @param isHorizontal 放置所在单词的方向
+     * @param letter 字母（大小写均可）
+     * @return 如果交叉单词有效或没有交叉单词返回true
+     */
+    public boolean isAllowed(int row, int col, boolean isHorizontal, char letter) {
+        int bit = Character.toLowerCase(letter) - 'a';
+        return bit >= 0 && bit < 26 && (getAllowedLetters(row, col, isHorizontal) & (1 << bit)) != 0;
+    }
+
+    /**
+     * 获取格子在指定方向上的交叉单词中已有字母的分值之和
+     *
+     * @param row 行
+     * @param col 列
+     * @param isHorizontal 放置所在单词的方向
+     * @return 分值之和，没有交叉单词时返回NO_CROSS_WORD
+     */
+    public int getCrossScore(int row, int col, boolean isHorizontal) {
+        return current().sums[index(row, col, isHorizontal)];
+    }
+
+    /**
+     * 检查一组待确认的放置形成的交叉单词是否都有效
+     * 新放置的字母牌在同一条线上，彼此不会组成交叉单词，因此只需对照表中已确认字母的交叉检查。
+     * 只放一张牌时两个方向都要检查。
+     *
+     * @param placements 当前回合的放置
+     * @return 如果所有交叉单词都有效返回true
+     */
+    public boolean permits(List<TilePlacement> placements) {
+        if (placements == null || placements.isEmpty()) {
+            return false;
+        }
+        State current = current();
+        boolean single = placements.size() == 1;
+        boolean isHorizontal = single || placements.get(1).getRow() == placements.get(0).getRow();
+        for (TilePlacement placement : placements) {
+            Tile tile = placement.getTile();
+            int bit = Character.toLowerCase(tile.getLetter()) - 'a';
+            if (bit < 0 || bit >= 26) {
+                // 未指定字母的空白牌等情况交给WordFormer处理
+                continue;
+            }
+            int row = placement.getRow();
+            int col = placement.getCol();
+            if ((current.masks[index(row, col, isHorizontal)] & (1 << bit)) == 0) {
+                return false;
+            }
+            if (single && (current.masks[index(row, col, false)] & (1 << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取表的版本，每次更新后递增
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return current().version;
+    }
+
+    /**
+     * 获取与验证器当前词表一致的状态，词表变化后先重新计算
+     */
+    private State current() {
+        State current = state;
+        if (current.lexicon != wordValidator.getLexiconSnapshot()) {
+            synchronized (this) {
+                current = state;
+                if (current.lexicon != wordValidator.getLexiconSnapshot()) {
+                    rebuild();
+                    current = state;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static int index(int row, int col, boolean isHorizontal) {
+        return (isHorizontal ? 0 : CELLS) + row * SIZE + col;
+    }
+
+    /**
+     * 计算一个格子两个方向上的交叉检查
+     */
+    private void compute(int[] masks, int[] sums, int row, int col) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean isHorizontal = direction == 0;
+            int i = index(row, col, isHorizontal);
+            if (boardOperator.isCellOccupied(row, col)) {
+                masks[i] = 0;
+                sums[i] = NO_CROSS_WORD;
+                continue;
+            }
+            // 水平放置时交叉单词是垂直的，沿列方向查找相邻字母
+            int dr = isHorizontal ? 1 : 0;
+            int dc = isHorizontal ? 0 : 1;
+            int before = 0;
+            while (occupied(row - (before + 1) * dr, col - (before + 1) * dc)) {
+                before++;
+            }
+            int after = 0;
+            while (occupied(row + (after + 1) * dr, col + (after + 1) * dc)) {
+                after++;
+            }
+            if (before == 0 && after == 0) {
+                masks[i] = ALL_LETTERS;
+                sums[i] = NO_CROSS_WORD;
+                continue;
+            }
+
+            int length = before + after + 1;
+            int sum = 0;
+            for (int k = 0; k < length; k++) {
+                if (k == before) {
+                    continue;
+                }
+                Tile tile = boardOperator.getCell(row + (k - before) * dr, col + (k - before) * dc).getTile();
+                buffer[k] = tile.getLetter();
+                sum += tile.getValue();
+            }
+            int mask = 0;
+            for (int letter = 0; letter < 26; letter++) {
+                buffer[before] = (char) ('a' + letter);
+                if (wordValidator.isValidWord(buffer, 0, length)) {
+                    mask |= 1 << letter;
+                }
+            }
+            masks[i] = mask;
+            sums[i] = sum;
+        }
+    }
+
+    private boolean occupied(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE && boardOperator.isCellOccupied(row, col);
+    }
+}
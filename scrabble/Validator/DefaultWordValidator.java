@@ -1,11 +1,18 @@
 package scrabble.Validator;
 
+import scrabble.Lexicon.LexiconSnapshot;
+
 /**
  * 使用 Dictionary 类的简单实现的 WordValidator。
+ * 词典可能由多个游戏共享，自定义单词加入本验证器自己的快照覆盖层，不会影响其他游戏。
+ * 验证器的快照以词典当前的快照为基础，词典合并或添加共享单词后，自定义单词会转移到新的快照上，
+ * 因此走法生成器和交叉检查通过getLexiconSnapshot()看到的单词与isValidWord接受的单词一致。
  */
 public class DefaultWordValidator implements WordValidator {
 
     private final Dictionary dictionary;
+    /** 词典快照和在它上面加入本验证器自定义单词后的快照 */
+    private volatile Layer layer;
 
     /**
      * 使用指定的字典创建一个新的 SimpleDictionaryWordValidator。
@@ -14,6 +21,8 @@ public class DefaultWordValidator implements WordValidator {
      */
     public DefaultWordValidator(Dictionary dictionary) {
         this.dictionary = dictionary;
+        LexiconSnapshot shared = dictionary.snapshot();
+        this.layer = new Layer(shared, shared);
     }
 
     /**
@@ -24,23 +33,115 @@ public class DefaultWordValidator implements WordValidator {
      */
     @Override
     public boolean isValidWord(String word) {
+        return isValidWord((CharSequence) word);
+    }
+
+    /**
+     * 验证字符序列是否存在于字典中，不为大小写转换创建字符串。
+     *
+     * @param word 要验证的字符序列
+     * @return 如果单词有效，返回 true，否则返回 false
+     */
+    @Override
+    public boolean isValidWord(CharSequence word) {
         if (word == null || word.length() < 2) {
             return false;
         }
+        if (dictionary.isWordValid(word)) {
+            return true;
+        }
+        return hasCustomWords() && getLexiconSnapshot().overlayContains(word, 0, word.length());
+    }
 
-        return dictionary.isWordValid(word.trim().toLowerCase());
+    /**
+     * 验证字符数组的一段是否存在于字典中，不创建任何对象。
+     *
+     * @param letters 字符数组
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 如果单词有效，返回 true，否则返回 false
+     */
+    @Override
+    public boolean isValidWord(char[] letters, int offset, int length) {
+        if (letters == null || length < 2) {
+            return false;
+        }
+        if (dictionary.isWordValid(letters, offset, length)) {
+            return true;
+        }
+        return hasCustomWords() && getLexiconSnapshot().overlayContains(letters, offset, length);
     }
 
     /**
-     * 向字典中添加自定义单词。
+     * 向本验证器添加自定义单词，词典和共享词典的其他游戏不受影响。
+     * 添加后应重建使用本验证器的交叉检查表。
      *
      * @param word 要添加的单词
      */
-    public void addCustomWord(String word) {
-        if (word != null && !word.isEmpty()) {
-            dictionary.addCustomWord(word.trim().toLowerCase());
+    public synchronized void addCustomWord(String word) {
+        if (word == null || word.trim().isEmpty()) {
+            return;
+        }
+        Layer current = currentLayer();
+        layer = new Layer(current.shared, current.snapshot.withWord(word.trim().toLowerCase()));
+    }
+
+    /**
+     * 获取包含本验证器自定义单词的快照，词典快照变化后在新快照上重新加入自定义单词。
+     * 没有自定义单词时返回的就是词典当前的快照。
+     *
+     * @return 快照
+     */
+    @Override
+    public LexiconSnapshot getLexiconSnapshot() {
+        return currentLayer().snapshot;
+    }
+
+    private boolean hasCustomWords() {
+        Layer current = layer;
+        return current.snapshot != current.shared;
+    }
+
+    private Layer currentLayer() {
+        Layer current = layer;
+        LexiconSnapshot shared = dictionary.snapshot();
+        if (current.shared == shared) {
+            return current;
+        }
+        synchronized (this) {
+            current = layer;
+            if (current.shared != shared) {
+                LexiconSnapshot rebased = current.snapshot == current.shared
+                        ? shared : current.snapshot.rebase(shared, current.shared);
+                current = new Layer(shared, rebased);
+                layer = current;
+            }
+            return current;
         }
     }
 
+    /**
+     * 获取验证器使用的字典。
+     *
+     * @return 字典
+     */
+    public Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * 词典快照与验证器快照的组合，作为整体替换
+     */
+    private static final class Layer {
+        /** 验证器快照所基于的词典快照 */
+        final LexiconSnapshot shared;
+        /** 在shared上加入自定义单词后的快照 */
+        final LexiconSnapshot snapshot;
+
+        Layer(LexiconSnapshot shared, LexiconSnapshot snapshot) {
+            this.shared = shared;
+            this.snapshot = snapshot;
+        }
+    }
 
 }
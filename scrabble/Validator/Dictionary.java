@@ -1,74 +1,205 @@
 package scrabble.Validator;
 
-import java.io.BufferedReader;
+import scrabble.Lexicon.AnagramIndex;
+import scrabble.Lexicon.BloomFilter;
+import scrabble.Lexicon.Dawg;
+import scrabble.Lexicon.Gaddag;
+import scrabble.Lexicon.LetterMaskIndex;
+import scrabble.Lexicon.Lexicon;
+import scrabble.Lexicon.LexiconFile;
+import scrabble.Lexicon.LexiconSnapshot;
+import scrabble.Lexicon.WordListLoader;
+
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashSet;
+import java.nio.file.Path;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 用于 Scrabble 游戏的字典类。
  * 从文本文件加载单词并提供单词验证。
+ * 单词可以保存在三种后端中：
+ * - MAPPED：内存映射的预编译词库文件（words.txt对应words.lex），启动时无需解析文本（默认）
+ * - DAWG：在堆上构建的最小化有向无环词图，支持前缀查询和逐边遍历
+ * - HASH_SET：每个单词一个String的哈希集合，保留用于对比内存和查询延迟
+ * 可以通过系统属性 scrabble.dictionary.backend 选择默认后端。
+ * 可以在查询前加一层布隆过滤器，使大部分不存在的单词只需几次哈希探测即被排除，
+ * 通过系统属性 scrabble.dictionary.bloomBitsPerWord 或 enableBloomFilter 启用。
+ *
+ * 单词保存在不可变的LexiconSnapshot中并通过原子引用发布。添加自定义单词时以写时复制的方式
+ * 发布新快照，自定义单词积累到MERGE_THRESHOLD个后在后台线程合并进新的基础词库。
+ * 查询不加锁，需要在一次搜索中看到一致单词集合的读者应通过snapshot()固定一个快照。
  */
 public class Dictionary {
-    private final Set<String> words;
-    private String dictionaryPath = "src/main/resources/Dictionary/words.txt";
+    /** 默认词典路径 */
+    public static final String DEFAULT_DICTIONARY_PATH = "src/main/resources/Dictionary/words.txt";
+    /** 选择默认后端的系统属性 */
+    public static final String BACKEND_PROPERTY = "scrabble.dictionary.backend";
+    /** 启用布隆过滤器时每个单词分配的位数的系统属性，0或未设置表示不启用 */
+    public static final String BLOOM_PROPERTY = "scrabble.dictionary.bloomBitsPerWord";
+    /** 覆盖层中的自定义单词达到此数量时在后台合并进基础词库 */
+    public static final int MERGE_THRESHOLD = 32;
+
+    /** 所有词典共用的后台合并线程 */
+    private static ExecutorService mergeExecutor;
+
+    /**
+     * 词典存储后端
+     */
+    public enum Backend {
+        /** 哈希集合，每个单词一个String对象 */
+        HASH_SET,
+        /** 最小化有向无环词图，每次启动时由文本词表构建 */
+        DAWG,
+        /** 内存映射的预编译词库文件，布局与DAWG相同但不占用堆内存 */
+        MAPPED
+    }
+
+    private final String dictionaryPath;
+    private final Backend backend;
+    /** 当前发布的快照 */
+    private final AtomicReference<LexiconSnapshot> snapshot = new AtomicReference<>();
+    /** 是否已有等待执行的后台合并 */
+    private final AtomicBoolean mergePending = new AtomicBoolean(false);
+    /** 串行化合并和过滤器变更，添加单词不需要这个锁 */
+    private final Object updateLock = new Object();
+    /** HASH_SET后端在首次需要前缀查询时构建的词图 */
+    private Lexicon hashSetLexicon;
+    /** 构建hashSetLexicon时使用的单词集合 */
+    private Set<String> hashSetLexiconSource;
+    /** 双向扩展用的GADDAG索引，首次使用时构建 */
+    private Gaddag gaddag;
+    /** 构建gaddag时使用的词图 */
+    private Lexicon gaddagSource;
+    /** 按字母签名组织的变位词索引，首次使用时构建 */
+    private AnagramIndex anagramIndex;
+    /** 构建anagramIndex时使用的词图 */
+    private Lexicon anagramSource;
+    /** 按长度分桶的字母掩码索引，首次使用时构建 */
+    private LetterMaskIndex letterMaskIndex;
+    /** 构建letterMaskIndex时使用的词图 */
+    private Lexicon letterMaskSource;
+    /** 经过布隆过滤器的查询数 */
+    private final LongAdder bloomProbes = new LongAdder();
+    /** 被布隆过滤器直接排除的查询数 */
+    private final LongAdder bloomRejections = new LongAdder();
+    /** 通过布隆过滤器但词库中不存在的查询数（假阳性） */
+    private final LongAdder bloomFalsePositives = new LongAdder();
 
     /**
-     * 创建一个新的字典实例并从指定文件加载单词。
+     * 创建一个新的字典实例并从默认文件加载单词。
      *
      * @throws IOException 如果文件无法读取
      */
     public Dictionary() throws IOException {
-        this.words = new HashSet<>();
+        this(DEFAULT_DICTIONARY_PATH);
+    }
+
+    /**
+     * 使用默认后端从指定文件加载单词。
+     *
+     * @param dictionaryPath 词典文件路径
+     * @throws IOException 如果文件无法读取
+     */
+    public Dictionary(String dictionaryPath) throws IOException {
+        this(dictionaryPath, defaultBackend());
+    }
+
+    /**
+     * 使用指定后端从指定文件加载单词。
+     *
+     * @param dictionaryPath 词典文件路径
+     * @param backend 存储后端
+     * @throws IOException 如果文件无法读取
+     */
+    public Dictionary(String dictionaryPath, Backend backend) throws IOException {
+        this.dictionaryPath = dictionaryPath != null ? dictionaryPath : DEFAULT_DICTIONARY_PATH;
+        this.backend = backend != null ? backend : Backend.MAPPED;
 
         // 先检查文件是否存在
-        File file = new File(dictionaryPath);
+        File file = new File(this.dictionaryPath);
         if (!file.exists()) {
-            throw new IOException("词典文件不存在: " + dictionaryPath);
+            throw new IOException("词典文件不存在: " + this.dictionaryPath);
         }
         if (!file.isFile()) {
-            throw new IOException("指定路径不是一个文件: " + dictionaryPath);
+            throw new IOException("指定路径不是一个文件: " + this.dictionaryPath);
         }
         if (!file.canRead()) {
-            throw new IOException("无法读取词典文件: " + dictionaryPath + " (权限不足,请注意：词典格式必须是txt)");
+            throw new IOException("无法读取词典文件: " + this.dictionaryPath + " (权限不足,请注意：词典格式必须是txt)");
         }
 
         try {
-            loadDictionary();
+            switch (this.backend) {
+                case HASH_SET:
+                    snapshot.set(LexiconSnapshot.of(WordListLoader.load(this.dictionaryPath)));
+                    break;
+                case DAWG:
+                    // 构建完成后文本单词集合即可被回收，只保留词图
+                    snapshot.set(LexiconSnapshot.of(Dawg.build(WordListLoader.load(this.dictionaryPath))));
+                    break;
+                case MAPPED:
+                default:
+                    snapshot.set(LexiconSnapshot.of(loadCompiledLexicon(file)));
+                    break;
+            }
         } catch (IOException e) {
             throw new IOException("加载词典文件时出错: " + e.getMessage(), e);
         }
+
+        int bloomBits = Integer.getInteger(BLOOM_PROPERTY, 0);
+        if (bloomBits > 0) {
+            enableBloomFilter(bloomBits);
+        }
     }
 
     /**
-     * 从字典文件加载单词。
+     * 映射与词表对应的预编译词库文件
+     * 编译文件不存在或源词表已变化时先重新编译；无法写入编译文件时退回到堆内词图。
      *
-     * @throws IOException 如果文件无法读取或格式错误
+     * @param source 源词表文件
+     * @return 词库
+     * @throws IOException 如果词表无法读取
      */
-    private void loadDictionary() throws IOException {
-        int lineNumber = 0;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(dictionaryPath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                try {
-                    String word = line.trim().toLowerCase();
-                    // 只加入长度大于或等于2且不包含 '.' 或 '-' 的单词
-                    if (!word.isEmpty() && word.length() >= 2 && !word.contains(".") && !word.contains("-")) {
-                        words.add(word);
-                    }
-                } catch (Exception e) {
-                    throw new IOException("词典文件第 " + lineNumber + " 行格式错误: " + line, e);
-                }
+    private Lexicon loadCompiledLexicon(File source) throws IOException {
+        String compiledPath = LexiconFile.compiledPathFor(dictionaryPath);
+        if (LexiconFile.isUpToDate(compiledPath, source.length(), source.lastModified())) {
+            try {
+                return LexiconFile.map(compiledPath);
+            } catch (IOException e) {
+                System.err.println("预编译词库不可用，将重新编译: " + e.getMessage());
             }
         }
 
-        if (words.isEmpty()) {
-            throw new IOException("词典文件为空或没有有效单词: " + dictionaryPath);
+        Dawg dawg = Dawg.build(WordListLoader.load(dictionaryPath));
+        try {
+            LexiconFile.write(dawg, Path.of(compiledPath), source.length(), source.lastModified());
+            return LexiconFile.map(compiledPath);
+        } catch (IOException e) {
+            System.err.println("无法写入预编译词库，使用内存词图: " + e.getMessage());
+            return dawg;
+        }
+    }
+
+    /**
+     * 读取系统属性确定默认后端
+     */
+    private static Backend defaultBackend() {
+        String value = System.getProperty(BACKEND_PROPERTY);
+        if (value != null) {
+            try {
+                return Backend.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // 无法识别的值，使用默认后端
+            }
         }
+        return Backend.MAPPED;
     }
 
     /**
@@ -78,37 +209,488 @@ public class Dictionary {
      * @return 如果单词存在返回 true，否则返回 false
      */
     public boolean isWordValid(String word) {
-        if (word == null || word.isEmpty()) {
+        return isWordValid((CharSequence) word);
+    }
+
+    /**
+     * 检查一个字符序列是否是字典中的单词。
+     * 忽略首尾空白和大小写；词图后端直接沿词图行走，不创建任何对象，
+     * 因此可以传入走法生成中反复使用的StringBuilder等缓冲区。
+     *
+     * @param word 要检查的字符序列
+     * @return 如果单词存在返回 true，否则返回 false
+     */
+    public boolean isWordValid(CharSequence word) {
+        if (word == null) {
             return false;
         }
-        return words.contains(word.trim().toLowerCase());
+        int start = 0;
+        int end = word.length();
+        while (start < end && word.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && word.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+
+        LexiconSnapshot current = snapshot.get();
+        BloomFilter filter = current.getBloomFilter();
+        boolean found;
+        if (filter == null) {
+            found = current.baseContains(word, start, end);
+        } else {
+            bloomProbes.increment();
+            if (!filter.mightContain(word, start, end)) {
+                bloomRejections.increment();
+                found = false;
+            } else {
+                found = current.baseContains(word, start, end);
+                if (!found) {
+                    bloomFalsePositives.increment();
+                }
+            }
+        }
+        return found || current.overlayContains(word, start, end);
+    }
+
+    /**
+     * 检查字符数组的一段是否是字典中的单词。
+     * 忽略首尾空白和大小写；词图后端不创建任何对象。
+     *
+     * @param letters 字符数组
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 如果单词存在返回 true，否则返回 false
+     */
+    public boolean isWordValid(char[] letters, int offset, int length) {
+        if (letters == null) {
+            return false;
+        }
+        int start = offset;
+        int end = offset + length;
+        while (start < end && letters[start] <= ' ') {
+            start++;
+        }
+        while (end > start && letters[end - 1] <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+
+        LexiconSnapshot current = snapshot.get();
+        BloomFilter filter = current.getBloomFilter();
+        boolean found;
+        if (filter == null) {
+            found = current.baseContains(letters, start, end - start);
+        } else {
+            bloomProbes.increment();
+            if (!filter.mightContain(letters, start, end - start)) {
+                bloomRejections.increment();
+                found = false;
+            } else {
+                found = current.baseContains(letters, start, end - start);
+                if (!found) {
+                    bloomFalsePositives.increment();
+                }
+            }
+        }
+        return found || current.overlayContains(letters, start, end - start);
+    }
+
+    /**
+     * 在查询前启用布隆过滤器，大部分不存在的单词会被直接排除而不访问词库
+     * 过滤器由当前词典的单词构建，通过addCustomWord添加的单词不在过滤器中但仍会被查到。
+     *
+     * @param bitsPerWord 每个单词分配的位数，10位时假阳性率约为1%
+     */
+    public void enableBloomFilter(int bitsPerWord) {
+        if (bitsPerWord <= 0) {
+            throw new IllegalArgumentException("每个单词的位数必须为正数: " + bitsPerWord);
+        }
+        synchronized (updateLock) {
+            snapshot.updateAndGet(current -> current.withBloomFilter(bitsPerWord));
+        }
+        resetBloomStatistics();
+    }
+
+    /**
+     * 停用布隆过滤器
+     */
+    public void disableBloomFilter() {
+        synchronized (updateLock) {
+            snapshot.updateAndGet(current -> current.withBloomFilter(0));
+        }
+    }
+
+    /**
+     * 检查是否启用了布隆过滤器
+     *
+     * @return 如果启用返回true
+     */
+    public boolean isBloomFilterEnabled() {
+        return snapshot.get().getBloomFilter() != null;
+    }
+
+    /**
+     * 获取布隆过滤器的配置和命中统计，用于调整过滤器大小
+     *
+     * @return 统计信息，未启用过滤器时返回null
+     */
+    public BloomStatistics getBloomStatistics() {
+        BloomFilter filter = snapshot.get().getBloomFilter();
+        if (filter == null) {
+            return null;
+        }
+        return new BloomStatistics(filter.bitCount(), filter.hashCount(), filter.estimatedBytes(),
+                filter.expectedFalsePositiveRate(), bloomProbes.sum(), bloomRejections.sum(),
+                bloomFalsePositives.sum());
+    }
+
+    /**
+     * 清零布隆过滤器的命中统计
+     */
+    public void resetBloomStatistics() {
+        bloomProbes.reset();
+        bloomRejections.reset();
+        bloomFalsePositives.reset();
+    }
+
+    /**
+     * 检查字典中是否存在以指定前缀开头的单词。
+     *
+     * @param prefix 前缀
+     * @return 如果存在返回 true，否则返回 false
+     */
+    public boolean hasPrefix(String prefix) {
+        if (prefix == null) {
+            return false;
+        }
+        String normalized = prefix.trim().toLowerCase();
+        return getLexicon().hasPrefix(normalized) || snapshot.get().overlayHasPrefix(normalized);
+    }
+
+    /**
+     * 获取可以逐边遍历的词图，供走法生成器直接在词库上搜索。
+     * 词图后端返回当前快照的基础词库；HASH_SET后端由单词集合构建词图并缓存，
+     * 单词集合在合并自定义单词后发生变化时重新构建。
+     * 注意：尚未合并的自定义单词不在词图中。
+     *
+     * @return 词图
+     */
+    public Lexicon getLexicon() {
+        return lexiconOf(snapshot.get());
+    }
+
+    /**
+     * 获取快照基础词库对应的词图，HASH_SET后端的词图按单词集合缓存
+     */
+    private Lexicon lexiconOf(LexiconSnapshot current) {
+        if (current.getBaseLexicon() != null) {
+            return current.getBaseLexicon();
+        }
+        synchronized (this) {
+            if (hashSetLexicon == null || hashSetLexiconSource != current.getBaseWords()) {
+                hashSetLexicon = Dawg.build(current.getBaseWords());
+                hashSetLexiconSource = current.getBaseWords();
+            }
+            return hashSetLexicon;
+        }
+    }
+
+    /**
+     * 获取当前的不可变单词快照。
+     * 走法生成等需要在整个搜索过程中看到同一组单词的读者应在开始时调用一次并一直使用返回的快照，
+     * 之后添加的自定义单词只出现在新的快照中。
+     *
+     * @return 当前快照
+     */
+    public LexiconSnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * 获取由本词典单词构建的GADDAG索引，供走法生成、提示和分析工具从锚点双向扩展单词。
+     * 索引随基础词库一起更新：合并自定义单词后第一次调用时重新构建。
+     * 注意：尚未合并的自定义单词不在索引中，需要时从快照的覆盖层中取得。
+     *
+     * @return GADDAG索引
+     */
+    public Gaddag getGaddag() {
+        return getGaddag(snapshot.get());
+    }
+
+    /**
+     * 获取与快照的基础词库一致的GADDAG索引，供在搜索开始时固定了快照的读者使用。
+     *
+     * @param pinned 之前由snapshot()取得的快照
+     * @return GADDAG索引
+     */
+    public synchronized Gaddag getGaddag(LexiconSnapshot pinned) {
+        Lexicon lexicon = lexiconOf(pinned);
+        if (gaddag == null || gaddagSource != lexicon) {
+            gaddag = Gaddag.build(lexicon);
+            gaddagSource = lexicon;
+        }
+        return gaddag;
+    }
+
+    /**
+     * 获取由本词典单词构建的变位词索引，供开局走法和只用字母架的提示直接按字母组合查找单词。
+     * 索引随基础词库一起更新：合并自定义单词后第一次调用时重新构建。
+     * 注意：尚未合并的自定义单词不在索引中，需要时从快照的覆盖层中取得。
+     *
+     * @return 变位词索引
+     */
+    public AnagramIndex getAnagramIndex() {
+        return getAnagramIndex(snapshot.get());
+    }
+
+    /**
+     * 获取与快照的基础词库一致的变位词索引，供在搜索开始时固定了快照的读者使用。
+     *
+     * @param pinned 之前由snapshot()取得的快照
+     * @return 变位词索引
+     */
+    public synchronized AnagramIndex getAnagramIndex(LexiconSnapshot pinned) {
+        Lexicon lexicon = lexiconOf(pinned);
+        if (anagramIndex == null || anagramSource != lexicon) {
+            anagramIndex = AnagramIndex.build(lexicon);
+            anagramSource = lexicon;
+        }
+        return anagramIndex;
+    }
+
+    /**
+     * 获取由本词典单词构建的字母掩码索引，供走法生成和提示按字母架筛选候选单词。
+     * 索引随基础词库一起更新：合并自定义单词后第一次调用时重新构建。
+     * 注意：尚未合并的自定义单词不在索引中，需要时从快照的覆盖层中取得。
+     *
+     * @return 字母掩码索引
+     */
+    public synchronized LetterMaskIndex getLetterMaskIndex() {
+        Lexicon lexicon = getLexicon();
+        if (letterMaskIndex == null || letterMaskSource != lexicon) {
+            letterMaskIndex = LetterMaskIndex.build(lexicon);
+            letterMaskSource = lexicon;
+        }
+        return letterMaskIndex;
+    }
+
+    /**
+     * 获取当前使用的存储后端。
+     *
+     * @return 存储后端
+     */
+    public Backend getBackend() {
+        return backend;
+    }
+
+    /**
+     * 获取词典文件路径。
+     *
+     * @return 词典文件路径
+     */
+    public String getDictionaryPath() {
+        return dictionaryPath;
     }
 
     /**
      * 向字典中添加自定义单词。
+     * 单词先加入新快照的覆盖层，覆盖层达到MERGE_THRESHOLD个单词后在后台合并进基础词库。
+     * 注意：通过LexiconRegistry获取的词典由多个游戏共享，添加的单词对所有游戏可见，
+     * 只想对单个游戏生效时应使用DefaultWordValidator.addCustomWord。
      *
      * @param word 要添加的单词
      */
     public void addCustomWord(String word) {
-        if (word != null && !word.isEmpty()) {
-            words.add(word.trim().toLowerCase());
+        if (word == null || word.trim().isEmpty()) {
+            return;
+        }
+        String normalized = word.trim().toLowerCase();
+        LexiconSnapshot updated = snapshot.updateAndGet(current -> current.withWord(normalized));
+        if (updated.overlaySize() >= MERGE_THRESHOLD && mergePending.compareAndSet(false, true)) {
+            mergeExecutor().execute(() -> {
+                try {
+                    mergeCustomWords();
+                } catch (RuntimeException e) {
+                    System.err.println("合并自定义单词失败: " + e.getMessage());
+                } finally {
+                    mergePending.set(false);
+                }
+            });
         }
     }
 
+    /**
+     * 立即将覆盖层中的自定义单词合并进新的基础词库并发布新快照。
+     * 合并期间添加的单词会保留在新快照的覆盖层中。
+     *
+     * @return 合并后发布的快照
+     */
+    public LexiconSnapshot mergeCustomWords() {
+        synchronized (updateLock) {
+            LexiconSnapshot source = snapshot.get();
+            LexiconSnapshot merged = source.merged();
+            while (true) {
+                LexiconSnapshot current = snapshot.get();
+                LexiconSnapshot next = current == source ? merged : current.rebase(merged, source);
+                if (snapshot.compareAndSet(current, next)) {
+                    return next;
+                }
+            }
+        }
+    }
+
+    private static synchronized ExecutorService mergeExecutor() {
+        if (mergeExecutor == null) {
+            mergeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "dictionary-merge");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return mergeExecutor;
+    }
+
     /**
      * 获取字典中的单词数量。
      *
      * @return 单词的数量
      */
     public int getWordCount() {
-        return words.size();
+        return snapshot.get().size();
     }
 
     /**
      * 返回词典中的所有单词
+     * 返回调用时快照的只读视图，遍历期间添加的单词不会影响遍历
      * @return 词典中单词
      */
     public Set<String> getWords() {
-        return words;
+        return new WordSetView(snapshot.get());
+    }
+
+    /**
+     * 布隆过滤器统计信息
+     */
+    public static class BloomStatistics {
+        private final long bitCount;
+        private final int hashCount;
+        private final long sizeBytes;
+        private final double expectedFalsePositiveRate;
+        private final long probes;
+        private final long rejections;
+        private final long falsePositives;
+
+        public BloomStatistics(long bitCount, int hashCount, long sizeBytes, double expectedFalsePositiveRate,
+                               long probes, long rejections, long falsePositives) {
+            this.bitCount = bitCount;
+            this.hashCount = hashCount;
+            this.sizeBytes = sizeBytes;
+            this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+            this.probes = probes;
+            this.rejections = rejections;
+            this.falsePositives = falsePositives;
+        }
+
+        public long getBitCount() {
+            return bitCount;
+        }
+
+        public int getHashCount() {
+            return hashCount;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        /**
+         * @return 按过滤器大小估算的假阳性率
+         */
+        public double getExpectedFalsePositiveRate() {
+            return expectedFalsePositiveRate;
+        }
+
+        /**
+         * @return 经过过滤器的查询数
+         */
+        public long getProbes() {
+            return probes;
+        }
+
+        /**
+         * @return 单词存在的查询数
+         */
+        public long getHits() {
+            return probes - rejections - falsePositives;
+        }
+
+        /**
+         * @return 单词不存在的查询数
+         */
+        public long getMisses() {
+            return rejections + falsePositives;
+        }
+
+        /**
+         * @return 被过滤器直接排除的查询数
+         */
+        public long getRejections() {
+            return rejections;
+        }
+
+        /**
+         * @return 通过过滤器但单词不存在的查询数
+         */
+        public long getFalsePositives() {
+            return falsePositives;
+        }
+
+        /**
+         * @return 实测假阳性率，即不存在的单词中未被过滤器排除的比例
+         */
+        public double getObservedFalsePositiveRate() {
+            long misses = getMisses();
+            return misses == 0 ? 0.0 : (double) falsePositives / misses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("布隆过滤器: %d KB, %d 个哈希, 估算假阳性率 %.4f, 实测假阳性率 %.4f, "
+                            + "查询 %d (命中 %d, 排除 %d, 假阳性 %d)",
+                    sizeBytes / 1024, hashCount, expectedFalsePositiveRate, getObservedFalsePositiveRate(),
+                    probes, getHits(), rejections, falsePositives);
+        }
+    }
+
+    /**
+     * 固定快照的只读单词集合视图
+     */
+    private static class WordSetView extends AbstractSet<String> {
+        private final LexiconSnapshot pinned;
+
+        WordSetView(LexiconSnapshot pinned) {
+            this.pinned = pinned;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && pinned.contains(((String) o).trim());
+        }
+
+        @Override
+        public int size() {
+            return pinned.size();
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return pinned.iterator();
+        }
     }
 }
\ No newline at end of file
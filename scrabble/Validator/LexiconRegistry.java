@@ -0,0 +1,315 @@
+package scrabble.Validator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 进程内共享的词典注册表
+ * 同一词表文件（按规范路径、文件大小和修改时间识别）在进程中只加载一次，
+ * 所有游戏、单词验证器和AI玩家共享同一个Dictionary实例。
+ * 注册表按游戏ID进行引用计数，当没有游戏再使用某个词典时将其移出注册表，
+ * 之后的获取请求会重新加载。词表文件被修改后，新的请求会得到新词典，
+ * 仍在使用旧词典的游戏不受影响。
+ * 加载词典不持有注册表的锁：同一词表的并发请求等待同一次加载，其他词表的请求和释放不受影响。
+ */
+public class LexiconRegistry {
+    /** 词表指纹与注册项的映射 */
+    private static final Map<LexiconKey, Entry> entries = new LinkedHashMap<>();
+    /** 词典实例与注册项的映射，用于释放 */
+    private static final Map<Dictionary, Entry> byDictionary = new IdentityHashMap<>();
+    /** 正在加载的词表，同一词表只加载一次 */
+    private static final ConcurrentMap<LexiconKey, CompletableFuture<Dictionary>> loading = new ConcurrentHashMap<>();
+
+    private LexiconRegistry() {
+    }
+
+    /**
+     * 为指定游戏获取词典
+     * 如果已有游戏使用同一词表文件，直接返回共享实例，否则加载新词典。
+     *
+     * @param dictionaryPath 词典文件路径，为null时使用默认路径
+     * @param gameId 使用词典的游戏ID
+     * @return 共享的词典实例
+     * @throws IOException 如果词典文件不存在或加载失败
+     */
+    public static Dictionary acquire(String dictionaryPath, String gameId) throws IOException {
+        String path = dictionaryPath != null ? dictionaryPath : Dictionary.DEFAULT_DICTIONARY_PATH;
+        File file = new File(path);
+        if (!file.isFile()) {
+            // 交给Dictionary给出具体的错误信息
+            return new Dictionary(path);
+        }
+
+        LexiconKey key = new LexiconKey(file.getCanonicalPath(), file.length(), file.lastModified());
+        Dictionary shared = lookup(key, gameId);
+        if (shared != null) {
+            return shared;
+        }
+        CompletableFuture<Dictionary> created = new CompletableFuture<>();
+        CompletableFuture<Dictionary> pending = loading.putIfAbsent(key, created);
+        if (pending != null) {
+            return register(key, await(pending), gameId);
+        }
+        try {
+            // 另一个请求可能在检查注册表之后、放入加载任务之前已经完成加载
+            shared = lookup(key, gameId);
+            if (shared == null) {
+                shared = register(key, new Dictionary(path), gameId);
+            }
+            created.complete(shared);
+            return shared;
+        } catch (IOException | RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, created);
+        }
+    }
+
+    /**
+     * 注册表中已有该词表时为游戏增加一次引用
+     */
+    private static synchronized Dictionary lookup(LexiconKey key, String gameId) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.holders.merge(ownerOf(gameId), 1, Integer::sum);
+        return entry.dictionary;
+    }
+
+    /**
+     * 把加载好的词典放入注册表并为游戏增加一次引用
+     * 等待期间词典可能已被其他游戏释放并移出注册表，这时重新放入
+     */
+    private static synchronized Dictionary register(LexiconKey key, Dictionary dictionary, String gameId) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(key, dictionary);
+            entries.put(key, entry);
+            byDictionary.put(dictionary, entry);
+        }
+        entry.holders.merge(ownerOf(gameId), 1, Integer::sum);
+        return entry.dictionary;
+    }
+
+    /**
+     * 等待其他请求的加载完成，加载失败时抛出同样的异常
+     */
+    private static Dictionary await(CompletableFuture<Dictionary> pending) throws IOException {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 释放游戏对词典的一次引用
+     * 引用计数归零后词典从注册表中移除，由垃圾回收器回收。
+     *
+     * @param dictionary 通过acquire得到的词典
+     * @param gameId 使用词典的游戏ID
+     */
+    public static synchronized void release(Dictionary dictionary, String gameId) {
+        if (dictionary == null) {
+            return;
+        }
+        Entry entry = byDictionary.get(dictionary);
+        if (entry == null) {
+            return;
+        }
+        String owner = ownerOf(gameId);
+        Integer count = entry.holders.get(owner);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            entry.holders.put(owner, count - 1);
+        } else {
+            entry.holders.remove(owner);
+        }
+        if (entry.holders.isEmpty()) {
+            entries.remove(entry.key);
+            byDictionary.remove(dictionary);
+        }
+    }
+
+    /**
+     * 获取共享某个词典的游戏数量
+     *
+     * @param dictionary 词典
+     * @return 游戏数量，词典不在注册表中时返回0
+     */
+    public static synchronized int getShareCount(Dictionary dictionary) {
+        Entry entry = byDictionary.get(dictionary);
+        return entry == null ? 0 : entry.holders.size();
+    }
+
+    /**
+     * 获取注册表中所有词典的使用情况
+     *
+     * @return 使用情况列表
+     */
+    public static synchronized List<LexiconUsage> getUsage() {
+        List<LexiconUsage> usage = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            int references = 0;
+            for (int count : entry.holders.values()) {
+                references += count;
+            }
+            usage.add(new LexiconUsage(entry.key.path, entry.key.size, entry.key.lastModified,
+                    entry.dictionary.getBackend(), entry.dictionary.getWordCount(),
+                    new ArrayList<>(entry.holders.keySet()), references));
+        }
+        return usage;
+    }
+
+    /**
+     * 获取注册表中的词典数量
+     *
+     * @return 词典数量
+     */
+    public static synchronized int size() {
+        return entries.size();
+    }
+
+    private static String ownerOf(String gameId) {
+        return gameId != null ? gameId : "";
+    }
+
+    /**
+     * 词表文件指纹
+     */
+    private static final class LexiconKey {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+
+        LexiconKey(String path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LexiconKey)) {
+                return false;
+            }
+            LexiconKey other = (LexiconKey) o;
+            return size == other.size && lastModified == other.lastModified && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, lastModified);
+        }
+    }
+
+    /**
+     * 注册项：词典实例及每个游戏持有的引用数
+     */
+    private static final class Entry {
+        private final LexiconKey key;
+        private final Dictionary dictionary;
+        private final Map<String, Integer> holders = new HashMap<>();
+
+        Entry(LexiconKey key, Dictionary dictionary) {
+            this.key = key;
+            this.dictionary = dictionary;
+        }
+    }
+
+    /**
+     * 词典使用情况
+     */
+    public static class LexiconUsage {
+        private final String path;
+        private final long fileSize;
+        private final long lastModified;
+        private final Dictionary.Backend backend;
+        private final int wordCount;
+        private final List<String> gameIds;
+        private final int references;
+
+        public LexiconUsage(String path, long fileSize, long lastModified, Dictionary.Backend backend,
+                            int wordCount, List<String> gameIds, int references) {
+            this.path = path;
+            this.fileSize = fileSize;
+            this.lastModified = lastModified;
+            this.backend = backend;
+            this.wordCount = wordCount;
+            this.gameIds = Collections.unmodifiableList(gameIds);
+            this.references = references;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getFileSize() {
+            return fileSize;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public Dictionary.Backend getBackend() {
+            return backend;
+        }
+
+        public int getWordCount() {
+            return wordCount;
+        }
+
+        /**
+         * @return 共享该词典的游戏ID
+         */
+        public List<String> getGameIds() {
+            return gameIds;
+        }
+
+        /**
+         * @return 共享该词典的游戏数量
+         */
+        public int getGameCount() {
+            return gameIds.size();
+        }
+
+        /**
+         * @return 引用总数（同一存档被加载多次时一个游戏ID可能持有多个引用）
+         */
+        public int getReferences() {
+            return references;
+        }
+
+        @Override
+        public String toString() {
+            return path + " [" + backend + ", " + wordCount + " 个单词, " + getGameCount() + " 个游戏共享]";
+        }
+    }
+}
@@ -17,6 +17,8 @@ import java.util.*;
  */
 public class WordFormer {
     private final BoardOperator boardOperator;
+    /** validateWords复用的单词缓冲区，因此同一个WordFormer不能被多个线程同时使用 */
+    private final char[] wordBuffer = new char[Board.BOARD_SIZE];
 
     public WordFormer(BoardOperator boardOperator) {
         this.boardOperator = boardOperator;
@@ -55,6 +57,154 @@ public class WordFormer {
         return new ArrayList<>(formedWords);
     }
 
+    /**
+     * 验证放置形成的所有单词，规则与formWords相同，但不为单词创建字符串
+     * 每个单词写入复用的缓冲区后直接交给验证器查找，遇到第一个无效单词即返回，
+     * 适合走法生成中大量候选放置的快速淘汰。
+     *
+     * @param placements 当前回合的字母牌放置列表
+     * @param validator 单词验证器
+     * @return 如果至少形成一个单词且所有单词都有效则返回true
+     */
+    public boolean validateWords(List<TilePlacement> placements, WordValidator validator) {
+        if (placements == null || placements.isEmpty()) {
+            return false;
+        }
+
+        boolean isHorizontal = determineMainDirection(placements);
+        int formed = 0;
+
+        int length = fillMainWord(placements, isHorizontal);
+        if (length > 1) {
+            if (!validator.isValidWord(wordBuffer, 0, length)) {
+                return false;
+            }
+            formed++;
+        }
+
+        for (TilePlacement placement : placements) {
+            length = fillCrossWord(placement, !isHorizontal);
+            if (length > 1) {
+                if (!validator.isValidWord(wordBuffer, 0, length)) {
+                    return false;
+                }
+                formed++;
+            }
+        }
+
+        return formed > 0;
+    }
+
+    /**
+     * 将主要单词写入缓冲区，规则与formMainWord相同
+     *
+     * @return 单词长度，没有形成有效主单词时返回-1
+     */
+    private int fillMainWord(List<TilePlacement> placements, boolean isHorizontal) {
+        // 与排序后取首尾放置等价：取方向上坐标最小和最大的放置
+        TilePlacement first = placements.get(0);
+        int min = isHorizontal ? first.getCol() : first.getRow();
+        int max = min;
+        for (TilePlacement placement : placements) {
+            int position = isHorizontal ? placement.getCol() : placement.getRow();
+            if (position < min) {
+                min = position;
+                first = placement;
+            }
+            max = Math.max(max, position);
+        }
+
+        int line = isHorizontal ? first.getRow() : first.getCol();
+        int start = isHorizontal ? findWordStart(line, min, true) : findWordStart(min, line, false);
+        int end = isHorizontal ? findWordEnd(line, max, true) : findWordEnd(max, line, false);
+
+        boolean containsNewTile = false;
+        boolean containsExistingTile = false;
+        int length = 0;
+        for (int i = start; i <= end; i++) {
+            int row = isHorizontal ? line : i;
+            int col = isHorizontal ? i : line;
+            TilePlacement placement = findPlacement(placements, row, col);
+            char letter;
+            if (placement != null) {
+                letter = placement.getTile().getLetter();
+                containsNewTile = true;
+            } else if (boardOperator.isCellOccupied(row, col)) {
+                letter = boardOperator.getCell(row, col).getTile().getLetter();
+                containsExistingTile = true;
+            } else {
+                letter = '\0';
+            }
+            if (letter == '\0') {
+                return -1;
+            }
+            wordBuffer[length++] = letter;
+        }
+
+        boolean isFirstPlacement = isBoardEmptyExcept(placements);
+        if (!containsNewTile || (!containsExistingTile && !isFirstPlacement)) {
+            return isFirstPlacement && length > 1 ? length : -1;
+        }
+        return length;
+    }
+
+    /**
+     * 将交叉单词写入缓冲区，规则与formCrossWord相同
+     *
+     * @return 单词长度，没有形成交叉单词时返回-1
+     */
+    private int fillCrossWord(TilePlacement placement, boolean isHorizontal) {
+        int row = placement.getRow();
+        int col = placement.getCol();
+        int start = isHorizontal ? findWordStart(row, col, true) : findWordStart(row, col, false);
+        int end = isHorizontal ? findWordEnd(row, col, true) : findWordEnd(row, col, false);
+
+        boolean containsExistingTile = false;
+        int length = 0;
+        for (int i = start; i <= end; i++) {
+            int r = isHorizontal ? row : i;
+            int c = isHorizontal ? i : col;
+            if (r == row && c == col) {
+                wordBuffer[length++] = placement.getTile().getLetter();
+            } else {
+                Tile tile = boardOperator.getCell(r, c).getTile();
+                if (tile == null) {
+                    return -1;
+                }
+                wordBuffer[length++] = tile.getLetter();
+                containsExistingTile = true;
+            }
+        }
+
+        return containsExistingTile && length > 1 ? length : -1;
+    }
+
+    /**
+     * 在放置列表中查找指定位置的放置，放置数量很少，线性查找即可
+     */
+    private TilePlacement findPlacement(List<TilePlacement> placements, int row, int col) {
+        for (TilePlacement placement : placements) {
+            if (placement.getRow() == row && placement.getCol() == col) {
+                return placement;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 检查棋盘上除当前放置外是否没有字母牌，不创建位置映射
+     */
+    private boolean isBoardEmptyExcept(List<TilePlacement> placements) {
+        for (int row = 0; row < Board.BOARD_SIZE; row++) {
+            for (int col = 0; col < Board.BOARD_SIZE; col++) {
+                if (boardOperator.isCellOccupied(row, col) && findPlacement(placements, row, col) == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * 根据放置和棋盘状态确定主要放置方向
      * 单个字母放置时，根据周围字母确定方向
@@ -1,5 +1,7 @@
 package scrabble.Validator;
 
+import scrabble.Lexicon.LexiconSnapshot;
+
 /**
  * 单词验证接口 - 用于验证单词是否在字典中存在
  */
@@ -12,4 +14,38 @@ public interface WordValidator {
      */
     boolean isValidWord(String word);
 
+    /**
+     * 检查字符序列是否是有效单词
+     * 实现类可以直接在词库上查找，避免为可复用的缓冲区创建字符串
+     *
+     * @param word 要验证的字符序列
+     * @return 如果单词有效则返回true，否则返回false
+     */
+    default boolean isValidWord(CharSequence word) {
+        return word != null && isValidWord(word.toString());
+    }
+
+    /**
+     * 检查字符数组的一段是否是有效单词
+     * 实现类可以直接在词库上查找，使走法生成中的验证不产生垃圾对象
+     *
+     * @param letters 字符数组
+     * @param offset 起始下标
+     * @param length 长度
+     * @return 如果单词有效则返回true，否则返回false
+     */
+    default boolean isValidWord(char[] letters, int offset, int length) {
+        return letters != null && isValidWord(new String(letters, offset, length));
+    }
+
+    /**
+     * 获取验证器当前接受的全部单词的快照
+     * 走法生成器用它取得尚未合并进基础词库的自定义单词，快照变化也表示之前生成的走法可能已经过时
+     *
+     * @return 快照，验证器不基于词库快照时返回null
+     */
+    default LexiconSnapshot getLexiconSnapshot() {
+        return null;
+    }
+
 }